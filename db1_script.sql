@@ -1,3 +1,6 @@
+-- Schema ban dau cho docker init. Moi thay doi schema sau nay nam trong
+-- user/src/main/resources/db/migration (chay tu dong khi user service start).
+
 CREATE TABLE "users" (
     id BIGSERIAL PRIMARY KEY,
     email TEXT NOT NULL UNIQUE,
@@ -1,3 +1,6 @@
+-- Schema ban dau cho docker init. Moi thay doi schema sau nay nam trong
+-- main/src/main/resources/db/migration (chay tu dong khi main service start).
+
 CREATE TABLE product (
     id BIGSERIAL PRIMARY KEY,
     product_name VARCHAR(255) NOT NULL,
@@ -25,7 +28,7 @@ CREATE TABLE blacklist (
     id BIGSERIAL PRIMARY KEY,
     bidder_id BIGINT NOT NULL,
     product_id BIGINT NOT NULL,
-    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
     created_by BIGINT NOT NULL
 );
 
@@ -85,6 +88,14 @@ CREATE TABLE product_pictures (
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
 );
 
+CREATE TABLE category_stats (
+    category_id INTEGER PRIMARY KEY,
+    product_count BIGINT NOT NULL,
+    active_auction_count BIGINT NOT NULL,
+    swept_until TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
 CREATE TABLE system_settings (
     id SERIAL PRIMARY KEY,
     key VARCHAR(100) UNIQUE,
@@ -2,6 +2,7 @@ package com.api.gateway.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
@@ -23,7 +24,9 @@ public class GatewayCorsConfiguration {
         corsConfig.setAllowedHeaders(List.of("*"));
         corsConfig.setAllowCredentials(true);
         corsConfig.setMaxAge(3600L);
-        corsConfig.setExposedHeaders(List.of("*"));
+        // "*" khong co tac dung khi allowCredentials = true, nen phai liet ke ETag/Last-Modified
+        // de browser doc duoc va gui lai qua If-None-Match / If-Modified-Since
+        corsConfig.setExposedHeaders(List.of("*", HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfig);
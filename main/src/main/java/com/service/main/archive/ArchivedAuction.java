@@ -0,0 +1,108 @@
+package com.service.main.archive;
+
+import com.service.main.entity.BidHistory;
+import com.service.main.entity.Categories;
+import com.service.main.entity.Product;
+import com.service.main.entity.ProductCategory;
+import com.service.main.entity.ProductDescription;
+import com.service.main.entity.ProductPicture;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 1 auction da ket thuc trong archive: product va cac bang con, luu thanh 1 dong JSON.
+ * Category luu kem ten/parent tai thoi diem archive.
+ */
+public record ArchivedAuction(
+        ProductRow product,
+        List<DescriptionRow> descriptions,
+        List<PictureRow> pictures,
+        List<CategoryRow> categories,
+        List<BidRow> bids,
+        List<AutoBidRow> autoBids
+) {
+
+    public record ProductRow(Long id, String productName, String thumbnailUrl, BigDecimal startPrice,
+                             BigDecimal currentPrice, BigDecimal buyNowPrice, BigDecimal minimumBidStep,
+                             Long topBidderId, Long sellerId, Boolean autoExtendEnabled, Integer bidCount,
+                             OffsetDateTime createdAt, OffsetDateTime endAt) {
+    }
+
+    public record DescriptionRow(Long id, String content, OffsetDateTime createdAt, Long createdBy) {
+    }
+
+    public record PictureRow(Long id, String imageUrl, OffsetDateTime createdAt) {
+    }
+
+    public record CategoryRow(Integer id, String name, Integer parentId) {
+    }
+
+    // bidderMaskedName null voi segment ghi truoc khi co cot bidder_masked_name
+    public record BidRow(Long id, Long bidderId, BigDecimal price, OffsetDateTime createdAt, String bidderMaskedName) {
+    }
+
+    public record AutoBidRow(Long id, Long bidderId, BigDecimal maxPrice, OffsetDateTime createdAt,
+                             OffsetDateTime updatedAt) {
+    }
+
+    /**
+     * Dung lai entity (khong gan voi persistence context) de tai su dung cac ham map ra response.
+     */
+    public Product toProduct() {
+        Product p = Product.builder()
+                .id(product.id())
+                .productName(product.productName())
+                .thumbnailUrl(product.thumbnailUrl())
+                .startPrice(product.startPrice())
+                .currentPrice(product.currentPrice())
+                .buyNowPrice(product.buyNowPrice())
+                .minimumBidStep(product.minimumBidStep())
+                .topBidderId(product.topBidderId())
+                .sellerId(product.sellerId())
+                .autoExtendEnabled(product.autoExtendEnabled())
+                .bidCount(product.bidCount())
+                .createdAt(product.createdAt())
+                .endAt(product.endAt())
+                .descriptions(new ArrayList<>())
+                .pictures(new ArrayList<>())
+                .productCategories(new ArrayList<>())
+                .build();
+
+        for (DescriptionRow d : descriptions) {
+            p.getDescriptions().add(ProductDescription.builder()
+                    .id(d.id()).content(d.content()).createdAt(d.createdAt()).createdBy(d.createdBy()).product(p)
+                    .build());
+        }
+        for (PictureRow pic : pictures) {
+            p.getPictures().add(ProductPicture.builder()
+                    .id(pic.id()).imageUrl(pic.imageUrl()).createdAt(pic.createdAt()).product(p)
+                    .build());
+        }
+        for (CategoryRow c : categories) {
+            Categories category = Categories.builder().id(c.id()).name(c.name()).parent_id(c.parentId()).build();
+            p.getProductCategories().add(ProductCategory.builder().product(p).category(category).build());
+        }
+        return p;
+    }
+
+    /**
+     * Bid history moi nhat truoc, giong BidHistoryRepository.findByProductId.
+     */
+    public List<BidHistory> toBidHistories() {
+        return bids.stream()
+                .sorted(Comparator.comparing(BidRow::createdAt).reversed())
+                .map(b -> BidHistory.builder()
+                        .id(b.id())
+                        .productId(product.id())
+                        .bidderId(b.bidderId())
+                        .price(b.price())
+                        .createdAt(b.createdAt())
+                        .bidderMaskedName(b.bidderMaskedName())
+                        .build())
+                .toList();
+    }
+}
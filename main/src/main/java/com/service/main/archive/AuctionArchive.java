@@ -0,0 +1,303 @@
+package com.service.main.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Kho archive tren disk cho auction da ket thuc.
+ *
+ * Moi segment gom 2 file:
+ * - segment-NNNNNN.ndjson.gz: moi auction la 1 gzip member rieng chua 1 dong JSON. Noi cac member lai
+ *   van la file gzip hop le (zcat ra NDJSON), nhung co the giai nen rieng 1 auction theo offset.
+ * - segment-NNNNNN.idx: (productId, offset, length) sap xep theo productId. File idx duoc rename vao
+ *   sau cung, nen segment chi duoc coi la hoan chinh khi da co idx.
+ *
+ * Index cua tat ca segment duoc gop thanh cac mang sap xep trong memory (20 byte / auction),
+ * tra cuu bang binary search. Trung id (archiver chay lai sau khi crash) thi segment moi hon thang.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuctionArchive {
+
+    private static final Pattern SEGMENT_INDEX = Pattern.compile("segment-(\\d{6})\\.idx");
+    private static final int INDEX_MAGIC = 0x41524331; // "ARC1"
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${archive.dir:./data/auction-archive}")
+    private Path dir;
+
+    private final Map<Integer, FileChannel> channels = new ConcurrentHashMap<>();
+    private volatile Index index = Index.EMPTY;
+
+    private record Index(long[] ids, int[] segments, long[] offsets, int[] lengths) {
+        static final Index EMPTY = new Index(new long[0], new int[0], new long[0], new int[0]);
+
+        int find(long productId) {
+            return Arrays.binarySearch(ids, productId);
+        }
+    }
+
+    private record Entry(long productId, int segment, long offset, int length) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        // khong don file .tmp o day: thu muc dung chung, instance dang giu lock archiver co the dang ghi
+        Files.createDirectories(dir);
+        reload();
+    }
+
+    /**
+     * Xoa phan con lai cua lan ghi bi dung giua chung: file .tmp, va file data da rename nhung chua co idx
+     * (dung giua 2 lan move trong append). Chi goi khi dang giu lock cua AuctionArchiver, luc do khong
+     * instance nao khac ghi vao thu muc.
+     */
+    public synchronized void removeIncompleteSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                boolean orphanData = name.endsWith(".ndjson.gz")
+                        && !Files.exists(dir.resolve(name.replace(".ndjson.gz", ".idx")));
+                if (name.endsWith(".tmp") || orphanData) {
+                    Files.deleteIfExists(file);
+                    log.warn("Removed incomplete archive file {}", name);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (FileChannel channel : channels.values()) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close archive segment", e);
+            }
+        }
+    }
+
+    /**
+     * Doc lai idx cua tat ca segment (khi nhieu instance dung chung thu muc archive, instance khac
+     * se thay segment moi sau lan reload tiep theo).
+     */
+    @Scheduled(fixedDelayString = "${archive.reload-interval-ms:60000}", initialDelayString = "${archive.reload-interval-ms:60000}")
+    public synchronized void reload() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        int segments = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = SEGMENT_INDEX.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    readIndexFile(file, Integer.parseInt(matcher.group(1)), entries);
+                    segments++;
+                }
+            }
+        }
+        this.index = buildIndex(entries);
+        log.info("Auction archive loaded: {} auctions in {} segments", index.ids().length, segments);
+    }
+
+    public boolean contains(Long productId) {
+        return productId != null && index.find(productId) >= 0;
+    }
+
+    public int size() {
+        return index.ids().length;
+    }
+
+    public long[] productIds() {
+        return index.ids().clone();
+    }
+
+    public Optional<ArchivedAuction> find(Long productId) {
+        Index current = this.index;
+        int i = productId == null ? -1 : current.find(productId);
+        if (i < 0) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(current.lengths()[i]);
+            FileChannel channel = channel(current.segments()[i]);
+            long position = current.offsets()[i];
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of archive segment " + current.segments()[i]);
+                }
+            }
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.array()))) {
+                return Optional.of(objectMapper.readValue(in, ArchivedAuction.class));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archived product " + productId, e);
+        }
+    }
+
+    /**
+     * Ghi 1 segment moi va dua vao index. Chi return sau khi ca 2 file da fsync,
+     * nen caller co the xoa du lieu khoi DB ngay sau do.
+     */
+    public synchronized void append(List<ArchivedAuction> auctions) throws IOException {
+        if (auctions.isEmpty()) {
+            return;
+        }
+        int segment = nextSegmentNumber();
+        Path data = dir.resolve(String.format("segment-%06d.ndjson.gz", segment));
+        Path idx = dir.resolve(String.format("segment-%06d.idx", segment));
+        Path dataTmp = dir.resolve(data.getFileName() + ".tmp");
+        Path idxTmp = dir.resolve(idx.getFileName() + ".tmp");
+
+        List<Entry> written = new ArrayList<>(auctions.size());
+        try (FileChannel out = FileChannel.open(dataTmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long offset = 0;
+            for (ArchivedAuction auction : auctions) {
+                byte[] member = compress(auction);
+                ByteBuffer buffer = ByteBuffer.wrap(member);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                written.add(new Entry(auction.product().id(), segment, offset, member.length));
+                offset += member.length;
+            }
+            out.force(true);
+        }
+
+        written.sort((a, b) -> Long.compare(a.productId(), b.productId()));
+        try (OutputStream fileOut = Files.newOutputStream(idxTmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(written.size());
+            for (Entry entry : written) {
+                out.writeLong(entry.productId());
+                out.writeLong(entry.offset());
+                out.writeInt(entry.length());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(idxTmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+
+        Files.move(dataTmp, data, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(idxTmp, idx, StandardCopyOption.ATOMIC_MOVE);
+
+        List<Entry> merged = new ArrayList<>(index.ids().length + written.size());
+        Index current = this.index;
+        for (int i = 0; i < current.ids().length; i++) {
+            merged.add(new Entry(current.ids()[i], current.segments()[i], current.offsets()[i], current.lengths()[i]));
+        }
+        merged.addAll(written);
+        this.index = buildIndex(merged);
+        log.info("Archived {} auctions into segment {}", auctions.size(), segment);
+    }
+
+    private byte[] compress(ArchivedAuction auction) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(auction);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+            gzip.write('\n');
+        }
+        return bytes.toByteArray();
+    }
+
+    private int nextSegmentNumber() throws IOException {
+        int max = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("segment-") && name.length() >= 14) {
+                    try {
+                        max = Math.max(max, Integer.parseInt(name.substring(8, 14)));
+                    } catch (NumberFormatException ignored) {
+                        // file la khong theo dinh dang segment
+                    }
+                }
+            }
+        }
+        return max + 1;
+    }
+
+    private void readIndexFile(Path file, int segment, List<Entry> entries) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                log.warn("Skipping archive index with unknown format: {}", file);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(in.readLong(), segment, in.readLong(), in.readInt()));
+            }
+        }
+    }
+
+    private static Index buildIndex(List<Entry> entries) {
+        // cung productId thi segment lon hon dung sau, va duoc giu lai
+        entries.sort((a, b) -> a.productId() != b.productId()
+                ? Long.compare(a.productId(), b.productId())
+                : Integer.compare(a.segment(), b.segment()));
+        int n = 0;
+        long[] ids = new long[entries.size()];
+        int[] segments = new int[entries.size()];
+        long[] offsets = new long[entries.size()];
+        int[] lengths = new int[entries.size()];
+        for (Entry entry : entries) {
+            if (n > 0 && ids[n - 1] == entry.productId()) {
+                n--;
+            }
+            ids[n] = entry.productId();
+            segments[n] = entry.segment();
+            offsets[n] = entry.offset();
+            lengths[n] = entry.length();
+            n++;
+        }
+        return new Index(Arrays.copyOf(ids, n), Arrays.copyOf(segments, n),
+                Arrays.copyOf(offsets, n), Arrays.copyOf(lengths, n));
+    }
+
+    private FileChannel channel(int segment) {
+        return channels.computeIfAbsent(segment, s -> {
+            try {
+                return FileChannel.open(dir.resolve(String.format("segment-%06d.ndjson.gz", s)), StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,261 @@
+package com.service.main.archive;
+
+import com.service.main.cache.CategoryStatsCache;
+import com.service.main.cache.DashboardStatsCache;
+import com.service.main.cache.ProductCardJsonCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Job chuyen auction da ket thuc hon after-days ngay tu product, product_descriptions, product_pictures,
+ * product_category, bid_history va auto_bids sang AuctionArchive.
+ * Thu tu: ghi segment (fsync) roi moi xoa trong DB. Neu bi dung giua chung, lan chay sau archive lai
+ * cac product do vao segment moi (segment moi hon thang khi trung id), khong mat du lieu.
+ * wishlist, questions, orders... giu nguyen vi la du lieu cua user, chi tro toi product id.
+ * archived_product giu seller/created_at/end_at cua auction da archive cho danh sach auction ket thuc cua seller.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuctionArchiver {
+
+    // chi 1 instance archive tai 1 thoi diem
+    private static final long LOCK_KEY = 0x6172636869766531L;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuctionArchive auctionArchive;
+    private final ProductCardJsonCache productCardJsonCache;
+    private final CategoryStatsCache categoryStatsCache;
+    private final DashboardStatsCache dashboardStatsCache;
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.after-days:90}")
+    private int afterDays;
+
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${archive.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(cron = "${archive.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        // advisory lock gan voi session, nen giu 1 connection rieng trong suot lan chay
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!tryLock(lockConnection, "SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+                log.info("Auction archiver is running on another instance");
+                return;
+            }
+            try {
+                auctionArchive.removeIncompleteSegments();
+                backfillArchivedProducts();
+                archiveEnded();
+            } finally {
+                tryLock(lockConnection, "SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+            }
+        } catch (SQLException | IOException e) {
+            log.error("Auction archiver failed", e);
+        }
+    }
+
+    private void archiveEnded() throws IOException {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusDays(afterDays);
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int archived = archiveBatch(cutoff);
+            total += archived;
+            if (archived < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} auctions ended before {}", total, cutoff);
+        }
+    }
+
+    private static boolean tryLock(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private int archiveBatch(OffsetDateTime cutoff) throws IOException {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM product WHERE end_at < ? ORDER BY id LIMIT ?", Long.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<ArchivedAuction> auctions = load(ids);
+        auctionArchive.append(auctions);
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        transactionTemplate.executeWithoutResult(status -> {
+            insertArchivedProducts(auctions);
+            namedJdbcTemplate.update("DELETE FROM bid_history WHERE product_id IN (:ids)", params);
+            namedJdbcTemplate.update("DELETE FROM auto_bids WHERE product_id IN (:ids)", params);
+            namedJdbcTemplate.update("DELETE FROM product_pictures WHERE product_id IN (:ids)", params);
+            namedJdbcTemplate.update("DELETE FROM product_descriptions WHERE product_id IN (:ids)", params);
+            namedJdbcTemplate.update("DELETE FROM product_category WHERE product_id IN (:ids)", params);
+            namedJdbcTemplate.update("DELETE FROM product WHERE id IN (:ids)", params);
+        });
+
+        for (ArchivedAuction auction : auctions) {
+            productCardJsonCache.evict(auction.product().id());
+            // so product cua category chi tinh product con trong bang hot, giong ket qua rebuild
+            categoryStatsCache.onProductDeleted(auction.product().id(),
+                    auction.categories().stream().map(ArchivedAuction.CategoryRow::id).toList(),
+                    auction.product().endAt());
+            dashboardStatsCache.onProductDeleted(auction.product().startPrice(), auction.product().endAt(),
+                    auction.product().bidCount(), auction.product().createdAt());
+        }
+        return auctions.size();
+    }
+
+    private void insertArchivedProducts(List<ArchivedAuction> auctions) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO archived_product (product_id, seller_id, created_at, end_at) VALUES (?, ?, ?, ?)
+                ON CONFLICT (product_id) DO NOTHING
+                """, auctions.stream()
+                .map(auction -> new Object[]{auction.product().id(), auction.product().sellerId(),
+                        auction.product().createdAt(), auction.product().endAt()})
+                .toList());
+    }
+
+    /**
+     * Segment ghi truoc khi co bang archived_product (V8): dien lai tu archive 1 lan,
+     * chi khi so dong trong bang it hon so auction trong archive.
+     */
+    private void backfillArchivedProducts() {
+        Long recorded = jdbcTemplate.queryForObject("SELECT count(*) FROM archived_product", Long.class);
+        long[] archivedIds = auctionArchive.productIds();
+        if (recorded != null && recorded >= archivedIds.length) {
+            return;
+        }
+        List<ArchivedAuction> batch = new ArrayList<>(batchSize);
+        for (long productId : archivedIds) {
+            auctionArchive.find(productId).ifPresent(batch::add);
+            if (batch.size() >= batchSize) {
+                insertArchivedProducts(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertArchivedProducts(batch);
+        }
+        log.info("Backfilled archived_product for {} archived auctions", archivedIds.length);
+    }
+
+    private List<ArchivedAuction> load(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+
+        Map<Long, List<ArchivedAuction.DescriptionRow>> descriptions = new HashMap<>();
+        namedJdbcTemplate.query("""
+                SELECT product_id, id, content, created_at, created_by FROM product_descriptions
+                WHERE product_id IN (:ids) ORDER BY id
+                """, params, rs -> {
+            descriptions.computeIfAbsent(rs.getLong("product_id"), k -> new ArrayList<>())
+                    .add(new ArchivedAuction.DescriptionRow(rs.getLong("id"), rs.getString("content"),
+                            rs.getObject("created_at", OffsetDateTime.class), rs.getLong("created_by")));
+        });
+
+        Map<Long, List<ArchivedAuction.PictureRow>> pictures = new HashMap<>();
+        namedJdbcTemplate.query("""
+                SELECT product_id, id, image_url, created_at FROM product_pictures
+                WHERE product_id IN (:ids) ORDER BY id
+                """, params, rs -> {
+            pictures.computeIfAbsent(rs.getLong("product_id"), k -> new ArrayList<>())
+                    .add(new ArchivedAuction.PictureRow(rs.getLong("id"), rs.getString("image_url"),
+                            rs.getObject("created_at", OffsetDateTime.class)));
+        });
+
+        Map<Long, List<ArchivedAuction.CategoryRow>> categories = new HashMap<>();
+        namedJdbcTemplate.query("""
+                SELECT pc.product_id, c.id, c.name, c.parent_id
+                FROM product_category pc JOIN categories c ON c.id = pc.category_id
+                WHERE pc.product_id IN (:ids) ORDER BY pc.id
+                """, params, rs -> {
+            categories.computeIfAbsent(rs.getLong("product_id"), k -> new ArrayList<>())
+                    .add(new ArchivedAuction.CategoryRow(rs.getInt("id"), rs.getString("name"),
+                            rs.getObject("parent_id", Integer.class)));
+        });
+
+        Map<Long, List<ArchivedAuction.BidRow>> bids = new HashMap<>();
+        namedJdbcTemplate.query("""
+                SELECT product_id, id, bidder_id, price, created_at, bidder_masked_name FROM bid_history
+                WHERE product_id IN (:ids) ORDER BY created_at
+                """, params, rs -> {
+            bids.computeIfAbsent(rs.getLong("product_id"), k -> new ArrayList<>())
+                    .add(new ArchivedAuction.BidRow(rs.getLong("id"), rs.getLong("bidder_id"),
+                            rs.getBigDecimal("price"), rs.getObject("created_at", OffsetDateTime.class),
+                            rs.getString("bidder_masked_name")));
+        });
+
+        Map<Long, List<ArchivedAuction.AutoBidRow>> autoBids = new HashMap<>();
+        namedJdbcTemplate.query("""
+                SELECT product_id, id, bidder_id, max_price, created_at, updated_at FROM auto_bids
+                WHERE product_id IN (:ids) ORDER BY id
+                """, params, rs -> {
+            autoBids.computeIfAbsent(rs.getLong("product_id"), k -> new ArrayList<>())
+                    .add(new ArchivedAuction.AutoBidRow(rs.getLong("id"), rs.getLong("bidder_id"),
+                            rs.getBigDecimal("max_price"), rs.getObject("created_at", OffsetDateTime.class),
+                            rs.getObject("updated_at", OffsetDateTime.class)));
+        });
+
+        return namedJdbcTemplate.query("SELECT * FROM product WHERE id IN (:ids) ORDER BY id", params,
+                (rs, rowNum) -> {
+                    Long id = rs.getLong("id");
+                    return new ArchivedAuction(
+                            mapProduct(rs),
+                            descriptions.getOrDefault(id, List.of()),
+                            pictures.getOrDefault(id, List.of()),
+                            categories.getOrDefault(id, List.of()),
+                            bids.getOrDefault(id, List.of()),
+                            autoBids.getOrDefault(id, List.of()));
+                });
+    }
+
+    private static ArchivedAuction.ProductRow mapProduct(ResultSet rs) throws SQLException {
+        return new ArchivedAuction.ProductRow(
+                rs.getLong("id"),
+                rs.getString("product_name"),
+                rs.getString("thumbnail_url"),
+                rs.getBigDecimal("start_price"),
+                rs.getBigDecimal("current_price"),
+                rs.getBigDecimal("buy_now_price"),
+                rs.getBigDecimal("minimum_bid_step"),
+                rs.getObject("top_bidder_id", Long.class),
+                rs.getLong("seller_id"),
+                rs.getBoolean("auto_extend_enabled"),
+                rs.getInt("bid_count"),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("end_at", OffsetDateTime.class));
+    }
+}
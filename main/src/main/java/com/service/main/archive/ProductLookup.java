@@ -0,0 +1,34 @@
+package com.service.main.archive;
+
+import com.service.main.entity.Product;
+import com.service.main.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Tim product o ca bang hot va AuctionArchive. Auction da archive khong con dong trong product,
+ * nen cac man hinh chi doc (wishlist, question, bid request, blacklist...) phai tra cuu qua day
+ * thay vi productRepository.findById.
+ * Product lay tu archive la entity tach roi (khong managed), khong duoc save lai.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductLookup {
+
+    private final ProductRepository productRepository;
+    private final AuctionArchive auctionArchive;
+
+    public Optional<Product> find(Long productId) {
+        // contains chi la binary search trong memory, auction da archive khong doi nua
+        if (auctionArchive.contains(productId)) {
+            return auctionArchive.find(productId).map(ArchivedAuction::toProduct);
+        }
+        return productRepository.findById(productId);
+    }
+
+    public boolean exists(Long productId) {
+        return auctionArchive.contains(productId) || productRepository.existsById(productId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.service.main.cache;
+
+import com.service.main.dto.UserInfoResponse;
+import com.service.main.service.UserServiceClient;
+import com.service.main.service.impl.BidHistoryServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ten da mask cua tung bidder, dung luc ghi bid (luu vao bid_history.bidder_masked_name)
+ * va cho cac dong cu chua duoc backfill. Mask 1 lan / bidder thay vi 1 lan / dong moi lan doc.
+ * User chua co ten (hoac khong ton tai) duoc luu la "" de khong goi lai user service.
+ */
+@Component
+@RequiredArgsConstructor
+public class BidderNameCache {
+
+    private final UserServiceClient userServiceClient;
+
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    // ten co the doi ben user service, TTL de lan sau lay lai
+    @Value("${bid-history.bidder-name-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${bid-history.bidder-name-cache.max-size:50000}")
+    private int maxSize;
+
+    private record Entry(String maskedName, long expiresAt) {
+    }
+
+    /**
+     * Cap nhat tu thong tin user vua lay duoc (vd. luc kiem tra quyen dat bid), tra ve ten da mask.
+     */
+    public String put(Long bidderId, String fullname) {
+        String masked = mask(fullname);
+        long now = System.currentTimeMillis();
+        if (cache.size() >= maxSize) {
+            cache.values().removeIf(e -> e.expiresAt() <= now);
+        }
+        if (cache.size() < maxSize || cache.containsKey(bidderId)) {
+            cache.put(bidderId, new Entry(masked, now + ttlSeconds * 1000));
+        }
+        return masked;
+    }
+
+    public String getMaskedName(Long bidderId) {
+        Entry entry = cache.get(bidderId);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            return entry.maskedName();
+        }
+        UserInfoResponse user = userServiceClient.getUserBasicInfo(bidderId);
+        // null: bid van duoc ghi, BidderMaskedNameBackfill se dien ten sau
+        return user != null ? put(bidderId, user.getFullname()) : null;
+    }
+
+    /**
+     * Ten da mask cua nhieu bidder, cac bidder chua co trong cache duoc lay bang 1 lan goi batch.
+     * Bidder ma user service khong tra ve (loi goi, user bi xoa) khong co trong map.
+     */
+    public Map<Long, String> getMaskedNames(Collection<Long> bidderIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, String> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long bidderId : bidderIds) {
+            Entry entry = cache.get(bidderId);
+            if (entry != null && entry.expiresAt() > now) {
+                result.put(bidderId, entry.maskedName());
+            } else {
+                missing.add(bidderId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            userServiceClient.getUserBasicInfoBatch(missing)
+                    .forEach((bidderId, user) -> result.put(bidderId, put(bidderId, user.getFullname())));
+        }
+        return result;
+    }
+
+    private static String mask(String fullname) {
+        String masked = BidHistoryServiceImpl.maskFullname(fullname);
+        return masked != null ? masked : "";
+    }
+}
@@ -0,0 +1,332 @@
+package com.service.main.cache;
+
+import com.service.main.config.AfterCommit;
+import com.service.main.entity.CategoryStats;
+import com.service.main.repository.CategoryStatsRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * So product va so auction dang active cua tung category, cap nhat tang dan khi tao/xoa product
+ * va khi auction ket thuc, thay cho viec aggregate product_category moi lan load dashboard.
+ *
+ * "Active" duoc dinh nghia theo sweptUntil: product co end_at > sweptUntil la dang active.
+ * Ket thuc som (admin end early, buy now) deu set end_at = now nen cung duoc sweep bat duoc.
+ *
+ * Nhieu instance dung chung bang category_stats:
+ * - moi instance chi ghi phan thay doi cua minh (delta, count = count + ?), khong ghi de so cua instance khac;
+ * - sweep chay trong DB va chi 1 instance lam moi lan (advisory lock), day swept_until chung len
+ *   (tru di 1 khoang lag de cho transaction dang chay commit);
+ * - sau moi lan sync, counter trong memory = gia tri trong DB + delta local chua ghi.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryStatsCache {
+
+    private static final long LOCK_KEY = 0x6361747374617473L; // "catstats"
+
+    private final CategoryStatsRepository categoryStatsRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final TransactionTemplate transactionTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${category-stats.sweep-lag-seconds:10}")
+    private long sweepLagSeconds;
+
+    // guarded by this
+    private final Map<Integer, Counter> counters = new HashMap<>();
+    private final NavigableSet<Counter> byProductCount = new TreeSet<>(
+            Comparator.comparingLong((Counter c) -> c.productCount).reversed()
+                    .thenComparing(c -> c.categoryId));
+    private final Map<Integer, Delta> pending = new HashMap<>();
+    private List<Change> journal; // != null trong luc rebuild dang query
+    private OffsetDateTime sweptUntil;
+
+    // sync va rebuild khong chay chong nhau
+    private final Object syncLock = new Object();
+
+    private static final class Counter {
+        private final Integer categoryId;
+        private long productCount;
+        private long activeAuctionCount;
+
+        private Counter(Integer categoryId) {
+            this.categoryId = categoryId;
+        }
+    }
+
+    private static final class Delta {
+        private long productCount;
+        private long activeAuctionCount;
+    }
+
+    private record Change(Long productId, Collection<Integer> categoryIds, OffsetDateTime endAt, int delta) {
+    }
+
+    public record CategoryCount(Integer categoryId, long productCount, long activeAuctionCount) {
+    }
+
+    @PostConstruct
+    public void init() {
+        if (categoryStatsRepository.count() == 0) {
+            rebuild();
+            return;
+        }
+        reload();
+        // cac auction ket thuc trong luc service tat se duoc tru o lan sweep dau tien
+        log.info("Loaded category stats for {} categories, swept until {}", counters.size(), sweptUntil);
+    }
+
+    /**
+     * Tinh lai toan bo tu product_category (lenh sua chua khi counter bi lech).
+     * Aggregate chay trong 1 snapshot REPEATABLE READ; thay doi afterCommit cua instance nay den trong luc
+     * query duoc ghi lai (journal) roi doi chieu voi cung snapshot: product da nam trong snapshot thi bo qua,
+     * chua co thi cong lai, nen khong mat va khong tinh 2 lan.
+     * Delta chua ghi cua instance khac trong luc rebuild van co the lech, chay lai khi he thong it ghi.
+     */
+    public void rebuild() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+            snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            List<Object[]> rows;
+            OffsetDateTime cursor;
+            try {
+                cursor = OffsetDateTime.now().minusSeconds(sweepLagSeconds);
+                rows = snapshot.execute(status -> {
+                    List<Object[]> aggregated = categoryStatsRepository.aggregateCategoryCounts(cursor);
+                    // giu lock cua this trong luc doi chieu: apply() cho toi khi counter moi duoc dung xong
+                    synchronized (this) {
+                        List<Change> changes = journal;
+                        journal = null;
+                        Set<Long> visible = changes.isEmpty() ? Set.of() : new HashSet<>(
+                                categoryStatsRepository.findExistingProductIds(
+                                        changes.stream().map(Change::productId).collect(Collectors.toSet())));
+                        clearCounters();
+                        pending.clear();
+                        for (Object[] row : aggregated) {
+                            Counter counter = new Counter(((Number) row[0]).intValue());
+                            counter.productCount = ((Number) row[1]).longValue();
+                            counter.activeAuctionCount = ((Number) row[2]).longValue();
+                            putCounter(counter);
+                        }
+                        this.sweptUntil = cursor;
+                        for (Change change : changes) {
+                            // tao: da co trong snapshot => da dem; xoa: khong con trong snapshot => da tru
+                            boolean counted = change.delta() > 0 == visible.contains(change.productId());
+                            if (!counted) {
+                                apply(change);
+                            }
+                        }
+                    }
+                    return aggregated;
+                });
+            } finally {
+                synchronized (this) {
+                    journal = null;
+                }
+            }
+
+            // ghi gia tri tuyet doi; phan cong lai o tren nam trong pending va duoc ghi o lan sync sau
+            transactionTemplate.executeWithoutResult(status -> {
+                categoryStatsRepository.lock(LOCK_KEY);
+                categoryStatsRepository.deleteAllInBatch();
+                OffsetDateTime now = OffsetDateTime.now();
+                categoryStatsRepository.saveAll(rows.stream()
+                        .map(row -> CategoryStats.builder()
+                                .categoryId(((Number) row[0]).intValue())
+                                .productCount(((Number) row[1]).longValue())
+                                .activeAuctionCount(((Number) row[2]).longValue())
+                                .sweptUntil(cursor)
+                                .updatedAt(now)
+                                .build())
+                        .toList());
+            });
+            log.info("Category stats rebuilt for {} categories", rows.size());
+        }
+    }
+
+    public void onProductCreated(Long productId, Collection<Integer> categoryIds, OffsetDateTime endAt) {
+        AfterCommit.run(() -> record(new Change(productId, categoryIds, endAt, 1)));
+    }
+
+    public void onProductDeleted(Long productId, Collection<Integer> categoryIds, OffsetDateTime endAt) {
+        AfterCommit.run(() -> record(new Change(productId, categoryIds, endAt, -1)));
+    }
+
+    public synchronized long getProductCount(Integer categoryId) {
+        Counter counter = counters.get(categoryId);
+        return counter != null ? counter.productCount : 0;
+    }
+
+    public synchronized long getActiveAuctionCount(Integer categoryId) {
+        Counter counter = counters.get(categoryId);
+        return counter != null ? counter.activeAuctionCount : 0;
+    }
+
+    /**
+     * Top category con (khong tinh category goc) theo so product, doc K phan tu dau cua tap da sap xep.
+     */
+    public synchronized List<CategoryCount> getTopChildCategories(int limit) {
+        List<CategoryCount> result = new ArrayList<>(limit);
+        for (Counter counter : byProductCount) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (categoryTreeCache.getAncestorIds(counter.categoryId).size() > 1) {
+                result.add(new CategoryCount(counter.categoryId, counter.productCount, counter.activeAuctionCount));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ghi delta local, sweep auction vua ket thuc (neu khong co instance khac dang sweep) roi doc lai bang.
+     */
+    @Scheduled(fixedDelayString = "${category-stats.sweep-interval-ms:5000}")
+    public void sync() {
+        synchronized (syncLock) {
+            flush();
+            sweepEndedAuctions();
+            reload();
+        }
+    }
+
+    private void flush() {
+        Map<Integer, Delta> batch;
+        OffsetDateTime cursor;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new HashMap<>(pending);
+            pending.clear();
+            cursor = sweptUntil;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach((categoryId, delta) ->
+                    categoryStatsRepository.addDelta(categoryId, delta.productCount, delta.activeAuctionCount, cursor)));
+        } catch (RuntimeException e) {
+            // transaction da rollback, tra lai delta de lan sau ghi tiep
+            synchronized (this) {
+                batch.forEach((categoryId, delta) -> {
+                    Delta merged = pending.computeIfAbsent(categoryId, k -> new Delta());
+                    merged.productCount += delta.productCount;
+                    merged.activeAuctionCount += delta.activeAuctionCount;
+                });
+            }
+            throw e;
+        }
+    }
+
+    private void sweepEndedAuctions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!categoryStatsRepository.tryLock(LOCK_KEY)) {
+                return;
+            }
+            OffsetDateTime from = categoryStatsRepository.findMinSweptUntil();
+            OffsetDateTime to = OffsetDateTime.now().minusSeconds(sweepLagSeconds);
+            if (from == null || !to.isAfter(from)) {
+                return;
+            }
+            categoryStatsRepository.decrementEndedBetween(from, to);
+            categoryStatsRepository.advanceSweptUntil(to);
+        });
+    }
+
+    // counter = DB + delta chua ghi (delta den sau flush chua co trong DB)
+    private void reload() {
+        // transaction ghi (khong readOnly) de doc tu primary, replica co the tre hon lan flush vua xong
+        List<CategoryStats> persisted = transactionTemplate.execute(status -> categoryStatsRepository.findAll());
+        synchronized (this) {
+            clearCounters();
+            OffsetDateTime cursor = null;
+            for (CategoryStats stats : persisted) {
+                Counter counter = new Counter(stats.getCategoryId());
+                counter.productCount = stats.getProductCount();
+                counter.activeAuctionCount = stats.getActiveAuctionCount();
+                putCounter(counter);
+                if (cursor == null || stats.getSweptUntil().isBefore(cursor)) {
+                    cursor = stats.getSweptUntil();
+                }
+            }
+            pending.forEach((categoryId, delta) -> {
+                Counter counter = counters.get(categoryId);
+                if (counter == null) {
+                    counter = new Counter(categoryId);
+                } else {
+                    byProductCount.remove(counter);
+                }
+                counter.productCount = Math.max(0, counter.productCount + delta.productCount);
+                counter.activeAuctionCount = Math.max(0, counter.activeAuctionCount + delta.activeAuctionCount);
+                putCounter(counter);
+            });
+            if (cursor != null) {
+                this.sweptUntil = cursor;
+            }
+        }
+    }
+
+    private synchronized void record(Change change) {
+        if (journal != null) {
+            journal.add(change);
+        }
+        apply(change);
+    }
+
+    // guarded by this
+    private void apply(Change change) {
+        int delta = change.delta();
+        boolean active = sweptUntil != null && change.endAt() != null && change.endAt().isAfter(sweptUntil);
+        for (Integer categoryId : change.categoryIds()) {
+            Counter counter = counters.get(categoryId);
+            if (counter == null) {
+                counter = new Counter(categoryId);
+            } else {
+                // phai remove truoc khi doi productCount, neu khong TreeSet se mat thu tu
+                byProductCount.remove(counter);
+            }
+            counter.productCount = Math.max(0, counter.productCount + delta);
+            Delta pendingDelta = pending.computeIfAbsent(categoryId, k -> new Delta());
+            pendingDelta.productCount += delta;
+            if (active) {
+                counter.activeAuctionCount = Math.max(0, counter.activeAuctionCount + delta);
+                pendingDelta.activeAuctionCount += delta;
+            }
+            putCounter(counter);
+        }
+    }
+
+    private void putCounter(Counter counter) {
+        counters.put(counter.categoryId, counter);
+        byProductCount.add(counter);
+    }
+
+    private void clearCounters() {
+        counters.clear();
+        byProductCount.clear();
+    }
+}
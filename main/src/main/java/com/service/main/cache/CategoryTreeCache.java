@@ -0,0 +1,147 @@
+package com.service.main.cache;
+
+import com.service.main.entity.Categories;
+import com.service.main.repository.CategoriesRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cay category trong memory (bang categories chi co parent_id).
+ * Tap ancestor/descendant cua moi node duoc tinh san khi build, nen query "product thuoc category
+ * hoac category con" chi can 1 tap id, khong phai query de quy moi request.
+ * Build lai toan bo moi khi CategoriesServiceImpl ghi (so luong category nho). Category do instance khac
+ * them / sua / xoa duoc nhan ra bang cach so ETag cua bang categories theo chu ky (refresh-interval-ms).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeCache {
+
+    private final CategoriesRepository categoriesRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of(), null);
+
+    // descendants va ancestors deu bao gom chinh node do; etag cua bang categories luc build
+    private record Snapshot(Map<Integer, Set<Integer>> descendants, Map<Integer, Set<Integer>> ancestors,
+                            Map<Integer, String> names, String etag) {
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * 1 query md5 nho tren bang categories, chi build lai khi ETag khac lan build truoc.
+     */
+    @Scheduled(fixedDelayString = "${category-tree.refresh-interval-ms:10000}",
+            initialDelayString = "${category-tree.refresh-interval-ms:10000}")
+    public void refreshIfChanged() {
+        try {
+            if (!Objects.equals(categoriesRepository.findETag(), snapshot.etag())) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Category tree refresh failed", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        // doc ETag truoc: thay doi xen giua 2 query lam ETag lech, lan refresh sau se build lai
+        String etag = categoriesRepository.findETag();
+        List<Categories> categories = categoriesRepository.findAll();
+
+        Map<Integer, Integer> parentOf = new HashMap<>();
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, List<Integer>> childrenOf = new HashMap<>();
+        for (Categories c : categories) {
+            parentOf.put(c.getId(), c.getParent_id());
+            names.put(c.getId(), c.getName());
+            if (c.getParent_id() != null) {
+                childrenOf.computeIfAbsent(c.getParent_id(), k -> new ArrayList<>()).add(c.getId());
+            }
+        }
+
+        Map<Integer, Set<Integer>> descendants = new HashMap<>();
+        Map<Integer, Set<Integer>> ancestors = new HashMap<>();
+        for (Integer id : parentOf.keySet()) {
+            descendants.put(id, Collections.unmodifiableSet(collectDescendants(id, childrenOf)));
+            ancestors.put(id, Collections.unmodifiableSet(collectAncestors(id, parentOf)));
+        }
+
+        this.snapshot = new Snapshot(descendants, ancestors, names, etag);
+        log.info("Category tree rebuilt with {} categories", categories.size());
+    }
+
+    /**
+     * Id cua category va tat ca category con chau. Category chua co trong cay thi tra ve chinh no.
+     */
+    public Set<Integer> getSubtreeIds(Integer categoryId) {
+        Set<Integer> ids = snapshot.descendants().get(categoryId);
+        return ids != null ? ids : Set.of(categoryId);
+    }
+
+    /**
+     * Id cua category va tat ca category cha ong.
+     */
+    public Set<Integer> getAncestorIds(Integer categoryId) {
+        Set<Integer> ids = snapshot.ancestors().get(categoryId);
+        return ids != null ? ids : Set.of(categoryId);
+    }
+
+    public boolean contains(Integer categoryId) {
+        return snapshot.descendants().containsKey(categoryId);
+    }
+
+    public String getName(Integer categoryId) {
+        return snapshot.names().get(categoryId);
+    }
+
+    public int size() {
+        return snapshot.names().size();
+    }
+
+    public boolean isDescendant(Integer categoryId, Integer ancestorId) {
+        return getAncestorIds(categoryId).contains(ancestorId);
+    }
+
+    private static Set<Integer> collectDescendants(Integer root, Map<Integer, List<Integer>> childrenOf) {
+        Set<Integer> result = new LinkedHashSet<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Integer id = stack.pop();
+            // visited check de du lieu loi (vong lap parent_id) khong lam treo
+            if (!result.add(id)) {
+                continue;
+            }
+            for (Integer child : childrenOf.getOrDefault(id, List.of())) {
+                stack.push(child);
+            }
+        }
+        return result;
+    }
+
+    private static Set<Integer> collectAncestors(Integer id, Map<Integer, Integer> parentOf) {
+        Set<Integer> result = new LinkedHashSet<>();
+        Integer current = id;
+        while (current != null && result.add(current)) {
+            current = parentOf.get(current);
+        }
+        return result;
+    }
+}
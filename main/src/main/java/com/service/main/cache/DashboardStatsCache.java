@@ -0,0 +1,223 @@
+package com.service.main.cache;
+
+import com.service.main.config.AfterCommit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Thong ke product cho dashboard admin, doc tu memory thay cho ~11 query aggregate moi lan load.
+ *
+ * - refresh(): 1 query duy nhat tren product (COUNT ... FILTER) tinh lai tat ca, chay dinh ky de sua lech.
+ * - Giua 2 lan refresh, counter duoc cap nhat tang dan khi tao/xoa product, co bid, ket thuc som
+ *   (sau khi commit).
+ * Cac so phu thuoc thoi gian (auction tu het han, vao cua so 24h, sang ngay moi) va gia cao nhat khi
+ * product dang cao nhat bi xoa chi dung lai o lan refresh tiep theo, nen snapshot luon kem refreshedAt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardStatsCache {
+
+    private static final long ENDING_SOON_HOURS = 24;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // guarded by this
+    private Counters counters;
+
+    /**
+     * Gia tri tai 1 thoi diem. refreshedAt: lan tinh lai tu DB gan nhat, updatedAt: lan cap nhat gan nhat
+     * (refresh hoac event).
+     */
+    public record Snapshot(
+            long totalProducts,
+            long activeAuctions,
+            long endedAuctions,
+            long endingSoonAuctions,
+            long totalBids,
+            BigDecimal highestCurrentPrice,
+            BigDecimal averageStartPrice,
+            long productsWithBids,
+            long productsWithoutBids,
+            long newProductsToday,
+            long newProductsThisWeek,
+            OffsetDateTime refreshedAt,
+            OffsetDateTime updatedAt) {
+    }
+
+    private static final class Counters {
+        private long totalProducts;
+        private long activeAuctions;
+        private long endedAuctions;
+        private long endingSoonAuctions;
+        private long totalBids;
+        private BigDecimal highestCurrentPrice;
+        private BigDecimal sumStartPrice = BigDecimal.ZERO;
+        private long productsWithBids;
+        private long newProductsToday;
+        private long newProductsThisWeek;
+        private OffsetDateTime refreshedAt;
+        private OffsetDateTime updatedAt;
+    }
+
+    public Snapshot getSnapshot() {
+        synchronized (this) {
+            if (counters != null) {
+                return toSnapshot(counters);
+            }
+        }
+        // chua refresh lan nao (vua khoi dong)
+        refresh();
+        synchronized (this) {
+            return toSnapshot(counters);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard-stats.refresh-interval-ms:60000}")
+    public void refresh() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime startOfToday = now.toLocalDate().atStartOfDay(now.getOffset()).toOffsetDateTime();
+
+        Counters fresh = jdbcTemplate.queryForObject("""
+                SELECT count(*) AS total,
+                       count(*) FILTER (WHERE end_at > ?) AS active,
+                       count(*) FILTER (WHERE end_at > ? AND end_at <= ?) AS ending_soon,
+                       COALESCE(sum(bid_count), 0) AS total_bids,
+                       max(current_price) FILTER (WHERE end_at > ?) AS highest_price,
+                       COALESCE(sum(start_price), 0) AS sum_start_price,
+                       count(*) FILTER (WHERE bid_count > 0) AS with_bids,
+                       count(*) FILTER (WHERE created_at >= ?) AS new_today,
+                       count(*) FILTER (WHERE created_at >= ?) AS new_week
+                FROM product
+                """, (rs, rowNum) -> {
+            Counters c = new Counters();
+            c.totalProducts = rs.getLong("total");
+            c.activeAuctions = rs.getLong("active");
+            c.endedAuctions = c.totalProducts - c.activeAuctions;
+            c.endingSoonAuctions = rs.getLong("ending_soon");
+            c.totalBids = rs.getLong("total_bids");
+            c.highestCurrentPrice = rs.getBigDecimal("highest_price");
+            c.sumStartPrice = rs.getBigDecimal("sum_start_price");
+            c.productsWithBids = rs.getLong("with_bids");
+            c.newProductsToday = rs.getLong("new_today");
+            c.newProductsThisWeek = rs.getLong("new_week");
+            return c;
+        }, now, now, now.plusHours(ENDING_SOON_HOURS), now, startOfToday, now.minusDays(7));
+
+        fresh.refreshedAt = now;
+        fresh.updatedAt = now;
+        synchronized (this) {
+            // event commit trong luc query co the bi tinh 2 lan hoac mat, lan refresh sau se sua
+            this.counters = fresh;
+        }
+    }
+
+    public void onProductCreated(BigDecimal startPrice, OffsetDateTime endAt) {
+        AfterCommit.run(() -> apply(c -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            c.totalProducts++;
+            countEndState(c, endAt, now, 1);
+            c.sumStartPrice = c.sumStartPrice.add(startPrice);
+            c.newProductsToday++;
+            c.newProductsThisWeek++;
+        }));
+    }
+
+    public void onProductDeleted(BigDecimal startPrice, OffsetDateTime endAt, int bidCount, OffsetDateTime createdAt) {
+        AfterCommit.run(() -> apply(c -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            c.totalProducts = Math.max(0, c.totalProducts - 1);
+            countEndState(c, endAt, now, -1);
+            c.totalBids = Math.max(0, c.totalBids - bidCount);
+            c.sumStartPrice = c.sumStartPrice.subtract(startPrice);
+            if (bidCount > 0) {
+                c.productsWithBids = Math.max(0, c.productsWithBids - 1);
+            }
+            if (createdAt != null && !createdAt.isBefore(now.toLocalDate().atStartOfDay(now.getOffset()).toOffsetDateTime())) {
+                c.newProductsToday = Math.max(0, c.newProductsToday - 1);
+            }
+            if (createdAt != null && !createdAt.isBefore(now.minusDays(7))) {
+                c.newProductsThisWeek = Math.max(0, c.newProductsThisWeek - 1);
+            }
+        }));
+    }
+
+    /**
+     * bidCountBefore: bid_count truoc khi cong, de biet product vua co bid dau tien.
+     */
+    public void onBidsPlaced(int bidCountBefore, int increment, BigDecimal currentPrice, OffsetDateTime endAt) {
+        if (increment <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> apply(c -> {
+            c.totalBids += increment;
+            if (bidCountBefore == 0) {
+                c.productsWithBids++;
+            }
+            if (currentPrice != null && endAt != null && endAt.isAfter(OffsetDateTime.now())
+                    && (c.highestCurrentPrice == null || currentPrice.compareTo(c.highestCurrentPrice) > 0)) {
+                c.highestCurrentPrice = currentPrice;
+            }
+        }));
+    }
+
+    /**
+     * Auction ket thuc truoc endAtBefore (admin end early, buy now).
+     */
+    public void onAuctionEndedEarly(OffsetDateTime endAtBefore) {
+        AfterCommit.run(() -> apply(c -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            countEndState(c, endAtBefore, now, -1);
+            c.endedAuctions++;
+        }));
+    }
+
+    private static void countEndState(Counters c, OffsetDateTime endAt, OffsetDateTime now, int delta) {
+        if (endAt != null && endAt.isAfter(now)) {
+            c.activeAuctions = Math.max(0, c.activeAuctions + delta);
+            if (!endAt.isAfter(now.plusHours(ENDING_SOON_HOURS))) {
+                c.endingSoonAuctions = Math.max(0, c.endingSoonAuctions + delta);
+            }
+        } else {
+            c.endedAuctions = Math.max(0, c.endedAuctions + delta);
+        }
+    }
+
+    private synchronized void apply(Consumer<Counters> update) {
+        // chua co snapshot thi bo qua, lan refresh dau tien se tinh tu DB
+        if (counters == null) {
+            return;
+        }
+        update.accept(counters);
+        counters.updatedAt = OffsetDateTime.now();
+    }
+
+    private static Snapshot toSnapshot(Counters c) {
+        BigDecimal averageStartPrice = c.totalProducts > 0
+                ? c.sumStartPrice.divide(BigDecimal.valueOf(c.totalProducts), 5, RoundingMode.HALF_UP)
+                : null;
+        return new Snapshot(
+                c.totalProducts,
+                c.activeAuctions,
+                c.endedAuctions,
+                c.endingSoonAuctions,
+                c.totalBids,
+                c.highestCurrentPrice,
+                averageStartPrice,
+                c.productsWithBids,
+                Math.max(0, c.totalProducts - c.productsWithBids),
+                c.newProductsToday,
+                c.newProductsThisWeek,
+                c.refreshedAt,
+                c.updatedAt);
+    }
+}
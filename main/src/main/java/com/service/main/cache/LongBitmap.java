@@ -0,0 +1,229 @@
+package com.service.main.cache;
+
+import java.util.Arrays;
+
+/**
+ * Tap cac so long khong am, nen theo kieu Roaring bitmap (khong co thu vien roaring trong project):
+ * chia theo 48 bit cao, moi nhom 65536 gia tri la 1 container:
+ * - it phan tu (<= 4096): mang char[] da sap xep cac 16 bit thap (2 byte / phan tu);
+ * - nhieu phan tu: bitmap long[1024] (8 KB co dinh).
+ * Bat bien (immutable): with/without tra ve bitmap moi va dung chung cac container khong doi,
+ * nen doc khong can lock.
+ */
+public final class LongBitmap {
+
+    public static final LongBitmap EMPTY = new LongBitmap(new long[0], new Object[0], 0);
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private final long[] keys; // 48 bit cao, tang dan
+    private final Object[] containers; // char[] hoac long[]
+    private final int cardinality;
+
+    private LongBitmap(long[] keys, Object[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    public static LongBitmap of(long... values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        // gom tung nhom cung key roi build container 1 lan
+        int i = 0;
+        long[] keys = new long[sorted.length];
+        Object[] containers = new Object[sorted.length];
+        int n = 0;
+        int total = 0;
+        while (i < sorted.length) {
+            long key = sorted[i] >>> 16;
+            int j = i;
+            char[] lows = new char[Math.min(sorted.length - i, 65536)];
+            int count = 0;
+            while (j < sorted.length && (sorted[j] >>> 16) == key) {
+                char low = (char) sorted[j];
+                if (count == 0 || lows[count - 1] != low) {
+                    lows[count++] = low;
+                }
+                j++;
+            }
+            keys[n] = key;
+            containers[n] = count > ARRAY_MAX ? toBitmap(lows, count) : Arrays.copyOf(lows, count);
+            total += count;
+            n++;
+            i = j;
+        }
+        if (n == 0) {
+            return EMPTY;
+        }
+        return new LongBitmap(Arrays.copyOf(keys, n), Arrays.copyOf(containers, n), total);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(long value) {
+        int i = Arrays.binarySearch(keys, value >>> 16);
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[i];
+        if (container instanceof char[] array) {
+            return Arrays.binarySearch(array, low) >= 0;
+        }
+        long[] bitmap = (long[]) container;
+        return (bitmap[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public LongBitmap with(long value) {
+        if (contains(value)) {
+            return this;
+        }
+        long key = value >>> 16;
+        char low = (char) value;
+        int i = Arrays.binarySearch(keys, key);
+        if (i < 0) {
+            int at = -i - 1;
+            long[] newKeys = new long[keys.length + 1];
+            Object[] newContainers = new Object[containers.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(containers, 0, newContainers, 0, at);
+            newKeys[at] = key;
+            newContainers[at] = new char[]{low};
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(containers, at, newContainers, at + 1, containers.length - at);
+            return new LongBitmap(newKeys, newContainers, cardinality + 1);
+        }
+
+        Object container = containers[i];
+        Object updated;
+        if (container instanceof char[] array) {
+            int at = -Arrays.binarySearch(array, low) - 1;
+            if (array.length + 1 > ARRAY_MAX) {
+                long[] bitmap = toBitmap(array, array.length);
+                bitmap[low >>> 6] |= 1L << low;
+                updated = bitmap;
+            } else {
+                char[] grown = new char[array.length + 1];
+                System.arraycopy(array, 0, grown, 0, at);
+                grown[at] = low;
+                System.arraycopy(array, at, grown, at + 1, array.length - at);
+                updated = grown;
+            }
+        } else {
+            long[] bitmap = ((long[]) container).clone();
+            bitmap[low >>> 6] |= 1L << low;
+            updated = bitmap;
+        }
+        Object[] newContainers = containers.clone();
+        newContainers[i] = updated;
+        return new LongBitmap(keys, newContainers, cardinality + 1);
+    }
+
+    public LongBitmap without(long value) {
+        if (!contains(value)) {
+            return this;
+        }
+        int i = Arrays.binarySearch(keys, value >>> 16);
+        char low = (char) value;
+        Object container = containers[i];
+        Object updated;
+        int remaining;
+        if (container instanceof char[] array) {
+            int at = Arrays.binarySearch(array, low);
+            char[] shrunk = new char[array.length - 1];
+            System.arraycopy(array, 0, shrunk, 0, at);
+            System.arraycopy(array, at + 1, shrunk, at, array.length - at - 1);
+            updated = shrunk;
+            remaining = shrunk.length;
+        } else {
+            long[] bitmap = ((long[]) container).clone();
+            bitmap[low >>> 6] &= ~(1L << low);
+            remaining = bitCount(bitmap);
+            updated = remaining <= ARRAY_MAX ? toArray(bitmap, remaining) : bitmap;
+        }
+
+        if (remaining == 0) {
+            long[] newKeys = new long[keys.length - 1];
+            Object[] newContainers = new Object[containers.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(containers, 0, newContainers, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(containers, i + 1, newContainers, i, containers.length - i - 1);
+            return new LongBitmap(newKeys, newContainers, cardinality - 1);
+        }
+        Object[] newContainers = containers.clone();
+        newContainers[i] = updated;
+        return new LongBitmap(keys, newContainers, cardinality - 1);
+    }
+
+    public long[] toArray() {
+        long[] values = new long[cardinality];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long high = keys[i] << 16;
+            if (containers[i] instanceof char[] array) {
+                for (char low : array) {
+                    values[n++] = high | low;
+                }
+            } else {
+                long[] bitmap = (long[]) containers[i];
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = bitmap[w];
+                    while (word != 0) {
+                        values[n++] = high | ((long) w << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Uoc luong so byte dung cho du lieu (khong tinh header object), de log / theo doi.
+     */
+    public long sizeInBytes() {
+        long size = keys.length * 8L + containers.length * 8L;
+        for (Object container : containers) {
+            size += container instanceof char[] array ? array.length * 2L : BITMAP_WORDS * 8L;
+        }
+        return size;
+    }
+
+    private static long[] toBitmap(char[] lows, int count) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (int i = 0; i < count; i++) {
+            bitmap[lows[i] >>> 6] |= 1L << lows[i];
+        }
+        return bitmap;
+    }
+
+    private static char[] toArray(long[] bitmap, int count) {
+        char[] lows = new char[count];
+        int n = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            long word = bitmap[w];
+            while (word != 0) {
+                lows[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return lows;
+    }
+
+    private static int bitCount(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
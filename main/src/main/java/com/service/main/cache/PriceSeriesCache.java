@@ -0,0 +1,82 @@
+package com.service.main.cache;
+
+import com.service.main.config.AfterCommit;
+import com.service.main.dto.PriceSeriesResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache duong gia (PriceSeriesResponse) theo product va so bucket.
+ * Bi xoa khi product co bid moi; TTL chi de cac auction dang chay doi moc "to" theo thoi gian.
+ * Viec xoa chi trong instance nay: instance khac van giu series cu den het TTL.
+ */
+@Component
+public class PriceSeriesCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Map<Long, Map<Integer, Entry>> cache = new ConcurrentHashMap<>();
+
+    // Tang moi lan evict (theo stripe cua productId); series tinh xong ma generation da doi thi khong cache
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Value("${bid-history.price-series.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${bid-history.price-series.max-products:5000}")
+    private int maxProducts;
+
+    private record Entry(PriceSeriesResponse series, long expiresAt) {
+    }
+
+    public PriceSeriesResponse getOrCompute(Long productId, int buckets, Supplier<PriceSeriesResponse> loader) {
+        long now = System.currentTimeMillis();
+        Map<Integer, Entry> byBuckets = cache.get(productId);
+        Entry entry = byBuckets != null ? byBuckets.get(buckets) : null;
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.series();
+        }
+
+        int stripe = stripeOf(productId);
+        long generation = generations.get(stripe);
+        PriceSeriesResponse series = loader.get();
+        if (generations.get(stripe) != generation) {
+            // co bid commit trong luc tinh, series co the da cu
+            return series;
+        }
+        if (cache.size() >= maxProducts) {
+            cache.values().removeIf(m -> m.values().stream().allMatch(e -> e.expiresAt() <= now));
+        }
+        if (cache.size() < maxProducts || cache.containsKey(productId)) {
+            cache.computeIfAbsent(productId, id -> new ConcurrentHashMap<>())
+                    .put(buckets, new Entry(series, now + ttlSeconds * 1000));
+        }
+        return series;
+    }
+
+    /**
+     * Xoa series cua product, va xoa lai sau commit (giong ProductCardJsonCache.evict)
+     * de request doc truoc commit khong ghi de series cu vao cache.
+     */
+    public void evict(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        invalidate(productId);
+        AfterCommit.run(() -> invalidate(productId));
+    }
+
+    private void invalidate(Long productId) {
+        generations.incrementAndGet(stripeOf(productId));
+        cache.remove(productId);
+    }
+
+    private static int stripeOf(Long productId) {
+        return (int) (productId ^ (productId >>> 32)) & (GENERATION_STRIPES - 1);
+    }
+}
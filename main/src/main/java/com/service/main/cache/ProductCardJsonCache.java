@@ -0,0 +1,184 @@
+package com.service.main.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.main.config.AfterCommit;
+import com.service.main.dto.ProductResponse;
+import com.service.main.entity.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache JSON (UTF-8) da encode san cua tung product card.
+ * Listing chi can noi cac fragment nay vao envelope ApiResponse, khong phai chay lai
+ * mapToProductResponse (goi user service) va Jackson cho moi product.
+ *
+ * Moi entry giu cac cot thay doi khi co bid (gia, so bid, end_at, top bidder) cua product da encode.
+ * Product truyen vao khac cac cot do thi encode lai, nen card cu (vd. doc tu replica tre truoc khi bid
+ * commit) khong song het TTL. So bid chi tang, nen product co so bid thap hon entry khong ghi de entry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCardJsonCache {
+
+    private static final byte[] MESSAGE_PREFIX = "{\"message\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_PREFIX = ",\"data\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    // seller/topBidder info lay tu user service nen van can TTL, ke ca khi product khong doi
+    @Value("${product.card-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${product.card-cache.max-size:10000}")
+    private int maxSize;
+
+    private record Entry(byte[] json, long expiresAt, BigDecimal currentPrice, int bidCount,
+                         OffsetDateTime endAt, Long topBidderId) {
+
+        static Entry of(Product product, byte[] json, long expiresAt) {
+            return new Entry(json, expiresAt, product.getCurrentPrice(), bidCountOf(product),
+                    product.getEndAt(), product.getTopBidderId());
+        }
+
+        boolean matches(Product product) {
+            return bidCount == bidCountOf(product)
+                    && Objects.equals(topBidderId, product.getTopBidderId())
+                    && (currentPrice == null ? product.getCurrentPrice() == null
+                        : product.getCurrentPrice() != null && currentPrice.compareTo(product.getCurrentPrice()) == 0)
+                    && (endAt == null ? product.getEndAt() == null
+                        : product.getEndAt() != null && endAt.isEqual(product.getEndAt()));
+        }
+    }
+
+    public byte[] getOrEncode(Product product, Function<Product, ProductResponse> mapper) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(product.getId());
+        boolean live = entry != null && entry.expiresAt() > now;
+        if (live && entry.matches(product)) {
+            return entry.json();
+        }
+
+        byte[] json = encode(mapper.apply(product));
+        if (live && bidCountOf(product) < entry.bidCount()) {
+            // product cu hon card dang cache (replica tre): tra ve cho request nay, khong ghi de
+            return json;
+        }
+        if (cache.size() >= maxSize) {
+            cache.values().removeIf(e -> e.expiresAt() <= now);
+        }
+        if (cache.size() < maxSize || cache.containsKey(product.getId())) {
+            cache.put(product.getId(), Entry.of(product, json, now + ttlSeconds * 1000));
+        }
+        return json;
+    }
+
+    private static int bidCountOf(Product product) {
+        return product.getBidCount() != null ? product.getBidCount() : 0;
+    }
+
+    /**
+     * Xoa card cua product. Neu dang trong transaction thi xoa them 1 lan nua sau commit,
+     * tranh truong hop request khac doc du lieu cu va ghi lai vao cache truoc khi commit.
+     */
+    public void evict(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        cache.remove(productId);
+        AfterCommit.run(() -> cache.remove(productId));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * {"message": ..., "data": [card, card, ...]}
+     */
+    public byte[] writeList(String message, List<byte[]> cards) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimateSize(cards));
+        writeEnvelopeStart(out, message);
+        writeArray(out, cards);
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    /**
+     * {"message": ..., "data": {"content": [card, ...], "totalElements": ..., ...}}
+     * Giu cac field cua Page ma frontend dang dung (content, totalElements, totalPages, size, number, ...).
+     */
+    public byte[] writePage(String message, Page<byte[]> page) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimateSize(page.getContent()) + 160);
+        writeEnvelopeStart(out, message);
+        writeAscii(out, "{\"content\":");
+        writeArray(out, page.getContent());
+        writeAscii(out, ",\"totalElements\":" + page.getTotalElements()
+                + ",\"totalPages\":" + page.getTotalPages()
+                + ",\"size\":" + page.getSize()
+                + ",\"number\":" + page.getNumber()
+                + ",\"numberOfElements\":" + page.getNumberOfElements()
+                + ",\"first\":" + page.isFirst()
+                + ",\"last\":" + page.isLast()
+                + ",\"empty\":" + page.isEmpty()
+                + "}}");
+        return out.toByteArray();
+    }
+
+    private byte[] encode(ProductResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize product " + response.getId(), e);
+        }
+    }
+
+    private void writeEnvelopeStart(ByteArrayOutputStream out, String message) {
+        out.writeBytes(MESSAGE_PREFIX);
+        try {
+            out.writeBytes(objectMapper.writeValueAsBytes(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize message", e);
+        }
+        out.writeBytes(DATA_PREFIX);
+    }
+
+    private static void writeArray(ByteArrayOutputStream out, List<byte[]> cards) {
+        out.write('[');
+        for (int i = 0; i < cards.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(cards.get(i));
+        }
+        out.write(']');
+    }
+
+    private static void writeAscii(ByteArrayOutputStream out, String value) {
+        out.writeBytes(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static int estimateSize(List<byte[]> cards) {
+        int size = 64;
+        for (byte[] card : cards) {
+            size += card.length + 1;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,195 @@
+package com.service.main.cache;
+
+import com.service.main.config.AfterCommit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index wishlist trong memory: moi user 1 LongBitmap cac product id, moi product 1 LongBitmap cac user id.
+ * Nap lazy tu DB lan dau can, sau do cap nhat khi wishlist duoc them / xoa (sau khi commit).
+ * onAdded / onRemoved chi thay duoc thay doi cua instance nay, nen moi entry co TTL (ttl-seconds):
+ * thay doi tu instance khac hien ra cham nhat sau TTL.
+ *
+ * Chong nap cu: moi lan thay doi tang version; ket qua nap tu DB chi duoc luu neu version khong doi
+ * trong luc query, va kiem tra lai sau khi luu (thay doi xen giua thi bo entry vua luu, lan sau nap lai).
+ */
+@Component
+@RequiredArgsConstructor
+public class WishlistBitmapIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final Map<Long, Entry> productsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> usersByProduct = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @Value("${wishlist.bitmap-index.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${wishlist.bitmap-index.max-users:100000}")
+    private int maxUsers;
+
+    @Value("${wishlist.bitmap-index.max-products:100000}")
+    private int maxProducts;
+
+    private record Entry(LongBitmap ids, long expiresAt) {
+
+        Entry with(long id) {
+            return new Entry(ids.with(id), expiresAt);
+        }
+
+        Entry without(long id) {
+            return new Entry(ids.without(id), expiresAt);
+        }
+    }
+
+    public boolean contains(Long userId, Long productId) {
+        return productsOf(userId).contains(productId);
+    }
+
+    /**
+     * Cac product id trong productIds ma user da them vao wishlist, giu thu tu dau vao.
+     */
+    public Set<Long> filterWishlisted(Long userId, Collection<Long> productIds) {
+        LongBitmap products = productsOf(userId);
+        Set<Long> result = new LinkedHashSet<>();
+        if (products.isEmpty()) {
+            return result;
+        }
+        for (Long productId : productIds) {
+            if (productId != null && products.contains(productId)) {
+                result.add(productId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * So user dang theo doi tung product, cac product chua nap duoc lay bang 1 query.
+     */
+    public Map<Long, Integer> countWatchers(Collection<Long> productIds) {
+        Map<Long, Integer> result = new HashMap<>();
+        watchersOf(productIds).forEach((productId, users) -> result.put(productId, users.cardinality()));
+        return result;
+    }
+
+    public void onAdded(Long userId, Long productId) {
+        AfterCommit.run(() -> {
+            version.incrementAndGet();
+            productsByUser.computeIfPresent(userId, (k, products) -> products.with(productId));
+            usersByProduct.computeIfPresent(productId, (k, users) -> users.with(userId));
+        });
+    }
+
+    public void onRemoved(Long userId, Long productId) {
+        AfterCommit.run(() -> {
+            version.incrementAndGet();
+            productsByUser.computeIfPresent(userId, (k, products) -> products.without(productId));
+            usersByProduct.computeIfPresent(productId, (k, users) -> users.without(userId));
+        });
+    }
+
+    private LongBitmap productsOf(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry cached = productsByUser.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.ids();
+        }
+        long before = version.get();
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT product_id FROM wishlist WHERE user_id = ?", Long.class, userId);
+        LongBitmap products = LongBitmap.of(toArray(ids));
+        if (version.get() == before) {
+            makeRoom(productsByUser, maxUsers, now);
+            store(productsByUser, userId, new Entry(products, now + ttlSeconds * 1000), before);
+        }
+        return products;
+    }
+
+    private Map<Long, LongBitmap> watchersOf(Collection<Long> productIds) {
+        Map<Long, LongBitmap> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Long productId : productIds) {
+            Entry cached = productId != null ? usersByProduct.get(productId) : null;
+            if (cached != null && cached.expiresAt() > now) {
+                result.put(productId, cached.ids());
+            } else if (productId != null) {
+                missing.add(productId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long before = version.get();
+        Map<Long, List<Long>> loaded = new HashMap<>();
+        namedJdbcTemplate.query("SELECT product_id, user_id FROM wishlist WHERE product_id IN (:ids)",
+                new MapSqlParameterSource("ids", missing),
+                rs -> {
+                    loaded.computeIfAbsent(rs.getLong("product_id"), k -> new ArrayList<>()).add(rs.getLong("user_id"));
+                });
+        boolean cacheable = version.get() == before;
+        if (cacheable) {
+            makeRoom(usersByProduct, maxProducts, now);
+        }
+        for (Long productId : missing) {
+            LongBitmap users = LongBitmap.of(toArray(loaded.getOrDefault(productId, List.of())));
+            if (cacheable) {
+                store(usersByProduct, productId, new Entry(users, now + ttlSeconds * 1000), before);
+            }
+            result.put(productId, users);
+        }
+        return result;
+    }
+
+    // onAdded / onRemoved xen vao giua lan kiem tra version va put: bo entry vua luu (chi khi chua bi thay)
+    private void store(Map<Long, Entry> map, Long key, Entry entry, long loadedAtVersion) {
+        map.put(key, entry);
+        if (version.get() != loadedAtVersion) {
+            map.remove(key, entry);
+        }
+    }
+
+    // het cho thi bo entry het han, van khong du thi bo bot 1/10 so entry bat ky (se duoc nap lai khi can)
+    private static void makeRoom(Map<Long, Entry> map, int maxSize, long now) {
+        if (map.size() < maxSize) {
+            return;
+        }
+        map.values().removeIf(e -> e.expiresAt() <= now);
+        if (map.size() < maxSize) {
+            return;
+        }
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<Long> it = map.keySet().iterator();
+        while (it.hasNext() && toRemove-- > 0) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        long[] values = new long[ids.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ids.get(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,34 @@
+package com.service.main.config;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+/**
+ * Job chay nen (khong co request) can goi user service: UserServiceClient lay X-user-id / X-user-role
+ * tu SecurityContext, nen chay job voi 1 authentication he thong (id 0, role SYSTEM).
+ */
+public final class SystemAuthentication {
+
+    public static final String SYSTEM_USER_ID = "0";
+    public static final String SYSTEM_ROLE = "SYSTEM";
+
+    private SystemAuthentication() {
+    }
+
+    public static void run(Runnable task) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(
+                SYSTEM_USER_ID, null, List.of(new SimpleGrantedAuthority("ROLE_" + SYSTEM_ROLE))));
+        SecurityContextHolder.setContext(context);
+        try {
+            task.run();
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.service.main.controller;
 
 import com.service.main.dto.AdminDashboardStats;
 import com.service.main.dto.ApiResponse;
+import com.service.main.dto.AuctionMetricsResponse;
 import com.service.main.dto.RecentProductDTO;
 import com.service.main.service.AdminDashboardService;
 import lombok.RequiredArgsConstructor;
@@ -42,4 +43,26 @@ public class AdminDashboardController {
         List<RecentProductDTO> recentProducts = adminDashboardService.getRecentProducts(limit);
         return ResponseEntity.ok(new ApiResponse<>("Get recent products successfully", recentProducts));
     }
+
+    /**
+     * Live auction activity series from in-memory metrics (no database query)
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<?> getAuctionMetrics(
+            @RequestParam(defaultValue = "minute") String resolution,
+            @RequestParam(defaultValue = "60") int points
+    ) {
+        AuctionMetricsResponse metrics = adminDashboardService.getAuctionMetrics(resolution, points);
+        return ResponseEntity.ok(new ApiResponse<>("Get auction metrics successfully", metrics));
+    }
+
+    /**
+     * Rebuild category product counters (repair command)
+     */
+    @PostMapping("/category-stats/rebuild")
+    public ResponseEntity<?> rebuildCategoryStats() {
+        log.info("Admin request: Rebuild category statistics");
+        adminDashboardService.rebuildCategoryStats();
+        return ResponseEntity.ok(new ApiResponse<>("Rebuild category statistics successfully", null));
+    }
 }
@@ -1,13 +1,17 @@
 package com.service.main.controller;
 
 import com.service.main.dto.*;
+import com.service.main.export.ExportFormat;
+import com.service.main.export.ExportResponses;
 import com.service.main.service.AdminProductService;
+import com.service.main.service.AuctionExportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/main/admin/products")
@@ -17,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminProductController {
 
     private final AdminProductService adminProductService;
+    private final AuctionExportService auctionExportService;
 
     /**
      * Get all products with pagination and filters
@@ -98,4 +103,20 @@ public class AdminProductController {
         adminProductService.endAuctionEarly(productId, request.getReason());
         return ResponseEntity.ok(new ApiResponse<>("Auction ended successfully", null));
     }
+
+    /**
+     * Export ket qua auction da ket thuc (tat ca seller, hoac 1 seller) dang stream CSV/NDJSON
+     */
+    @GetMapping("/results/export")
+    public ResponseEntity<StreamingResponseBody> exportAuctionResults(
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        log.info("Admin request: Export auction results - sellerId: {}, format: {}", sellerId, format);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        String baseName = sellerId != null ? "auction-results-" + sellerId : "auction-results";
+        return ExportResponses.stream(baseName, exportFormat, gzip,
+                out -> auctionExportService.writeAuctionResults(sellerId, exportFormat, out));
+    }
 }
@@ -3,6 +3,7 @@ package com.service.main.controller;
 import com.service.main.dto.ApiResponse;
 import com.service.main.dto.AutoBidResponse;
 import com.service.main.dto.CreateAutoBidRequest;
+import com.service.main.metrics.AuctionMetrics;
 import com.service.main.service.AutoBidService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class AutoBidController {
 
     private final AutoBidService autoBidService;
+    private final AuctionMetrics auctionMetrics;
 
     @PostMapping
     public ResponseEntity<?> createAutoBid(
@@ -29,7 +31,14 @@ public class AutoBidController {
 
         Long currentUserId = Long.valueOf(authentication.getName());
 
-        AutoBidResponse res = autoBidService.createAutoBid(request, currentUserId);
+        // do ca commit cua transaction
+        long start = System.nanoTime();
+        AutoBidResponse res;
+        try {
+            res = autoBidService.createAutoBid(request, currentUserId);
+        } finally {
+            auctionMetrics.recordBidLatency(start);
+        }
 
         return ResponseEntity
                 .status(201)
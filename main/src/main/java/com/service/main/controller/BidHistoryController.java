@@ -2,13 +2,22 @@ package com.service.main.controller;
 
 import com.service.main.dto.ApiResponse;
 import com.service.main.dto.BidHistoryResponse;
+import com.service.main.dto.PriceSeriesResponse;
+import com.service.main.export.ExportFormat;
+import com.service.main.export.ExportResponses;
+import com.service.main.service.AuctionExportService;
 import com.service.main.service.BidHistoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/main/bid-history")
@@ -16,19 +25,57 @@ import org.springframework.web.bind.annotation.*;
 public class BidHistoryController {
 
     private final BidHistoryService bidHistoryService;
+    private final AuctionExportService auctionExportService;
 
     @GetMapping("/product/{productId}")
     public ResponseEntity<ApiResponse<Page<BidHistoryResponse>>> getBidHistoriesByProductId(
             @PathVariable Long productId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest
     ) {
         Pageable pageable = PageRequest.of(page, size);
 
+        String eTag = bidHistoryService.getBidHistoriesETag(productId, pageable);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         Page<BidHistoryResponse> result = bidHistoryService.getBidHistoriesByProductId(productId, pageable);
 
-        return ResponseEntity.ok(new ApiResponse<>("Bid histories retrieved successfully", result));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(new ApiResponse<>("Bid histories retrieved successfully", result));
     }
-}
 
+    // Chart gia: 1 response nho thay vi tai tung trang bid history
+    @GetMapping("/product/{productId}/price-series")
+    public ResponseEntity<ApiResponse<PriceSeriesResponse>> getPriceSeries(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "100") int buckets
+    ) {
+        PriceSeriesResponse result = bidHistoryService.getPriceSeries(productId, buckets);
+        return ResponseEntity.ok(new ApiResponse<>("Price series retrieved successfully", result));
+    }
 
+    // Toan bo bid history cua 1 product (seller cua product hoac admin), format=csv|ndjson, gzip=true de nen
+    @PreAuthorize("hasAnyRole('SELLER', 'ADMIN')")
+    @GetMapping("/product/{productId}/export")
+    public ResponseEntity<StreamingResponseBody> exportBidHistory(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long currentUserId = Long.valueOf(authentication.getName());
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        auctionExportService.checkCanExportBidHistory(productId, currentUserId, admin);
+
+        // seller chi thay ten bidder da mask giong trang bid history
+        return ExportResponses.stream("bid-history-" + productId, exportFormat, gzip,
+                out -> auctionExportService.writeBidHistory(productId, !admin, exportFormat, out));
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.service.main.dto.categoriesResponse;
 
@@ -22,9 +23,15 @@ public class CategoriesController {
     private final CategoriesService categoriesService;
 
     @GetMapping
-    public ResponseEntity<?> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(WebRequest webRequest) {
+        String eTag = categoriesService.getCategoriesETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         return ResponseEntity
                 .status(200)
+                .eTag(eTag)
                 .body(new ApiResponse<>("Get all categories successfully", categoriesService.getAllCategories()));
     }
 
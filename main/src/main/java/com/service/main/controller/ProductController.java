@@ -9,13 +9,28 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.service.main.cache.ProductCardJsonCache;
+import com.service.main.export.ExportFormat;
+import com.service.main.export.ExportResponses;
+import com.service.main.metrics.AuctionMetrics;
+import com.service.main.service.AuctionExportService;
+import com.service.main.service.AuctionSearchService;
+import com.service.main.service.ProductImportService;
 import com.service.main.service.ProductService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import jakarta.validation.Valid;
 import com.service.main.dto.createProductRequest;
 import com.service.main.dto.ProductResponse;
 import com.service.main.dto.ApiResponse;
+import com.service.main.dto.FacetedSearchResponse;
+import com.service.main.dto.ProductImportResult;
+import jakarta.servlet.http.HttpServletRequest;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -23,66 +38,126 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProductController {
     private final ProductService productService;
+    private final ProductCardJsonCache productCardJsonCache;
+    private final AuctionSearchService auctionSearchService;
+    private final ProductImportService productImportService;
+    private final AuctionExportService auctionExportService;
+    private final AuctionMetrics auctionMetrics;
 
     @PreAuthorize("hasRole('SELLER')")
     @PostMapping
     public ResponseEntity<?> createProduct(
         @Valid @RequestBody createProductRequest request
     ) {
-        this.productService.createProduct(request);
+        long start = System.nanoTime();
+        try {
+            this.productService.createProduct(request);
+        } finally {
+            this.auctionMetrics.recordProductLatency(start);
+        }
         return ResponseEntity
             .status(201)
             .body(new ApiResponse<>("Product created successfully", null));
     }
 
+    // Body la NDJSON (1 createProductRequest / dong) hoac CSV co header, doc dang stream
+    @PreAuthorize("hasRole('SELLER')")
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<?> importProducts(HttpServletRequest httpRequest) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long sellerId = Long.valueOf(authentication.getName());
+
+        ProductImportResult result = this.productImportService.importProducts(
+                httpRequest.getInputStream(), httpRequest.getContentType(), sellerId);
+        return ResponseEntity
+            .status(200)
+            .body(new ApiResponse<>("Products imported", result));
+    }
+
+    // Cac listing ben duoi ghep JSON card da cache san vao envelope ApiResponse (xem ProductCardJsonCache)
     @GetMapping("/top-ending-soon")
-    public ResponseEntity<?> getTop5ProductEndingSoon() {
-        List<ProductResponse> res = this.productService.getTop5EndingSoon();
+    public ResponseEntity<byte[]> getTop5ProductEndingSoon() {
+        List<byte[]> cards = this.productService.getTop5EndingSoonCards();
 
         return ResponseEntity
                 .status(200)
-                .body(new ApiResponse<>("Get top 5 product ending soon successfully", res));
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productCardJsonCache.writeList("Get top 5 product ending soon successfully", cards));
     }
 
     @GetMapping("/most-bid-count")
-    public ResponseEntity<?> getTop5MostBidCount() {
-        List<ProductResponse> res = this.productService.getTop5MostBidded();
+    public ResponseEntity<byte[]> getTop5MostBidCount() {
+        List<byte[]> cards = this.productService.getTop5MostBiddedCards();
 
         return ResponseEntity
                 .status(200)
-                .body(new ApiResponse<>("Get top 5 product with most bid count successfully", res));
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productCardJsonCache.writeList("Get top 5 product with most bid count successfully", cards));
     }
 
     @GetMapping("/highest-current-price")
-    public ResponseEntity<?> getTop5HighestCurrentPrice() {
-        List<ProductResponse> res = this.productService.getTop5HighestCurrentPrice();
+    public ResponseEntity<byte[]> getTop5HighestCurrentPrice() {
+        List<byte[]> cards = this.productService.getTop5HighestCurrentPriceCards();
 
         return ResponseEntity
                 .status(200)
-                .body(new ApiResponse<>("Get top 5 product with highest price", res));
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productCardJsonCache.writeList("Get top 5 product with highest price", cards));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchActiveAuctions(
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer endingWithinHours,
+            @RequestParam(required = false) Boolean hasBuyNow,
+            @RequestParam(required = false) Integer minBidCount,
+            @RequestParam(required = false) Integer maxBidCount,
+            @RequestParam(required = false, defaultValue = "endAt") String sortBy,
+            @RequestParam(required = false, defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        FacetedSearchResponse res = auctionSearchService.search(
+                categoryId, minPrice, maxPrice, endingWithinHours, hasBuyNow,
+                minBidCount, maxBidCount, sortBy, sortDir, page, size
+        );
+
+        return ResponseEntity.ok(new ApiResponse<>("Search products successfully", res));
     }
 
     @GetMapping("/{productId}")
-    public ResponseEntity<?> getProductById(@PathVariable Long productId) {
+    public ResponseEntity<?> getProductById(@PathVariable Long productId, WebRequest webRequest) {
+        // Neu client gui If-None-Match trung ETag thi tra 304 luon, khong can map ProductResponse
+        String eTag = this.productService.getProductETag(productId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         ProductResponse product = this.productService.getProductById(productId);
         return ResponseEntity
             .status(200)
+            .eTag(eTag)
             .body(new ApiResponse<>("Product retrieved successfully", product));
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<ApiResponse<Page<ProductResponse>>> getProductsByCategory(
+    public ResponseEntity<byte[]> getProductsByCategory(
             @PathVariable Integer categoryId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "1") int size,
-            @RequestParam(defaultValue = "endAt,asc", required = false) String sort
+            @RequestParam(defaultValue = "endAt,asc", required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean includeSubcategories
     ) {
 
         Pageable pageable = PageRequest.of(page, size);
 
-        Page<ProductResponse> res = productService.getProductsByCategory(categoryId, pageable);
+        Page<byte[]> cards = productService.getProductCardsByCategory(categoryId, includeSubcategories, pageable);
 
-        return ResponseEntity.ok(new ApiResponse<>("Products retrieved successfully", res));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productCardJsonCache.writePage("Products retrieved successfully", cards));
     }
 
     //@PreAuthorize("hasRole('SELLER')")
@@ -128,4 +203,19 @@ public class ProductController {
 
         return ResponseEntity.ok(new ApiResponse<>("Products retrieved successfully", res));
     }
+
+    // Ket qua cac auction da ket thuc cua seller hien tai, format=csv|ndjson, gzip=true de nen
+    @PreAuthorize("hasRole('SELLER')")
+    @GetMapping("/seller/ended/export")
+    public ResponseEntity<StreamingResponseBody> exportEndedAuctionResults(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long sellerId = Long.valueOf(authentication.getName());
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ExportResponses.stream("auction-results-" + sellerId, exportFormat, gzip,
+                out -> auctionExportService.writeAuctionResults(sellerId, exportFormat, out));
+    }
 }
@@ -13,6 +13,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/main/wishlist")
@@ -59,6 +61,36 @@ public class WishlistController {
         return ResponseEntity.ok(new ApiResponse<>("All wishlist retrieved successfully", result));
     }
 
+    @GetMapping("/user/contains")
+    public ResponseEntity<?> getWishlistedProductIds(
+            @RequestParam List<Long> productIds
+    ) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long currentUserId = Long.valueOf(authentication.getName());
+
+        Set<Long> result = wishlistService.filterWishlisted(currentUserId, productIds);
+
+        return ResponseEntity.ok(new ApiResponse<>("Wishlisted products retrieved successfully", result));
+    }
+
+    @GetMapping("/watchers")
+    public ResponseEntity<?> countWatchers(
+            @RequestParam List<Long> productIds
+    ) {
+        Map<Long, Integer> result = wishlistService.countWatchers(productIds);
+
+        return ResponseEntity.ok(new ApiResponse<>("Watcher counts retrieved successfully", result));
+    }
+
+    @GetMapping("/product/{productId}/watchers")
+    public ResponseEntity<?> countWatchers(
+            @PathVariable Long productId
+    ) {
+        Integer result = wishlistService.countWatchers(List.of(productId)).get(productId);
+
+        return ResponseEntity.ok(new ApiResponse<>("Watcher count retrieved successfully", result));
+    }
+
     @GetMapping("/product/{productId}")
     public ResponseEntity<?> getWishlistsByProductId(
             @PathVariable Long productId,
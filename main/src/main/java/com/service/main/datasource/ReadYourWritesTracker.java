@@ -0,0 +1,69 @@
+package com.service.main.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nho thoi diem ghi cuoi cung cua tung user. Trong read-your-writes-ms sau do, transaction readOnly
+ * cua user nay van doc tu primary, de user vua dat bid / sua product khong thay du lieu cu tu replica dang tre.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    @Value("${datasource.replica.read-your-writes-ms:3000}")
+    private long windowMs;
+
+    public void recordWrite(String userId) {
+        if (userId != null && windowMs > 0) {
+            lastWriteNanos.put(userId, System.nanoTime());
+        }
+    }
+
+    public void recordCurrentUserWrite() {
+        recordWrite(currentUserId());
+    }
+
+    /**
+     * true neu user cua request hien tai da ghi trong cua so read-your-writes.
+     */
+    public boolean mustReadFromPrimary() {
+        String userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteNanos.get(userId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < TimeUnit.MILLISECONDS.toNanos(windowMs)) {
+            return true;
+        }
+        lastWriteNanos.remove(userId, writtenAt);
+        return false;
+    }
+
+    // user ghi 1 lan roi khong doc lai thi entry khong tu bi xoa trong mustReadFromPrimary
+    @Scheduled(fixedDelayString = "${datasource.replica.read-your-writes-sweep-ms:60000}")
+    public void evictExpired() {
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        long now = System.nanoTime();
+        lastWriteNanos.entrySet().removeIf(entry -> now - entry.getValue() >= windowNanos);
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
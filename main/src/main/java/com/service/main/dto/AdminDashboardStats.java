@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @Data
@@ -31,6 +32,10 @@ public class AdminDashboardStats {
     // Recent activity counts
     private long newProductsToday;
     private long newProductsThisWeek;
+
+    // do tuoi cua so lieu: lan tinh lai tu DB gan nhat / lan cap nhat gan nhat
+    private OffsetDateTime refreshedAt;
+    private OffsetDateTime updatedAt;
     
     @Data
     @NoArgsConstructor
@@ -40,5 +45,6 @@ public class AdminDashboardStats {
         private Integer categoryId;
         private String categoryName;
         private long productCount;
+        private long activeAuctionCount;
     }
 }
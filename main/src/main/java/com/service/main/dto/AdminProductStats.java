@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.OffsetDateTime;
+
 /**
  * Statistics response for admin product management
  */
@@ -20,4 +22,6 @@ public class AdminProductStats {
     private long productsWithBids;
     private long productsWithoutBids;
     private long productsEndingSoon; // within 24 hours
+    private OffsetDateTime refreshedAt;
+    private OffsetDateTime updatedAt;
 }
@@ -0,0 +1,40 @@
+package com.service.main.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Series metrics cho chart admin: phan tu i cua moi mang la khoang [from + i * bucketMillis, + bucketMillis),
+ * phan tu cuoi la khoang hien tai (chua tron). Latency tinh bang micro giay.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionMetricsResponse {
+    private String resolution;
+    private OffsetDateTime from;
+    private long bucketMillis;
+    private long[] bids;
+    private long[] newProducts;
+    private long[] activeBidders; // chi co o resolution MINUTE
+    private long[] bidLatencyP99; // chi co o resolution MINUTE
+    private int activeBiddersNow;
+    private int activeBiddersWindowMinutes;
+    private Latency bidLatency; // gop tren ca khoang cua chart
+    private Latency productLatency;
+    private OffsetDateTime generatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Latency {
+        private long count;
+        private long p50;
+        private long p90;
+        private long p99;
+        private long max;
+    }
+}
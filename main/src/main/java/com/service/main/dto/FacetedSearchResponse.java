@@ -0,0 +1,44 @@
+package com.service.main.dto;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response cua faceted search tren ActiveAuctionIndex
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetedSearchResponse {
+    // JSON product card da encode san (ProductCardJsonCache), ghi thang ra khong serialize lai
+    private List<RawValue> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private Facets facets;
+    private OffsetDateTime indexedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Facets {
+        private Map<Integer, Integer> categories; // categoryId -> so product
+        private int withBuyNow;
+        private int withoutBuyNow;
+        private Map<String, Integer> endingWithin; // "1h", "24h", "7d"
+        private Map<String, Integer> bidCount; // "0", "1-5", "6-20", "21+"
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+    }
+}
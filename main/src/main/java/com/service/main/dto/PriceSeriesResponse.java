@@ -0,0 +1,42 @@
+package com.service.main.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Duong gia cua 1 auction chia thanh toi da `buckets` khoang deu nhau tu luc tao product
+ * toi luc ket thuc (hoac hien tai). Bucket khong co bid thi khong co trong points.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceSeriesResponse {
+    private Long productId;
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+    private int buckets;
+    private long bucketMillis;
+    private long totalBids;
+    private List<Point> points;
+    private OffsetDateTime generatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Point {
+        private OffsetDateTime start; // dau bucket
+        private BigDecimal open; // gia bid dau tien trong bucket
+        private BigDecimal min;
+        private BigDecimal max;
+        private BigDecimal close; // gia bid cuoi cung trong bucket
+        private int count;
+    }
+}
@@ -0,0 +1,32 @@
+package com.service.main.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ket qua bulk import product
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResult {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<RowError> errors; // chi giu toi da product.import.max-reported-errors loi dau tien
+    private boolean errorsTruncated;
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -43,7 +43,7 @@ public class ProductResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class DescriptionInfo {
-        private Integer id;
+        private Long id;
         private String content;
         private OffsetDateTime createdAt;
         private Long createdBy;
@@ -53,7 +53,7 @@ public class ProductResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PictureInfo {
-        private Integer id;
+        private Long id;
         private String imageUrl;
         private OffsetDateTime createdAt;
     }
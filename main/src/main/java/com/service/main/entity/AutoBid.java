@@ -18,7 +18,8 @@ import java.time.OffsetDateTime;
 public class AutoBid {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "auto_bids_id_gen")
+    @SequenceGenerator(name = "auto_bids_id_gen", sequenceName = "auto_bids_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "product_id", nullable = false)
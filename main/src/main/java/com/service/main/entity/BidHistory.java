@@ -18,7 +18,8 @@ import java.time.OffsetDateTime;
 public class BidHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bid_history_id_gen")
+    @SequenceGenerator(name = "bid_history_id_gen", sequenceName = "bid_history_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "product_id", nullable = false)
@@ -32,4 +33,8 @@ public class BidHistory {
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
+
+    // ten bidder da mask luc dat bid, null voi bid cu chua duoc backfill
+    @Column(name = "bidder_masked_name")
+    private String bidderMaskedName;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.service.main.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * So dem dung chung cua CategoryStatsCache: cac instance cong delta vao day va doc lai dinh ky,
+ * khoi dong lai ma khong phai aggregate lai product_category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "category_stats")
+public class CategoryStats {
+
+    @Id
+    @Column(name = "category_id")
+    private Integer categoryId;
+
+    @Column(name = "product_count", nullable = false)
+    private Long productCount;
+
+    @Column(name = "active_auction_count", nullable = false)
+    private Long activeAuctionCount;
+
+    // product co end_at <= swept_until da duoc tinh la ket thuc
+    @Column(name = "swept_until", nullable = false)
+    private OffsetDateTime sweptUntil;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
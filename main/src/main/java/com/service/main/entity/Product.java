@@ -21,8 +21,13 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 public class Product {
+
+    // phai bang INCREMENT BY cua product_id_seq (pooled optimizer: moi nextval cap 1 khoang id)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue (strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id_gen")
+    @SequenceGenerator(name = "product_id_gen", sequenceName = "product_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "product_name", nullable = false)
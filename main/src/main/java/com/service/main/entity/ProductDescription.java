@@ -16,8 +16,9 @@ import java.time.OffsetDateTime;
 @Builder
 public class ProductDescription {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_descriptions_id_gen")
+    @SequenceGenerator(name = "product_descriptions_id_gen", sequenceName = "product_descriptions_id_seq", allocationSize = 50)
+    private Long id;
 
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
@@ -16,8 +16,9 @@ import java.time.OffsetDateTime;
 @Builder
 public class ProductPicture {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_pictures_id_gen")
+    @SequenceGenerator(name = "product_pictures_id_gen", sequenceName = "product_pictures_id_seq", allocationSize = 50)
+    private Long id;
 
     @Column(name = "image_url", nullable = false)
     private String imageUrl;
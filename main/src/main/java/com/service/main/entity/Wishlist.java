@@ -17,7 +17,8 @@ import java.time.OffsetDateTime;
 public class Wishlist {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wishlist_id_gen")
+    @SequenceGenerator(name = "wishlist_id_gen", sequenceName = "wishlist_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
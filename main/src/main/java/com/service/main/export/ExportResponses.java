@@ -0,0 +1,47 @@
+package com.service.main.export;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Dung ResponseEntity cho file export: body ghi dan vao response tren thread async cua MVC,
+ * gzip=true thi tra file .gz (application/gzip) thay vi de client tu giai nen.
+ */
+public final class ExportResponses {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private ExportResponses() {
+    }
+
+    public static ResponseEntity<StreamingResponseBody> stream(String baseName, ExportFormat format, boolean gzip, Body body) {
+        String filename = baseName + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody responseBody = out -> {
+            if (!gzip) {
+                body.writeTo(out);
+                return;
+            }
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true);
+            body.writeTo(gzipOut);
+            gzipOut.finish();
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(format.getContentType()))
+                .body(responseBody);
+    }
+}
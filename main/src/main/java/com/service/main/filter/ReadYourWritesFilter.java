@@ -0,0 +1,42 @@
+package com.service.main.filter;
+
+import com.service.main.datasource.ReadYourWritesTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Request POST/PUT/PATCH/DELETE thanh cong duoc coi la 1 lan ghi cua user (dat bid, auto bid, wishlist...),
+ * mo cua so read-your-writes cho user do. Chay sau security filter chain nen da co authentication.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest req,
+            @NonNull HttpServletResponse res,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(req, res);
+        } finally {
+            if (WRITE_METHODS.contains(req.getMethod()) && res.getStatus() < 400) {
+                readYourWritesTracker.recordCurrentUserWrite();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.service.main.importer;
+
+import com.service.main.dto.createProductRequest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV co header (RFC 4180: field co the nam trong "...", "" la dau nhay, xuong dong trong field duoc).
+ * Cot bat buoc: productName, thumbnailUrl, startPrice, minimumBidStep, endAt, autoExtendEnabled,
+ * descriptionContent, categoryIds. Cot tuy chon: buyNowPrice, pictureUrls.
+ * categoryIds va pictureUrls phan cach bang '|'.
+ */
+public class CsvProductRowReader implements ProductRowReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "productName", "thumbnailUrl", "startPrice", "minimumBidStep", "endAt",
+            "autoExtendEnabled", "descriptionContent", "categoryIds");
+
+    private final Reader reader;
+    private Map<String, Integer> columns;
+    private long rowNumber;
+    private int pushback = -2;
+
+    public CsvProductRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        List<String> fields;
+        while ((fields = readRecord()) != null) {
+            rowNumber++;
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                return ProductImportRow.ok(rowNumber, toRequest(fields));
+            } catch (RuntimeException e) {
+                return ProductImportRow.failed(rowNumber, "Invalid CSV row: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IOException("CSV header is missing");
+        }
+        rowNumber++;
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IOException("CSV header is missing column: " + column);
+            }
+        }
+    }
+
+    private createProductRequest toRequest(List<String> fields) {
+        createProductRequest request = new createProductRequest();
+        request.setProductName(field(fields, "productName"));
+        request.setThumbnailUrl(field(fields, "thumbnailUrl"));
+        request.setStartPrice(decimal(field(fields, "startPrice")));
+        request.setBuyNowPrice(decimal(field(fields, "buyNowPrice")));
+        request.setMinimumBidStep(decimal(field(fields, "minimumBidStep")));
+        String endAt = field(fields, "endAt");
+        request.setEndAt(endAt == null ? null : OffsetDateTime.parse(endAt));
+        String autoExtend = field(fields, "autoExtendEnabled");
+        request.setAutoExtendEnabled(autoExtend == null ? null : Boolean.parseBoolean(autoExtend));
+        request.setDescriptionContent(field(fields, "descriptionContent"));
+
+        String categoryIds = field(fields, "categoryIds");
+        if (categoryIds != null) {
+            request.setCategoryIds(Arrays.stream(categoryIds.split("\\|"))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .map(Integer::valueOf)
+                    .toList());
+        }
+        String pictureUrls = field(fields, "pictureUrls");
+        if (pictureUrls != null) {
+            request.setPictureUrls(Arrays.stream(pictureUrls.split("\\|"))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .toList());
+        }
+        return request;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value == null ? null : new BigDecimal(value.trim());
+    }
+
+    /**
+     * Doc 1 record (co the nhieu dong vat ly neu field nam trong dau nhay). null khi het input.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field at row " + (rowNumber + 1));
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushback = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,40 @@
+package com.service.main.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.main.dto.createProductRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Moi dong la 1 JSON object co cung field voi createProductRequest.
+ */
+public class NdjsonProductRowReader implements ProductRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long rowNumber;
+
+    public NdjsonProductRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                return ProductImportRow.ok(rowNumber, objectMapper.readValue(line, createProductRequest.class));
+            } catch (JsonProcessingException e) {
+                return ProductImportRow.failed(rowNumber, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+}
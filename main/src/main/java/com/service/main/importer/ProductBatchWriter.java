@@ -0,0 +1,107 @@
+package com.service.main.importer;
+
+import com.service.main.dto.createProductRequest;
+import com.service.main.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ghi 1 chunk product (va description, picture, product_category) bang JDBC batch.
+ * Id cua product va cua cac bang con deu cap truoc tu sequence theo block (moi nextval = 50 id),
+ * nen bang con co the insert batch luon ma khong can doc lai id sau moi insert, va khong dong nao
+ * lay id tu DEFAULT nextval (moi lan goi se dot ca 1 block 50 id).
+ * Voi reWriteBatchedInserts=true, pgjdbc gop batch thanh cac cau INSERT nhieu dong.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductBatchWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public List<Long> write(List<createProductRequest> requests, OffsetDateTime now) {
+        List<Long> ids = allocateIds("product_id_seq", requests.size());
+        Timestamp createdAt = Timestamp.from(now.toInstant());
+
+        List<Object[]> products = new ArrayList<>(requests.size());
+        List<Object[]> descriptions = new ArrayList<>(requests.size());
+        List<Object[]> pictures = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            createProductRequest r = requests.get(i);
+            Long id = ids.get(i);
+            products.add(new Object[]{
+                    id, r.getProductName().trim(), r.getThumbnailUrl().trim(), r.getStartPrice(), r.getStartPrice(),
+                    r.getBuyNowPrice(), r.getMinimumBidStep(), r.getSellerId(), r.getAutoExtendEnabled(),
+                    createdAt, Timestamp.from(r.getEndAt().toInstant())
+            });
+            descriptions.add(new Object[]{id, r.getDescriptionContent().trim(), createdAt, r.getSellerId()});
+            if (r.getPictureUrls() != null) {
+                for (String url : r.getPictureUrls()) {
+                    pictures.add(new Object[]{id, url, createdAt});
+                }
+            }
+            for (Integer categoryId : r.getCategoryIds().stream().distinct().toList()) {
+                categories.add(new Object[]{id, categoryId, createdAt});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO product (id, product_name, thumbnail_url, start_price, current_price, buy_now_price,
+                                     minimum_bid_step, top_bidder_id, seller_id, auto_extend_enabled, bid_count,
+                                     created_at, end_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, NULL, ?, ?, 0, ?, ?)
+                """, products);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO product_descriptions (id, product_id, content, created_at, created_by) VALUES (?, ?, ?, ?, ?)",
+                withIds("product_descriptions_id_seq", descriptions));
+        if (!pictures.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO product_pictures (id, product_id, image_url, created_at) VALUES (?, ?, ?, ?)",
+                    withIds("product_pictures_id_seq", pictures));
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO product_category (id, product_id, category_id, created_at) VALUES (?, ?, ?, ?)",
+                withIds("product_category_id_seq", categories));
+        return ids;
+    }
+
+    /**
+     * Cung quy uoc voi pooled optimizer cua Hibernate: moi gia tri nextval v so huu khoang (v - size, v],
+     * nen id cap o day khong trung voi id Hibernate dang giu trong memory.
+     * Moi sequence product_* deu INCREMENT BY 50 (V2__pooled_sequence_ids.sql).
+     */
+    private List<Long> allocateIds(String sequence, int count) {
+        int blocks = (count + Product.ID_ALLOCATION_SIZE - 1) / Product.ID_ALLOCATION_SIZE;
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long high : highs) {
+            for (long id = high - Product.ID_ALLOCATION_SIZE + 1; id <= high && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    // them id cap tu sequence vao dau moi dong
+    private List<Object[]> withIds(String sequence, List<Object[]> rows) {
+        List<Long> ids = allocateIds(sequence, rows.size());
+        List<Object[]> result = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            Object[] withId = new Object[row.length + 1];
+            withId[0] = ids.get(i);
+            System.arraycopy(row, 0, withId, 1, row.length);
+            result.add(withId);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package com.service.main.importer;
+
+import com.service.main.dto.createProductRequest;
+
+/**
+ * 1 dong trong file import. request == null khi dong do khong parse duoc (error != null).
+ */
+public record ProductImportRow(long rowNumber, createProductRequest request, String error) {
+
+    public static ProductImportRow ok(long rowNumber, createProductRequest request) {
+        return new ProductImportRow(rowNumber, request, null);
+    }
+
+    public static ProductImportRow failed(long rowNumber, String error) {
+        return new ProductImportRow(rowNumber, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.service.main.importer;
+
+import java.io.IOException;
+
+/**
+ * Doc tung dong tu upload, khong buffer ca file vao memory.
+ */
+public interface ProductRowReader {
+
+    /**
+     * @return dong tiep theo, hoac null khi het du lieu
+     */
+    ProductImportRow next() throws IOException;
+}
@@ -0,0 +1,146 @@
+package com.service.main.metrics;
+
+import com.service.main.config.AfterCommit;
+import com.service.main.dto.AuctionMetricsResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Metrics hoat dong dau gia trong memory, ghi truc tiep tu luong dat bid / tao product (sau khi commit),
+ * de chart admin khong phai query bid_history / product.
+ * - Counter bid va product moi theo giay, phut, gio (ring co dinh, ghi bang CAS).
+ * - Bidder phan biet theo phut ("active bidders now" = active-bidders-minutes phut gan nhat).
+ * - Histogram latency dat bid va tao product theo phut.
+ * Chi la so lieu cua instance nay, mat khi restart.
+ */
+@Component
+public class AuctionMetrics {
+
+    private static final long SECOND = 1000;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+
+    @Value("${metrics.seconds:600}")
+    private int seconds;
+
+    @Value("${metrics.minutes:1440}")
+    private int minutes;
+
+    @Value("${metrics.hours:336}")
+    private int hours;
+
+    @Value("${metrics.active-bidders-minutes:5}")
+    private int activeBiddersMinutes;
+
+    private Rings bids;
+    private Rings products;
+    private DistinctRing bidders;
+    private HistogramRing bidLatency;
+    private HistogramRing productLatency;
+
+    public enum Resolution {
+        SECOND, MINUTE, HOUR;
+
+        public static Resolution from(String value) {
+            return Resolution.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    private record Rings(CounterRing seconds, CounterRing minutes, CounterRing hours) {
+        void add(long now, int delta) {
+            seconds.add(now, delta);
+            minutes.add(now, delta);
+            hours.add(now, delta);
+        }
+
+        CounterRing at(Resolution resolution) {
+            return switch (resolution) {
+                case SECOND -> seconds;
+                case MINUTE -> minutes;
+                case HOUR -> hours;
+            };
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        bids = newRings();
+        products = newRings();
+        bidders = new DistinctRing(MINUTE, minutes);
+        bidLatency = new HistogramRing(MINUTE, minutes);
+        productLatency = new HistogramRing(MINUTE, minutes);
+    }
+
+    public void recordBid(Long bidderId) {
+        AfterCommit.run(() -> {
+            long now = System.currentTimeMillis();
+            bids.add(now, 1);
+            if (bidderId != null) {
+                bidders.add(now, bidderId);
+            }
+        });
+    }
+
+    public void recordProductsCreated(int count) {
+        if (count > 0) {
+            AfterCommit.run(() -> products.add(System.currentTimeMillis(), count));
+        }
+    }
+
+    public void recordBidLatency(long startNanos) {
+        bidLatency.record(System.currentTimeMillis(), (System.nanoTime() - startNanos) / 1000);
+    }
+
+    public void recordProductLatency(long startNanos) {
+        productLatency.record(System.currentTimeMillis(), (System.nanoTime() - startNanos) / 1000);
+    }
+
+    /**
+     * points diem gan nhat o do phan giai resolution, diem cuoi la khoang hien tai (chua tron).
+     * Bidder va latency chi co theo phut tro len: o SECOND chi tra ve so tong hop.
+     */
+    public AuctionMetricsResponse snapshot(Resolution resolution, int points) {
+        long now = System.currentTimeMillis();
+        CounterRing bidRing = bids.at(resolution);
+        int n = Math.min(points, bidRing.capacity());
+
+        AuctionMetricsResponse response = new AuctionMetricsResponse();
+        response.setResolution(resolution.name());
+        response.setBucketMillis(bidRing.getSlotMillis());
+        response.setFrom(toTime(bidRing.seriesStartMillis(now, n)));
+        response.setGeneratedAt(toTime(now));
+        response.setBids(bidRing.series(now, n));
+        response.setNewProducts(products.at(resolution).series(now, n));
+        response.setActiveBiddersNow(bidders.countDistinct(now, activeBiddersMinutes));
+        response.setActiveBiddersWindowMinutes(activeBiddersMinutes);
+
+        // cua so tong hop latency = khoang thoi gian cua chart, toi thieu 1 phut
+        int windowMinutes = (int) Math.max(1, Math.min(minutes, n * bidRing.getSlotMillis() / MINUTE));
+        response.setBidLatency(toLatency(bidLatency.summarize(now, windowMinutes)));
+        response.setProductLatency(toLatency(productLatency.summarize(now, windowMinutes)));
+
+        if (resolution == Resolution.MINUTE) {
+            response.setActiveBidders(bidders.series(now, n));
+            response.setBidLatencyP99(Arrays.stream(bidLatency.series(now, n)).mapToLong(HistogramRing.Summary::p99).toArray());
+        }
+        return response;
+    }
+
+    private Rings newRings() {
+        return new Rings(new CounterRing(SECOND, seconds), new CounterRing(MINUTE, minutes), new CounterRing(HOUR, hours));
+    }
+
+    private static AuctionMetricsResponse.Latency toLatency(HistogramRing.Summary summary) {
+        return new AuctionMetricsResponse.Latency(summary.count(), summary.p50(), summary.p90(), summary.p99(), summary.max());
+    }
+
+    private static OffsetDateTime toTime(long millis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
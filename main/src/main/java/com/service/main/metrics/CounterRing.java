@@ -0,0 +1,67 @@
+package com.service.main.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring co dinh cac counter theo khe thoi gian (vd. 1 giay / 1 phut), giu slots khe gan nhat.
+ * Moi o la 1 long: 32 bit cao = so thu tu khe (tinh tu epoch), 32 bit thap = count. Ghi chi can 1 CAS,
+ * khi sang khe moi thi CAS de o cu thanh (khe moi, delta), nen khong co lock va khong mat count.
+ */
+public final class CounterRing {
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final long slotMillis;
+    private final AtomicLongArray cells;
+
+    public CounterRing(long slotMillis, int slots) {
+        this.slotMillis = slotMillis;
+        this.cells = new AtomicLongArray(slots);
+    }
+
+    public long getSlotMillis() {
+        return slotMillis;
+    }
+
+    public int capacity() {
+        return cells.length();
+    }
+
+    public void add(long nowMillis, int delta) {
+        long slot = nowMillis / slotMillis;
+        int index = (int) (slot % cells.length());
+        long stamp = slot & COUNT_MASK;
+        while (true) {
+            long current = cells.get(index);
+            long next = (current >>> 32) == stamp
+                    ? current + delta
+                    : (stamp << 32) | (delta & COUNT_MASK);
+            if (cells.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Count cua points khe gan nhat, phan tu cuoi la khe hien tai (chua tron). Khe khong co du lieu = 0.
+     */
+    public long[] series(long nowMillis, int points) {
+        int n = Math.min(points, cells.length());
+        long currentSlot = nowMillis / slotMillis;
+        long[] result = new long[n];
+        for (int i = 0; i < n; i++) {
+            long slot = currentSlot - (n - 1 - i);
+            long cell = cells.get((int) (slot % cells.length()));
+            result[i] = (cell >>> 32) == (slot & COUNT_MASK) ? cell & COUNT_MASK : 0;
+        }
+        return result;
+    }
+
+    /**
+     * Thoi diem bat dau cua phan tu dau tien trong series(nowMillis, points).
+     */
+    public long seriesStartMillis(long nowMillis, int points) {
+        int n = Math.min(points, cells.length());
+        return (nowMillis / slotMillis - (n - 1)) * slotMillis;
+    }
+}
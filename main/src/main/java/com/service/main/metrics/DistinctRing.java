@@ -0,0 +1,76 @@
+package com.service.main.metrics;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tap id phan biet (vd. bidder) theo tung khe thoi gian, de tinh "bao nhieu bidder trong N phut qua".
+ * Sang khe moi thi CAS thay bucket cu bang bucket rong; them id vao ConcurrentHashMap, khong lock chung.
+ */
+public final class DistinctRing {
+
+    private final long slotMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private record Bucket(long slot, Set<Long> ids) {
+    }
+
+    public DistinctRing(long slotMillis, int slots) {
+        this.slotMillis = slotMillis;
+        this.buckets = new AtomicReferenceArray<>(slots);
+    }
+
+    public void add(long nowMillis, long id) {
+        long slot = nowMillis / slotMillis;
+        int index = (int) (slot % buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.slot() == slot) {
+                bucket.ids().add(id);
+                return;
+            }
+            if (bucket != null && bucket.slot() > slot) {
+                // thread cham voi thoi diem cu, khe da bi ghi de
+                return;
+            }
+            Bucket fresh = new Bucket(slot, ConcurrentHashMap.newKeySet());
+            fresh.ids().add(id);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * So id phan biet trong lastSlots khe gan nhat (tinh ca khe hien tai).
+     */
+    public int countDistinct(long nowMillis, int lastSlots) {
+        long currentSlot = nowMillis / slotMillis;
+        int n = Math.min(lastSlots, buckets.length());
+        Set<Long> union = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            Bucket bucket = buckets.get((int) ((currentSlot - i) % buckets.length()));
+            if (bucket != null && bucket.slot() == currentSlot - i) {
+                union.addAll(bucket.ids());
+            }
+        }
+        return union.size();
+    }
+
+    /**
+     * So id phan biet cua tung khe, phan tu cuoi la khe hien tai.
+     */
+    public long[] series(long nowMillis, int points) {
+        int n = Math.min(points, buckets.length());
+        long currentSlot = nowMillis / slotMillis;
+        long[] result = new long[n];
+        for (int i = 0; i < n; i++) {
+            long slot = currentSlot - (n - 1 - i);
+            Bucket bucket = buckets.get((int) (slot % buckets.length()));
+            result[i] = bucket != null && bucket.slot() == slot ? bucket.ids().size() : 0;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package com.service.main.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring cac LatencyHistogram theo khe thoi gian (mac dinh 1 phut), de xem percentile cua N phut gan nhat
+ * hoac tung phut. Sang khe moi thi CAS thay histogram cu, ghi khong lock.
+ */
+public final class HistogramRing {
+
+    private final long slotMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private record Bucket(long slot, LatencyHistogram histogram) {
+    }
+
+    /**
+     * Ket qua gop cua nhieu khe. Don vi micro giay.
+     */
+    public record Summary(long count, long p50, long p90, long p99, long max) {
+        static final Summary EMPTY = new Summary(0, 0, 0, 0, 0);
+    }
+
+    public HistogramRing(long slotMillis, int slots) {
+        this.slotMillis = slotMillis;
+        this.buckets = new AtomicReferenceArray<>(slots);
+    }
+
+    public void record(long nowMillis, long micros) {
+        long slot = nowMillis / slotMillis;
+        int index = (int) (slot % buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.slot() == slot) {
+                bucket.histogram().record(micros);
+                return;
+            }
+            if (bucket != null && bucket.slot() > slot) {
+                return;
+            }
+            Bucket fresh = new Bucket(slot, new LatencyHistogram());
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                fresh.histogram().record(micros);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gop lastSlots khe gan nhat (tinh ca khe hien tai).
+     */
+    public Summary summarize(long nowMillis, int lastSlots) {
+        long currentSlot = nowMillis / slotMillis;
+        return summarize(currentSlot - Math.min(lastSlots, buckets.length()) + 1, currentSlot);
+    }
+
+    /**
+     * Summary cua tung khe, phan tu cuoi la khe hien tai.
+     */
+    public Summary[] series(long nowMillis, int points) {
+        int n = Math.min(points, buckets.length());
+        long currentSlot = nowMillis / slotMillis;
+        Summary[] result = new Summary[n];
+        for (int i = 0; i < n; i++) {
+            long slot = currentSlot - (n - 1 - i);
+            result[i] = summarize(slot, slot);
+        }
+        return result;
+    }
+
+    private Summary summarize(long fromSlot, long toSlot) {
+        long[] counts = LatencyHistogram.newCounts();
+        boolean any = false;
+        for (long slot = fromSlot; slot <= toSlot; slot++) {
+            Bucket bucket = buckets.get((int) (slot % buckets.length()));
+            if (bucket != null && bucket.slot() == slot) {
+                bucket.histogram().addTo(counts);
+                any = true;
+            }
+        }
+        if (!any) {
+            return Summary.EMPTY;
+        }
+        long total = 0;
+        int maxIndex = -1;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i];
+            if (counts[i] > 0) {
+                maxIndex = i;
+            }
+        }
+        if (total == 0) {
+            return Summary.EMPTY;
+        }
+        return new Summary(total,
+                LatencyHistogram.percentile(counts, total, 50),
+                LatencyHistogram.percentile(counts, total, 90),
+                LatencyHistogram.percentile(counts, total, 99),
+                LatencyHistogram.highestValueOf(maxIndex));
+    }
+}
@@ -0,0 +1,150 @@
+package com.service.main.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Quan ly partition theo thang cua bid_history (xem V4__partition_bid_history.sql).
+ * - Tao truoc partition cho thang hien tai va premake-months thang tiep theo.
+ * - Row roi vao bid_history_default (du lieu cu luc migrate, hoac thang chua co partition) duoc
+ *   chuyen sang partition cua thang do: tao bang rieng, chuyen row, roi ATTACH trong 1 transaction.
+ * - Partition cu hon retention-months bi DETACH: bang van con (de archive/xoa tay) nhung query
+ *   tren bid_history khong con quet toi.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BidHistoryPartitionManager {
+
+    private static final String PARENT = "bid_history";
+    private static final String DEFAULT_PARTITION = "bid_history_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("bid_history_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${bid-history.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    // 0 = khong detach
+    @Value("${bid-history.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @PostConstruct
+    public void init() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${bid-history.partitions.cron:0 0 3 * * *}")
+    public synchronized void maintain() {
+        if (!isPartitioned()) {
+            log.warn("{} is not partitioned, skipping partition maintenance", PARENT);
+            return;
+        }
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (YearMonth month : findMonthsInDefaultPartition()) {
+            ensurePartition(month);
+        }
+        for (int i = 0; i <= premakeMonths; i++) {
+            ensurePartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            detachOlderThan(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE relname = ? AND relnamespace = current_schema()::regnamespace",
+                String.class, PARENT);
+        return kinds.contains("p");
+    }
+
+    private List<YearMonth> findMonthsInDefaultPartition() {
+        return jdbcTemplate.queryForList("""
+                        SELECT DISTINCT to_char(created_at AT TIME ZONE 'UTC', 'YYYYMM')
+                        FROM bid_history_default
+                        """, String.class)
+                .stream()
+                .map(value -> YearMonth.parse(value, SUFFIX))
+                .sorted()
+                .toList();
+    }
+
+    private void ensurePartition(YearMonth month) {
+        String name = partitionName(month);
+        if (tableExists(name)) {
+            return;
+        }
+
+        Timestamp from = Timestamp.from(month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        Timestamp to = Timestamp.from(month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        String bounds = "FOR VALUES FROM ('" + from.toInstant() + "') TO ('" + to.toInstant() + "')";
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // tao partition truc tiep se loi neu DEFAULT dang chua row cua thang nay
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                int moved = jdbcTemplate.update("""
+                        WITH moved AS (
+                            DELETE FROM bid_history_default WHERE created_at >= ? AND created_at < ? RETURNING *
+                        )
+                        INSERT INTO %s SELECT * FROM moved
+                        """.formatted(name), from, to);
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name + " " + bounds);
+                log.info("Created partition {} ({} rows moved from {})", name, moved, DEFAULT_PARTITION);
+            });
+        } catch (DataAccessException e) {
+            log.error("Failed to create partition {}", name, e);
+        }
+    }
+
+    private void detachOlderThan(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace
+                """, String.class, PARENT);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches() || !YearMonth.parse(matcher.group(1), SUFFIX).isBefore(oldestKept)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition);
+                log.info("Detached partition {} (older than {})", partition, oldestKept);
+            } catch (DataAccessException e) {
+                log.error("Failed to detach partition {}", partition, e);
+            }
+        }
+    }
+
+    private boolean tableExists(String name) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT + "_p" + month.format(SUFFIX);
+    }
+}
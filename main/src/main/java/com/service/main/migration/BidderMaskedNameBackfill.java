@@ -0,0 +1,81 @@
+package com.service.main.migration;
+
+import com.service.main.cache.BidderNameCache;
+import com.service.main.config.SystemAuthentication;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dien bid_history.bidder_masked_name cho cac bid co tu truoc V5 (hoac luc ghi bid user service loi).
+ * Moi vong lay batch-size bidder chua co ten qua index partial, lay ten bang 1 lan goi batch,
+ * roi update theo bidder. Update co dieu kien IS NULL nen nhieu instance chay cung luc van dung.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BidderMaskedNameBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BidderNameCache bidderNameCache;
+
+    @Value("${bid-history.masked-name-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bid-history.masked-name-backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${bid-history.masked-name-backfill.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${bid-history.masked-name-backfill.interval-ms:60000}",
+            initialDelayString = "${bid-history.masked-name-backfill.interval-ms:60000}")
+    public void run() {
+        if (enabled) {
+            SystemAuthentication.run(this::backfill);
+        }
+    }
+
+    private void backfill() {
+        long updated = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<Long> bidderIds = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT bidder_id FROM bid_history WHERE bidder_masked_name IS NULL LIMIT ?",
+                    Long.class, batchSize);
+            if (bidderIds.isEmpty()) {
+                break;
+            }
+
+            Map<Long, String> names = bidderNameCache.getMaskedNames(bidderIds);
+            if (names.isEmpty()) {
+                // user service khong tra ve gi (co the dang loi): thu lai lan chay sau
+                log.warn("Masked name backfill got no users for {} bidders, retrying later", bidderIds.size());
+                break;
+            }
+
+            List<Object[]> args = new ArrayList<>(bidderIds.size());
+            for (Long bidderId : bidderIds) {
+                // user khong con ton tai: "" de khong quet lai mai
+                args.add(new Object[]{names.getOrDefault(bidderId, ""), bidderId});
+            }
+            for (int count : jdbcTemplate.batchUpdate(
+                    "UPDATE bid_history SET bidder_masked_name = ? WHERE bidder_id = ? AND bidder_masked_name IS NULL",
+                    args)) {
+                updated += Math.max(count, 0);
+            }
+            if (bidderIds.size() < batchSize) {
+                break;
+            }
+        }
+        if (updated > 0) {
+            log.info("Backfilled masked bidder names for {} bids", updated);
+        }
+    }
+}
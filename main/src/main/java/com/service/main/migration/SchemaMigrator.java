@@ -0,0 +1,166 @@
+package com.service.main.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Chay cac file db/migration/V{version}__{mo_ta}.sql chua apply, theo thu tu version, moi file 1 transaction.
+ * Version da chay luu trong bang schema_migrations kem checksum; file da apply ma bi sua thi dung startup
+ * (migration da chay khong duoc sua, phai them version moi).
+ * pg_advisory_lock giu cho nhieu instance start cung luc chi 1 instance chay migration.
+ */
+@Slf4j
+public class SchemaMigrator implements InitializingBean {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final long LOCK_KEY = 0x6d69677261746532L;
+
+    private final DataSource dataSource;
+    private final String location;
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    record Migration(int version, String description, Resource resource, long checksum) {
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        migrate();
+    }
+
+    public void migrate() throws SQLException, IOException {
+        List<Migration> migrations = loadMigrations();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            execute(connection, "SELECT pg_advisory_lock(" + LOCK_KEY + ")");
+            try {
+                execute(connection, """
+                        CREATE TABLE IF NOT EXISTS schema_migrations (
+                            version INTEGER PRIMARY KEY,
+                            description VARCHAR(255) NOT NULL,
+                            checksum BIGINT NOT NULL,
+                            applied_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                            execution_ms BIGINT NOT NULL
+                        )""");
+                Map<Integer, Long> applied = loadApplied(connection);
+
+                int count = 0;
+                for (Migration migration : migrations) {
+                    Long appliedChecksum = applied.get(migration.version());
+                    if (appliedChecksum == null) {
+                        apply(connection, migration);
+                        count++;
+                    } else if (appliedChecksum != migration.checksum()) {
+                        throw new IllegalStateException("Migration V" + migration.version()
+                                + " was modified after being applied (" + migration.resource().getFilename() + ")");
+                    }
+                }
+                log.info("Schema is up to date: {} migration(s) applied, {} already present",
+                        count, migrations.size() - count);
+            } finally {
+                execute(connection, "SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long startedAt = System.currentTimeMillis();
+        log.info("Applying migration V{} {}", migration.version(), migration.description());
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.resource(), StandardCharsets.UTF_8));
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO schema_migrations (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                ps.setInt(1, migration.version());
+                ps.setString(2, migration.description());
+                ps.setLong(3, migration.checksum());
+                ps.setLong(4, System.currentTimeMillis() - startedAt);
+                ps.executeUpdate();
+            }
+            connection.commit();
+        } catch (RuntimeException | SQLException e) {
+            connection.rollback();
+            throw new IllegalStateException("Migration V" + migration.version() + " failed", e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private List<Migration> loadMigrations() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql");
+        List<Migration> migrations = new ArrayList<>();
+        Map<Integer, String> seen = new HashMap<>();
+        for (Resource resource : resources) {
+            Matcher matcher = FILE_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            String previous = seen.put(version, resource.getFilename());
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate migration version " + version + ": "
+                        + previous + ", " + resource.getFilename());
+            }
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), resource, checksum(resource)));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        return migrations;
+    }
+
+    private static Map<Integer, Long> loadApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private static long checksum(Resource resource) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = resource.getInputStream()) {
+            // bo qua \r de file checkout tren Windows khong bi coi la da sua
+            for (byte b : in.readAllBytes()) {
+                if (b != '\r') {
+                    crc.update(b);
+                }
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface AnswerRepository extends JpaRepository<Answer, Long> {
@@ -12,6 +13,9 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
     @Query("SELECT a FROM Answer a WHERE a.question.id = :questionId ORDER BY a.createdAt ASC")
     List<Answer> findByQuestionId(@Param("questionId") Long questionId);
 
+    @Query("SELECT a FROM Answer a WHERE a.question.id IN :questionIds ORDER BY a.createdAt ASC, a.id ASC")
+    List<Answer> findByQuestionIdIn(@Param("questionIds") Collection<Long> questionIds);
+
     @Query("SELECT COUNT(a) FROM Answer a WHERE a.question.id = :questionId")
     long countByQuestionId(@Param("questionId") Long questionId);
 }
@@ -9,6 +9,27 @@ import org.springframework.data.repository.query.Param;
 
 public interface BidHistoryRepository extends JpaRepository<BidHistory, Long> {
     
-    @Query("SELECT bh FROM BidHistory bh WHERE bh.productId = :productId ORDER BY bh.createdAt DESC")
+    // bid_history partition theo thang cua created_at. Bid chi co the xay ra sau khi product duoc tao,
+    // nen dieu kien created_at >= product.created_at cho Postgres loai bo partition cu luc thuc thi.
+    @Query(value = """
+            SELECT bh FROM BidHistory bh
+            WHERE bh.productId = :productId
+              AND bh.createdAt >= (SELECT p.createdAt FROM Product p WHERE p.id = :productId)
+            ORDER BY bh.createdAt DESC
+            """,
+            countQuery = """
+            SELECT COUNT(bh) FROM BidHistory bh
+            WHERE bh.productId = :productId
+              AND bh.createdAt >= (SELECT p.createdAt FROM Product p WHERE p.id = :productId)
+            """)
     Page<BidHistory> findByProductId(@Param("productId") Long productId, Pageable pageable);
+
+    // bid_history chi insert, nen count + max id du de nhan biet co bid moi
+    @Query(value = """
+            SELECT count(*) || '-' || coalesce(max(id), 0)
+            FROM bid_history
+            WHERE product_id = :productId
+              AND created_at >= (SELECT p.created_at FROM product p WHERE p.id = :productId)
+            """, nativeQuery = true)
+    String findETagByProductId(@Param("productId") Long productId);
 }
\ No newline at end of file
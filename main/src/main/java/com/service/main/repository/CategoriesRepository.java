@@ -67,4 +67,10 @@ public interface CategoriesRepository extends JpaRepository<Categories, Integer>
           LIMIT :limit
       """, nativeQuery = true)
   java.util.List<Object[]> findTopCategoriesByProductCount(@Param("limit") int limit);
+
+  @Query(value = """
+          SELECT md5(coalesce(string_agg(id || ':' || name || ':' || coalesce(CAST(parent_id AS text), ''), ',' ORDER BY id), ''))
+          FROM categories
+      """, nativeQuery = true)
+  String findETag();
 }
@@ -0,0 +1,79 @@
+package com.service.main.repository;
+
+import com.service.main.entity.CategoryStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface CategoryStatsRepository extends JpaRepository<CategoryStats, Integer> {
+
+    // Full aggregate, chi dung khi rebuild (startup lan dau hoac lenh sua chua)
+    @Query(value = """
+            SELECT pc.category_id,
+                   COUNT(*) AS product_count,
+                   COUNT(*) FILTER (WHERE p.end_at > :sweptUntil) AS active_auction_count
+            FROM product_category pc
+            JOIN product p ON p.id = pc.product_id
+            GROUP BY pc.category_id
+            """, nativeQuery = true)
+    List<Object[]> aggregateCategoryCounts(@Param("sweptUntil") OffsetDateTime sweptUntil);
+
+    // Cong don thay doi cua 1 instance, khong ghi de so dem cua instance khac
+    @Modifying
+    @Query(value = """
+            INSERT INTO category_stats (category_id, product_count, active_auction_count, swept_until, updated_at)
+            VALUES (:categoryId, GREATEST(0, :productDelta), GREATEST(0, :activeDelta), :sweptUntil, now())
+            ON CONFLICT (category_id) DO UPDATE SET
+                product_count = GREATEST(0, category_stats.product_count + :productDelta),
+                active_auction_count = GREATEST(0, category_stats.active_auction_count + :activeDelta),
+                updated_at = now()
+            """, nativeQuery = true)
+    void addDelta(
+            @Param("categoryId") Integer categoryId,
+            @Param("productDelta") long productDelta,
+            @Param("activeDelta") long activeDelta,
+            @Param("sweptUntil") OffsetDateTime sweptUntil);
+
+    // Lock theo transaction: chi 1 instance sweep / rebuild tai 1 thoi diem
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLock(@Param("key") long key);
+
+    // pg_advisory_xact_lock tra ve void, boc trong count(*) de co gia tri tra ve
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    long lock(@Param("key") long key);
+
+    @Query("SELECT MIN(cs.sweptUntil) FROM CategoryStats cs")
+    OffsetDateTime findMinSweptUntil();
+
+    // Tru active count cho cac product ket thuc trong (from, to]
+    @Modifying
+    @Query(value = """
+            UPDATE category_stats cs
+            SET active_auction_count = GREATEST(0, cs.active_auction_count - ended.product_count),
+                updated_at = now()
+            FROM (
+                SELECT pc.category_id, COUNT(*) AS product_count
+                FROM product_category pc
+                JOIN product p ON p.id = pc.product_id
+                WHERE p.end_at > :from AND p.end_at <= :to
+                GROUP BY pc.category_id
+            ) ended
+            WHERE cs.category_id = ended.category_id
+            """, nativeQuery = true)
+    void decrementEndedBetween(
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to);
+
+    @Modifying
+    @Query(value = "UPDATE category_stats SET swept_until = :to WHERE swept_until < :to", nativeQuery = true)
+    void advanceSweptUntil(@Param("to") OffsetDateTime to);
+
+    // Product nao trong danh sach con ton tai (trong snapshot cua transaction hien tai)
+    @Query(value = "SELECT p.id FROM product p WHERE p.id IN (:ids)", nativeQuery = true)
+    List<Long> findExistingProductIds(@Param("ids") Collection<Long> ids);
+}
@@ -2,8 +2,16 @@ package com.service.main.repository;
 
 import com.service.main.entity.ProductCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductCategoryRepository extends JpaRepository<ProductCategory, Long> {
-}
+import java.util.Collection;
+import java.util.List;
 
+public interface ProductCategoryRepository extends JpaRepository<ProductCategory, Long> {
 
+    // [productId, categoryId] cua ca trang trong 1 query, theo thu tu gan category cua tung product
+    @Query("SELECT pc.product.id, pc.category.id FROM ProductCategory pc " +
+            "WHERE pc.product.id IN :productIds ORDER BY pc.id")
+    List<Object[]> findCategoryIdsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+}
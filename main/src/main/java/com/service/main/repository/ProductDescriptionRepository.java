@@ -3,7 +3,7 @@ package com.service.main.repository;
 import com.service.main.entity.ProductDescription;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ProductDescriptionRepository extends JpaRepository<ProductDescription, Integer> {
+public interface ProductDescriptionRepository extends JpaRepository<ProductDescription, Long> {
 }
 
 
@@ -3,7 +3,7 @@ package com.service.main.repository;
 import com.service.main.entity.ProductPicture;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ProductPictureRepository extends JpaRepository<ProductPicture, Integer> {
+public interface ProductPictureRepository extends JpaRepository<ProductPicture, Long> {
 }
 
 
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,27 +51,43 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             "WHERE pc.category.id = :categoryId")
     Page<Product> findByCategoryId(@Param("categoryId") Integer categoryId, Pageable pageable);
 
-    // Dashboard queries
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.endAt > :now")
-    long countActiveAuctions(@Param("now") OffsetDateTime now);
-
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.endAt <= :now")
-    long countEndedAuctions(@Param("now") OffsetDateTime now);
-
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.endAt > :now AND p.endAt <= :endingSoon")
-    long countEndingSoonAuctions(@Param("now") OffsetDateTime now, @Param("endingSoon") OffsetDateTime endingSoon);
-
-    @Query("SELECT COALESCE(SUM(p.bidCount), 0) FROM Product p")
-    long sumTotalBids();
-
-    @Query("SELECT MAX(p.currentPrice) FROM Product p WHERE p.endAt > :now")
-    java.math.BigDecimal findHighestCurrentPrice(@Param("now") OffsetDateTime now);
-
-    @Query("SELECT AVG(p.startPrice) FROM Product p")
-    java.math.BigDecimal findAverageStartPrice();
+    // categoryIds la tap id cua ca cay con (lay tu CategoryTreeCache), dung EXISTS de khong bi trung product
+    // khi product thuoc nhieu category trong cung cay
+    @Query("SELECT p FROM Product p " +
+            "WHERE EXISTS (SELECT 1 FROM ProductCategory pc " +
+            "WHERE pc.product = p AND pc.category.id IN :categoryIds)")
+    Page<Product> findByCategoryIdIn(@Param("categoryIds") Collection<Integer> categoryIds, Pageable pageable);
+
+    // ETag cho trang chi tiet: hash tren cac cot cua product, so luong/max id cua description/picture
+    // va id/ten/parent cua category, de tra ve 304 ma khong can load entity graph va goi user service
+    @Query(value = """
+            SELECT md5(concat_ws('|',
+                p.id, p.product_name, p.thumbnail_url, p.start_price, p.current_price,
+                p.buy_now_price, p.minimum_bid_step, p.top_bidder_id, p.seller_id,
+                p.auto_extend_enabled, p.bid_count, p.end_at,
+                (SELECT count(*) || ':' || coalesce(max(d.id), 0) FROM product_descriptions d WHERE d.product_id = p.id),
+                (SELECT count(*) || ':' || coalesce(max(pp.id), 0) FROM product_pictures pp WHERE pp.product_id = p.id),
+                (SELECT coalesce(string_agg(c.id || ':' || c.name || ':' || coalesce(CAST(c.parent_id AS text), ''), ',' ORDER BY c.id), '')
+                 FROM product_category pc JOIN categories c ON c.id = pc.category_id WHERE pc.product_id = p.id)))
+            FROM product p
+            WHERE p.id = :productId
+            """, nativeQuery = true)
+    String findETagById(@Param("productId") Long productId);
+
+    // Cac cot cua auction dang active de build ActiveAuctionIndex
+    @Query("""
+            SELECT p.id, p.currentPrice, p.startPrice, p.buyNowPrice, p.bidCount, p.endAt, p.createdAt
+            FROM Product p
+            WHERE p.endAt > :now
+            """)
+    List<Object[]> findActiveAuctionColumns(@Param("now") OffsetDateTime now);
 
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.createdAt >= :startDate")
-    long countProductsCreatedAfter(@Param("startDate") OffsetDateTime startDate);
+    @Query("""
+            SELECT pc.product.id, pc.category.id
+            FROM ProductCategory pc
+            WHERE pc.product.endAt > :now
+            """)
+    List<Object[]> findActiveAuctionCategories(@Param("now") OffsetDateTime now);
 
     List<Product> findTop10ByOrderByCreatedAtDesc();
 
@@ -119,13 +136,23 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
         Pageable pageable
     );
 
-    // Count products with bids
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.bidCount > 0")
-    long countProductsWithBids();
-
-    // Count products without bids
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.bidCount = 0")
-    long countProductsWithoutBids();
+    // Id auction da ket thuc cua seller, gom ca auction da chuyen sang archive (archived_product)
+    @Query(value = """
+        SELECT e.id FROM (
+            SELECT p.id, p.created_at FROM product p WHERE p.end_at <= :now AND p.seller_id = :sellerId
+            UNION ALL
+            SELECT a.product_id, a.created_at FROM archived_product a WHERE a.seller_id = :sellerId
+        ) e
+        ORDER BY e.created_at DESC, e.id DESC
+    """, countQuery = """
+        SELECT (SELECT count(*) FROM product p WHERE p.end_at <= :now AND p.seller_id = :sellerId)
+             + (SELECT count(*) FROM archived_product a WHERE a.seller_id = :sellerId)
+    """, nativeQuery = true)
+    Page<Long> findEndedIdsBySellerIdIncludingArchived(
+        @Param("now") OffsetDateTime now,
+        @Param("sellerId") Long sellerId,
+        Pageable pageable
+    );
 
     // Find products by seller with pagination
     Page<Product> findBySellerIdOrderByCreatedAtDesc(Long sellerId, Pageable pageable);
@@ -10,9 +10,9 @@ import org.springframework.data.domain.Pageable;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
 
-    @Query("SELECT DISTINCT q FROM Question q " +
-            "LEFT JOIN FETCH q.answers " +  // FETCH answers ngay từ đầu
-            "WHERE q.productId = :productId " +
-            "ORDER BY q.createdAt DESC")
-    Page<Question> findByProductIdWithAnswers(@Param("productId") Long productId, Pageable pageable);
+    // khong JOIN FETCH answers: ket hop voi Pageable thi Hibernate phai load het roi moi cat trang trong memory.
+    // answers cua trang duoc lay rieng bang AnswerRepository.findByQuestionIdIn
+    @Query(value = "SELECT q FROM Question q WHERE q.productId = :productId ORDER BY q.createdAt DESC, q.id DESC",
+            countQuery = "SELECT COUNT(q) FROM Question q WHERE q.productId = :productId")
+    Page<Question> findPageByProductId(@Param("productId") Long productId, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,562 @@
+package com.service.main.search;
+
+import com.service.main.cache.CategoryTreeCache;
+import com.service.main.config.AfterCommit;
+import com.service.main.entity.Product;
+import com.service.main.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Index dang cot (columnar) trong memory cua cac auction dang active.
+ * Moi thuoc tinh la 1 mang primitive, category la BitSet theo row, nen 1 lan duyet co the
+ * vua loc theo nhieu dieu kien vua dem facet, khong phai sinh query JPQL cho tung to hop filter.
+ *
+ * Snapshot duoc build lai dinh ky; gia, so bid va end_at cua product duoc patch sau khi transaction bid commit.
+ * Ket qua lon thi chia cho ForkJoinPool de dung het cac core. Khoa sort cua moi row match duoc chep ra
+ * luc loc, roi lay trang bang heap top-K tren mang primitive, khong sort toan bo ket qua.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveAuctionIndex {
+
+    public static final long[] ENDING_WITHIN_HOURS = {1, 24, 24 * 7};
+    public static final int[] BID_COUNT_BUCKETS = {0, 1, 6, 21}; // 0, 1-5, 6-20, 21+
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+
+    @Value("${auction-index.parallel-threshold:20000}")
+    private int parallelThreshold;
+
+    private volatile Snapshot snapshot = Snapshot.empty();
+
+    // Ghi vao snapshot (onProductChanged va luc rebuild doi snapshot) deu giu lock nay
+    private final Object writeLock = new Object();
+    // Thay doi den trong luc rebuild dang query, duoc ap lai len snapshot moi; null khi khong rebuild
+    private Map<Long, Change> changesDuringRebuild;
+
+    private record Change(double price, int bidCount, long endAt) {
+    }
+
+    public enum SortField { END_AT, PRICE, BID_COUNT, CREATED_AT }
+
+    public record Criteria(
+            Integer categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer endingWithinHours,
+            Boolean hasBuyNow,
+            Integer minBidCount,
+            Integer maxBidCount,
+            SortField sortField,
+            boolean ascending,
+            int page,
+            int size
+    ) {
+    }
+
+    public record Result(
+            List<Long> productIds,
+            int totalElements,
+            Map<Integer, Integer> categoryCounts,
+            int withBuyNow,
+            int withoutBuyNow,
+            int[] endingWithinCounts,
+            int[] bidCountBucketCounts,
+            Double minPrice,
+            Double maxPrice,
+            OffsetDateTime indexedAt
+    ) {
+    }
+
+    private static final class Snapshot {
+        final int size;
+        final long[] ids;
+        final double[] price;
+        final long[] endAt; // epoch millis
+        final long[] createdAt;
+        final int[] bidCount;
+        final BitSet hasBuyNow;
+        // CSR: category (dang index dense) cua row r nam trong rowCategories[categoryOffsets[r]..categoryOffsets[r+1])
+        final int[] categoryOffsets;
+        final int[] rowCategories;
+        final int[] categoryIdByIndex;
+        final Map<Integer, BitSet> rowsByCategory;
+        final Map<Long, Integer> rowById;
+        final OffsetDateTime builtAt;
+
+        Snapshot(int size, long[] ids, double[] price, long[] endAt, long[] createdAt, int[] bidCount,
+                 BitSet hasBuyNow, int[] categoryOffsets, int[] rowCategories, int[] categoryIdByIndex,
+                 Map<Integer, BitSet> rowsByCategory, Map<Long, Integer> rowById, OffsetDateTime builtAt) {
+            this.size = size;
+            this.ids = ids;
+            this.price = price;
+            this.endAt = endAt;
+            this.createdAt = createdAt;
+            this.bidCount = bidCount;
+            this.hasBuyNow = hasBuyNow;
+            this.categoryOffsets = categoryOffsets;
+            this.rowCategories = rowCategories;
+            this.categoryIdByIndex = categoryIdByIndex;
+            this.rowsByCategory = rowsByCategory;
+            this.rowById = rowById;
+            this.builtAt = builtAt;
+        }
+
+        static Snapshot empty() {
+            return new Snapshot(0, new long[0], new double[0], new long[0], new long[0], new int[0],
+                    new BitSet(), new int[]{0}, new int[0], new int[0], Map.of(), Map.of(), OffsetDateTime.now());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${auction-index.refresh-interval-ms:30000}")
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            changesDuringRebuild = new HashMap<>();
+        }
+        Snapshot rebuilt;
+        try {
+            rebuilt = load();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                changesDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            // query co the chay truoc khi cac bid nay commit: ap lai, neu khong se mat den lan rebuild sau
+            changesDuringRebuild.forEach((productId, change) -> apply(rebuilt, productId, change));
+            changesDuringRebuild = null;
+            this.snapshot = rebuilt;
+        }
+        log.debug("Active auction index rebuilt with {} products", rebuilt.size);
+    }
+
+    private Snapshot load() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Object[]> rows = productRepository.findActiveAuctionColumns(now);
+        List<Object[]> links = productRepository.findActiveAuctionCategories(now);
+
+        int n = rows.size();
+        long[] ids = new long[n];
+        double[] price = new double[n];
+        long[] endAt = new long[n];
+        long[] createdAt = new long[n];
+        int[] bidCount = new int[n];
+        BitSet hasBuyNow = new BitSet(n);
+        Map<Long, Integer> rowById = new HashMap<>(n * 2);
+
+        for (int r = 0; r < n; r++) {
+            Object[] row = rows.get(r);
+            ids[r] = (Long) row[0];
+            BigDecimal current = (BigDecimal) row[1];
+            price[r] = (current != null ? current : (BigDecimal) row[2]).doubleValue();
+            if (row[3] != null) {
+                hasBuyNow.set(r);
+            }
+            bidCount[r] = (Integer) row[4];
+            endAt[r] = ((OffsetDateTime) row[5]).toInstant().toEpochMilli();
+            createdAt[r] = ((OffsetDateTime) row[6]).toInstant().toEpochMilli();
+            rowById.put(ids[r], r);
+        }
+
+        // dem so category moi row truoc, roi moi fill CSR
+        Map<Integer, Integer> categoryIndex = new HashMap<>();
+        int[] categoryOffsets = new int[n + 1];
+        for (Object[] link : links) {
+            Integer r = rowById.get((Long) link[0]);
+            if (r != null) {
+                categoryOffsets[r + 1]++;
+                categoryIndex.putIfAbsent((Integer) link[1], categoryIndex.size());
+            }
+        }
+        for (int r = 0; r < n; r++) {
+            categoryOffsets[r + 1] += categoryOffsets[r];
+        }
+
+        int[] rowCategories = new int[categoryOffsets[n]];
+        int[] fill = Arrays.copyOf(categoryOffsets, n);
+        int[] categoryIdByIndex = new int[categoryIndex.size()];
+        Map<Integer, BitSet> rowsByCategory = new HashMap<>();
+        for (Object[] link : links) {
+            Integer r = rowById.get((Long) link[0]);
+            if (r == null) {
+                continue;
+            }
+            Integer categoryId = (Integer) link[1];
+            int index = categoryIndex.get(categoryId);
+            categoryIdByIndex[index] = categoryId;
+            rowCategories[fill[r]++] = index;
+            rowsByCategory.computeIfAbsent(categoryId, k -> new BitSet(n)).set(r);
+        }
+
+        return new Snapshot(n, ids, price, endAt, createdAt, bidCount, hasBuyNow,
+                categoryOffsets, rowCategories, categoryIdByIndex, rowsByCategory, rowById, now);
+    }
+
+    /**
+     * Cap nhat cac cot hay thay doi (gia, so bid, end_at) khi co bid, khong doi den lan rebuild.
+     * Chi ghi sau commit, nen bid bi rollback khong de lai gia tri trong index. Cac lan ghi xep hang
+     * tren writeLock, va thay doi co so bid thap hon gia tri dang co bi bo qua (callback cua bid cu chay
+     * sau bid moi). Neu dang rebuild thi thay doi duoc ghi lai de ap len snapshot moi.
+     *
+     * Search doc mang khong lock: 1 row co the thay cot nay da cap nhat, cot kia chua. Cac o long/double
+     * khong volatile nen JLS 17.7 cho phep doc bi xe doi tren JVM 32-bit (JVM 64-bit thi doc/ghi nguyen
+     * khoi); search chep khoa sort ra 1 lan nen thu tu sort van nhat quan.
+     */
+    public void onProductChanged(Product product) {
+        Long productId = product.getId();
+        BigDecimal current = product.getCurrentPrice() != null ? product.getCurrentPrice() : product.getStartPrice();
+        Change change = new Change(current.doubleValue(), product.getBidCount(),
+                product.getEndAt().toInstant().toEpochMilli());
+        AfterCommit.run(() -> {
+            synchronized (writeLock) {
+                apply(snapshot, productId, change);
+                if (changesDuringRebuild != null) {
+                    changesDuringRebuild.merge(productId, change,
+                            (previous, next) -> next.bidCount() >= previous.bidCount() ? next : previous);
+                }
+            }
+        });
+    }
+
+    // goi khi dang giu writeLock
+    private static void apply(Snapshot s, Long productId, Change change) {
+        Integer r = s.rowById.get(productId);
+        if (r == null || change.bidCount() < s.bidCount[r]) {
+            return;
+        }
+        s.price[r] = change.price();
+        s.bidCount[r] = change.bidCount();
+        s.endAt[r] = change.endAt();
+    }
+
+    public Result search(Criteria criteria) {
+        Snapshot s = snapshot;
+        long now = System.currentTimeMillis();
+        Filter filter = new Filter(s, criteria, now, categoryMask(s, criteria.categoryId()));
+
+        Partial partial = s.size > parallelThreshold
+                ? ForkJoinPool.commonPool().invoke(new SearchTask(filter, 0, s.size, chunkSize(s.size)))
+                : filter.evaluate(0, s.size);
+
+        List<Long> pageIds = topPage(s, partial, criteria);
+
+        Map<Integer, Integer> categoryCounts = new HashMap<>();
+        for (int i = 0; i < partial.categoryCounts.length; i++) {
+            if (partial.categoryCounts[i] > 0) {
+                categoryCounts.put(s.categoryIdByIndex[i], partial.categoryCounts[i]);
+            }
+        }
+
+        return new Result(
+                pageIds,
+                partial.matchCount,
+                categoryCounts,
+                partial.withBuyNow,
+                partial.matchCount - partial.withBuyNow,
+                partial.endingWithinCounts,
+                partial.bidCountBucketCounts,
+                partial.matchCount > 0 ? partial.minPrice : null,
+                partial.matchCount > 0 ? partial.maxPrice : null,
+                s.builtAt
+        );
+    }
+
+    private BitSet categoryMask(Snapshot s, Integer categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        BitSet mask = new BitSet(s.size);
+        Set<Integer> subtree = categoryTreeCache.getSubtreeIds(categoryId);
+        for (Integer id : subtree) {
+            BitSet rows = s.rowsByCategory.get(id);
+            if (rows != null) {
+                mask.or(rows);
+            }
+        }
+        return mask;
+    }
+
+    private int chunkSize(int size) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(4096, size / (parallelism * 4));
+    }
+
+    /**
+     * Trang thu page theo (khoa sort, id): giu K = (page + 1) * size row tot nhat trong 1 max-heap
+     * (goc la row te nhat trong K), O(n log K) va khong box row nao.
+     */
+    private static List<Long> topPage(Snapshot s, Partial partial, Criteria criteria) {
+        long from = (long) criteria.page() * criteria.size();
+        int count = partial.matchCount;
+        if (from >= count) {
+            return List.of();
+        }
+        int k = (int) Math.min(count, from + criteria.size());
+        long[] keys = partial.keys;
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = s.ids[partial.matches[i]];
+        }
+
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            if (heapSize < k) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, keys, ids);
+            } else if (before(i, heap[0], keys, ids)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, keys, ids);
+            }
+        }
+
+        // lay goc (te nhat) ra dan, dien tu cuoi len
+        int[] ordered = new int[heapSize];
+        for (int j = heapSize - 1; j >= 0; j--) {
+            ordered[j] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, keys, ids);
+        }
+
+        Long[] page = new Long[k - (int) from];
+        for (int i = (int) from; i < k; i++) {
+            page[i - (int) from] = ids[ordered[i]];
+        }
+        return List.of(page);
+    }
+
+    private static boolean before(int a, int b, long[] keys, long[] ids) {
+        return keys[a] != keys[b] ? keys[a] < keys[b] : ids[a] < ids[b];
+    }
+
+    private static void siftUp(int[] heap, int i, long[] keys, long[] ids) {
+        int item = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(heap[parent], item, keys, ids)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = item;
+    }
+
+    private static void siftDown(int[] heap, int size, long[] keys, long[] ids) {
+        if (size == 0) {
+            return;
+        }
+        int item = heap[0];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && before(heap[child], heap[child + 1], keys, ids)) {
+                child++;
+            }
+            if (!before(item, heap[child], keys, ids)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = item;
+    }
+
+    /**
+     * Khoa sort dang long, so sanh tang dan: double duoc doi bit de giu thu tu, giam dan thi dao bit
+     * (~key, khong tran so nhu -key).
+     */
+    private static long sortKey(SortField field, boolean ascending, double price, long endAt, long createdAt, int bids) {
+        long key = switch (field) {
+            case PRICE -> {
+                long bits = Double.doubleToLongBits(price);
+                yield bits ^ ((bits >> 63) & Long.MAX_VALUE);
+            }
+            case BID_COUNT -> bids;
+            case CREATED_AT -> createdAt;
+            case END_AT -> endAt;
+        };
+        return ascending ? key : ~key;
+    }
+
+    private static final class Filter {
+        final Snapshot s;
+        final BitSet categoryMask;
+        final double minPrice;
+        final double maxPrice;
+        final long now;
+        final long endBefore;
+        final Boolean hasBuyNow;
+        final int minBidCount;
+        final int maxBidCount;
+        final SortField sortField;
+        final boolean ascending;
+
+        Filter(Snapshot s, Criteria c, long now, BitSet categoryMask) {
+            this.s = s;
+            this.categoryMask = categoryMask;
+            this.minPrice = c.minPrice() != null ? c.minPrice().doubleValue() : Double.NEGATIVE_INFINITY;
+            this.maxPrice = c.maxPrice() != null ? c.maxPrice().doubleValue() : Double.POSITIVE_INFINITY;
+            this.now = now;
+            this.endBefore = c.endingWithinHours() != null ? now + c.endingWithinHours() * 3_600_000L : Long.MAX_VALUE;
+            this.hasBuyNow = c.hasBuyNow();
+            this.minBidCount = c.minBidCount() != null ? c.minBidCount() : Integer.MIN_VALUE;
+            this.maxBidCount = c.maxBidCount() != null ? c.maxBidCount() : Integer.MAX_VALUE;
+            this.sortField = c.sortField();
+            this.ascending = c.ascending();
+        }
+
+        Partial evaluate(int from, int to) {
+            Partial p = new Partial(s.categoryIdByIndex.length, to - from);
+            for (int r = from; r < to; r++) {
+                if (categoryMask != null && !categoryMask.get(r)) {
+                    continue;
+                }
+                long end = s.endAt[r];
+                // snapshot co the chua rebuild sau khi auction ket thuc
+                if (end <= now || end > endBefore) {
+                    continue;
+                }
+                double price = s.price[r];
+                if (price < minPrice || price > maxPrice) {
+                    continue;
+                }
+                int bids = s.bidCount[r];
+                if (bids < minBidCount || bids > maxBidCount) {
+                    continue;
+                }
+                boolean buyNow = s.hasBuyNow.get(r);
+                if (hasBuyNow != null && hasBuyNow != buyNow) {
+                    continue;
+                }
+                // gia tri da doc o tren, onProductChanged ghi them sau do cung khong lam doi khoa sort
+                p.add(r, s, sortKey(sortField, ascending, price, end, s.createdAt[r], bids),
+                        price, end - now, bids, buyNow);
+            }
+            return p;
+        }
+    }
+
+    private static final class Partial {
+        int[] matches;
+        long[] keys;
+        int matchCount;
+        final int[] categoryCounts;
+        int withBuyNow;
+        final int[] endingWithinCounts = new int[ENDING_WITHIN_HOURS.length];
+        final int[] bidCountBucketCounts = new int[BID_COUNT_BUCKETS.length];
+        double minPrice = Double.POSITIVE_INFINITY;
+        double maxPrice = Double.NEGATIVE_INFINITY;
+
+        Partial(int categoryCount, int capacity) {
+            this.categoryCounts = new int[categoryCount];
+            this.matches = new int[Math.max(16, Math.min(capacity, 1024))];
+            this.keys = new long[matches.length];
+        }
+
+        void add(int r, Snapshot s, long key, double price, long remainingMillis, int bids, boolean buyNow) {
+            if (matchCount == matches.length) {
+                matches = Arrays.copyOf(matches, matches.length * 2);
+                keys = Arrays.copyOf(keys, matches.length);
+            }
+            keys[matchCount] = key;
+            matches[matchCount++] = r;
+
+            for (int i = s.categoryOffsets[r]; i < s.categoryOffsets[r + 1]; i++) {
+                categoryCounts[s.rowCategories[i]]++;
+            }
+            if (buyNow) {
+                withBuyNow++;
+            }
+            for (int i = 0; i < ENDING_WITHIN_HOURS.length; i++) {
+                if (remainingMillis <= ENDING_WITHIN_HOURS[i] * 3_600_000L) {
+                    endingWithinCounts[i]++;
+                }
+            }
+            for (int i = BID_COUNT_BUCKETS.length - 1; i >= 0; i--) {
+                if (bids >= BID_COUNT_BUCKETS[i]) {
+                    bidCountBucketCounts[i]++;
+                    break;
+                }
+            }
+            minPrice = Math.min(minPrice, price);
+            maxPrice = Math.max(maxPrice, price);
+        }
+
+        // other luon la khoang row nam sau, nen noi matches van giu thu tu row
+        Partial merge(Partial other) {
+            if (matchCount + other.matchCount > matches.length) {
+                matches = Arrays.copyOf(matches, matchCount + other.matchCount);
+                keys = Arrays.copyOf(keys, matches.length);
+            }
+            System.arraycopy(other.matches, 0, matches, matchCount, other.matchCount);
+            System.arraycopy(other.keys, 0, keys, matchCount, other.matchCount);
+            matchCount += other.matchCount;
+            for (int i = 0; i < categoryCounts.length; i++) {
+                categoryCounts[i] += other.categoryCounts[i];
+            }
+            withBuyNow += other.withBuyNow;
+            for (int i = 0; i < endingWithinCounts.length; i++) {
+                endingWithinCounts[i] += other.endingWithinCounts[i];
+            }
+            for (int i = 0; i < bidCountBucketCounts.length; i++) {
+                bidCountBucketCounts[i] += other.bidCountBucketCounts[i];
+            }
+            minPrice = Math.min(minPrice, other.minPrice);
+            maxPrice = Math.max(maxPrice, other.maxPrice);
+            return this;
+        }
+    }
+
+    private static final class SearchTask extends RecursiveTask<Partial> {
+        private final Filter filter;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        SearchTask(Filter filter, int from, int to, int chunkSize) {
+            this.filter = filter;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= chunkSize) {
+                return filter.evaluate(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            SearchTask left = new SearchTask(filter, from, mid, chunkSize);
+            SearchTask right = new SearchTask(filter, mid, to, chunkSize);
+            left.fork();
+            Partial rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.service.main.service;
 
 import com.service.main.dto.AdminDashboardStats;
+import com.service.main.dto.AuctionMetricsResponse;
 import com.service.main.dto.RecentProductDTO;
 
 import java.util.List;
@@ -16,4 +17,14 @@ public interface AdminDashboardService {
      * Get recent products
      */
     List<RecentProductDTO> getRecentProducts(int limit);
+
+    /**
+     * Rebuild in-memory category counters from product_category
+     */
+    void rebuildCategoryStats();
+
+    /**
+     * Live activity series (bids, new products, active bidders, latency) from in-memory metrics
+     */
+    AuctionMetricsResponse getAuctionMetrics(String resolution, int points);
 }
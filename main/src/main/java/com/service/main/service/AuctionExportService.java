@@ -0,0 +1,21 @@
+package com.service.main.service;
+
+import com.service.main.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface AuctionExportService {
+
+    /**
+     * Goi truoc khi bat dau stream, de loi quyen / khong tim thay van tra ve JSON binh thuong.
+     */
+    void checkCanExportBidHistory(Long productId, Long currentUserId, boolean admin);
+
+    void writeBidHistory(Long productId, boolean maskBidders, ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Ket qua cac auction da ket thuc cua seller (sellerId null = tat ca seller).
+     */
+    void writeAuctionResults(Long sellerId, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.service.main.service;
+
+import com.service.main.dto.FacetedSearchResponse;
+
+import java.math.BigDecimal;
+
+public interface AuctionSearchService {
+
+    /**
+     * Search active auctions with arbitrary filters and return facet counts
+     */
+    FacetedSearchResponse search(
+            Integer categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer endingWithinHours,
+            Boolean hasBuyNow,
+            Integer minBidCount,
+            Integer maxBidCount,
+            String sortBy,
+            String sortDir,
+            int page,
+            int size
+    );
+}
@@ -1,11 +1,18 @@
 package com.service.main.service;
 
 import com.service.main.dto.BidHistoryResponse;
+import com.service.main.dto.PriceSeriesResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface BidHistoryService {
     Page<BidHistoryResponse> getBidHistoriesByProductId(Long productId, Pageable pageable);
+    String getBidHistoriesETag(Long productId, Pageable pageable);
+
+    /**
+     * Duong gia theo thoi gian, gom toi da buckets diem (min/max/open/close moi bucket) cho chart.
+     */
+    PriceSeriesResponse getPriceSeries(Long productId, int buckets);
 }
 
 
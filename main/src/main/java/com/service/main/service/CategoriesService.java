@@ -17,6 +17,8 @@ public interface CategoriesService {
 
     List<categoriesResponse> getAllCategories();
 
+    String getCategoriesETag();
+
     Page<categoriesResponse> searchCategories(String name, int page, int size);
 
     Page<categoriesResponse> searchParentCategories(String name, int page, int size);
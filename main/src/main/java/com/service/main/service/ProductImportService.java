@@ -0,0 +1,14 @@
+package com.service.main.service;
+
+import com.service.main.dto.ProductImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    /**
+     * Import products from an NDJSON or CSV stream for the given seller
+     */
+    ProductImportResult importProducts(InputStream input, String contentType, Long sellerId) throws IOException;
+}
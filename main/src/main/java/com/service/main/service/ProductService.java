@@ -10,10 +10,12 @@ import java.util.List;
 public interface ProductService {
     void createProduct(createProductRequest request);
     ProductResponse getProductById(Long productId);
-    List<ProductResponse> getTop5EndingSoon();
-    List<ProductResponse> getTop5MostBidded();
-    List<ProductResponse> getTop5HighestCurrentPrice();
-    Page<ProductResponse> getProductsByCategory(Integer categoryId, Pageable pageable);
+    String getProductETag(Long productId);
+    List<byte[]> getTop5EndingSoonCards();
+    List<byte[]> getTop5MostBiddedCards();
+    List<byte[]> getTop5HighestCurrentPriceCards();
+    List<byte[]> getProductCardsByIds(List<Long> productIds);
+    Page<byte[]> getProductCardsByCategory(Integer categoryId, boolean includeSubcategories, Pageable pageable);
     Page<ProductResponse> getActiveProductsBySellerId(Long sellerId, Pageable pageable);
     Page<ProductResponse> getEndedProductsBySellerId(Long sellerId, Pageable pageable);
     Page<ProductResponse> getProductsBySellerId(Long sellerId, Pageable pageable);
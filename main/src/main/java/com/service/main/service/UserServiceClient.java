@@ -3,12 +3,22 @@ package com.service.main.service;
 import com.service.main.dto.UserInfo;
 import com.service.main.dto.UserInfoResponse;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface UserServiceClient {
     UserInfoResponse getUserBasicInfo(Long userId);
-    
+
+    /**
+     * Lay thong tin co ban cua nhieu user trong 1 lan goi (chia chunk neu qua nhieu id).
+     * User khong ton tai hoac loi goi service thi khong co trong map.
+     */
+    Map<Long, UserInfoResponse> getUserBasicInfoBatch(Collection<Long> userIds);
+
     /**
-     * Get user info by ID including email
+     * Lay thong tin co ca email cua nhieu user trong 1 lan goi (/api/user/internal/contacts/batch,
+     * chi ADMIN/SYSTEM). User khong ton tai hoac loi goi service thi khong co trong map.
      */
-    UserInfo getUserInfoById(Long userId);
+    Map<Long, UserInfo> getUserInfoBatch(Collection<Long> userIds);
 }
 
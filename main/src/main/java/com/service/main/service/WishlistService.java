@@ -4,7 +4,10 @@ import com.service.main.dto.WishlistResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface WishlistService {
     WishlistResponse createWishlist(Long userId, Long productId);
@@ -12,5 +15,7 @@ public interface WishlistService {
     List<WishlistResponse> getAllWishlistsByUserId(Long userId);
     Page<WishlistResponse> getWishlistsByProductId(Long productId, Pageable pageable);
     void deleteWishlist(Long userId, Long productId);
+    Set<Long> filterWishlisted(Long userId, Collection<Long> productIds);
+    Map<Long, Integer> countWatchers(Collection<Long> productIds);
 }
 
@@ -1,16 +1,22 @@
 package com.service.main.service.impl;
 
+import com.service.main.cache.CategoryStatsCache;
+import com.service.main.cache.CategoryTreeCache;
+import com.service.main.cache.DashboardStatsCache;
+import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.AdminDashboardStats;
+import com.service.main.dto.AuctionMetricsResponse;
 import com.service.main.dto.RecentProductDTO;
 import com.service.main.entity.Product;
-import com.service.main.repository.CategoriesRepository;
+import com.service.main.exception.ApplicationException;
+import com.service.main.metrics.AuctionMetrics;
 import com.service.main.repository.ProductRepository;
 import com.service.main.service.AdminDashboardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,50 +28,35 @@ import java.util.stream.Collectors;
 public class AdminDashboardServiceImpl implements AdminDashboardService {
 
     private final ProductRepository productRepo;
-    private final CategoriesRepository categoriesRepo;
+    private final CategoryStatsCache categoryStatsCache;
+    private final CategoryTreeCache categoryTreeCache;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final AuctionMetrics auctionMetrics;
 
     @Override
     public AdminDashboardStats getDashboardStats() {
-        OffsetDateTime now = OffsetDateTime.now();
-        OffsetDateTime endingSoon = now.plusHours(24);
-        OffsetDateTime startOfToday = now.toLocalDate().atStartOfDay(now.getOffset()).toOffsetDateTime();
-        OffsetDateTime startOfWeek = now.minusDays(7);
-
-        // Product/Auction stats
-        long totalProducts = productRepo.count();
-        long activeAuctions = productRepo.countActiveAuctions(now);
-        long endedAuctions = productRepo.countEndedAuctions(now);
-        long endingSoonAuctions = productRepo.countEndingSoonAuctions(now, endingSoon);
-
-        // Bidding stats
-        long totalBids = productRepo.sumTotalBids();
-        BigDecimal highestCurrentPrice = productRepo.findHighestCurrentPrice(now);
-        BigDecimal averageStartPrice = productRepo.findAverageStartPrice();
-
-        // Category stats
-        long totalCategories = categoriesRepo.count();
-        List<AdminDashboardStats.CategoryProductCount> topCategories = getTopCategories(5);
-
-        // Recent activity
-        long newProductsToday = productRepo.countProductsCreatedAfter(startOfToday);
-        long newProductsThisWeek = productRepo.countProductsCreatedAfter(startOfWeek);
+        // doc tu memory, khong query DB (xem DashboardStatsCache)
+        DashboardStatsCache.Snapshot stats = dashboardStatsCache.getSnapshot();
 
         return AdminDashboardStats.builder()
-                .totalProducts(totalProducts)
-                .activeAuctions(activeAuctions)
-                .endedAuctions(endedAuctions)
-                .endingSoonAuctions(endingSoonAuctions)
-                .totalBids(totalBids)
-                .highestCurrentPrice(highestCurrentPrice)
-                .averageStartPrice(averageStartPrice)
-                .totalCategories(totalCategories)
-                .topCategories(topCategories)
-                .newProductsToday(newProductsToday)
-                .newProductsThisWeek(newProductsThisWeek)
+                .totalProducts(stats.totalProducts())
+                .activeAuctions(stats.activeAuctions())
+                .endedAuctions(stats.endedAuctions())
+                .endingSoonAuctions(stats.endingSoonAuctions())
+                .totalBids(stats.totalBids())
+                .highestCurrentPrice(stats.highestCurrentPrice())
+                .averageStartPrice(stats.averageStartPrice())
+                .totalCategories(categoryTreeCache.size())
+                .topCategories(getTopCategories(5))
+                .newProductsToday(stats.newProductsToday())
+                .newProductsThisWeek(stats.newProductsThisWeek())
+                .refreshedAt(stats.refreshedAt())
+                .updatedAt(stats.updatedAt())
                 .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RecentProductDTO> getRecentProducts(int limit) {
         OffsetDateTime now = OffsetDateTime.now();
         List<Product> recentProducts = productRepo.findTop10ByOrderByCreatedAtDesc();
@@ -87,19 +78,41 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public void rebuildCategoryStats() {
+        categoryStatsCache.rebuild();
+    }
+
+    @Override
+    public AuctionMetricsResponse getAuctionMetrics(String resolution, int points) {
+        AuctionMetrics.Resolution parsed;
+        try {
+            parsed = AuctionMetrics.Resolution.from(resolution);
+        } catch (IllegalArgumentException e) {
+            throw new ApplicationException(ErrorCodes.INVALID_INPUT, "resolution must be one of second, minute, hour");
+        }
+        if (points < 1) {
+            throw new ApplicationException(ErrorCodes.INVALID_INPUT, "points must be at least 1");
+        }
+        return auctionMetrics.snapshot(parsed, points);
+    }
+
     private List<AdminDashboardStats.CategoryProductCount> getTopCategories(int limit) {
-        List<Object[]> results = categoriesRepo.findTopCategoriesByProductCount(limit);
-        List<AdminDashboardStats.CategoryProductCount> topCategories = new ArrayList<>();
+        List<CategoryStatsCache.CategoryCount> counts = categoryStatsCache.getTopChildCategories(limit);
 
-        for (Object[] row : results) {
-            Integer categoryId = ((Number) row[0]).intValue();
-            String categoryName = (String) row[1];
-            long productCount = ((Number) row[2]).longValue();
+        List<AdminDashboardStats.CategoryProductCount> topCategories = new ArrayList<>();
+        for (CategoryStatsCache.CategoryCount count : counts) {
+            String categoryName = categoryTreeCache.getName(count.categoryId());
+            if (categoryName == null) {
+                // category da bi xoa, counter con sot lai
+                continue;
+            }
 
             topCategories.add(AdminDashboardStats.CategoryProductCount.builder()
-                    .categoryId(categoryId)
+                    .categoryId(count.categoryId())
                     .categoryName(categoryName)
-                    .productCount(productCount)
+                    .productCount(count.productCount())
+                    .activeAuctionCount(count.activeAuctionCount())
                     .build());
         }
 
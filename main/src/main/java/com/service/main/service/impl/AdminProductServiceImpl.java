@@ -1,9 +1,14 @@
 package com.service.main.service.impl;
 
+import com.service.main.cache.CategoryStatsCache;
+import com.service.main.cache.CategoryTreeCache;
+import com.service.main.cache.DashboardStatsCache;
+import com.service.main.cache.ProductCardJsonCache;
 import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.*;
 import com.service.main.entity.Product;
 import com.service.main.exception.ApplicationException;
+import com.service.main.repository.ProductCategoryRepository;
 import com.service.main.repository.ProductRepository;
 import com.service.main.service.AdminProductService;
 import com.service.main.service.ProductService;
@@ -18,6 +23,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,8 +38,14 @@ public class AdminProductServiceImpl implements AdminProductService {
     private final ProductRepository productRepo;
     private final ProductService productService;
     private final UserServiceClient userServiceClient;
+    private final ProductCategoryRepository productCategoryRepo;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductCardJsonCache productCardJsonCache;
+    private final CategoryStatsCache categoryStatsCache;
+    private final DashboardStatsCache dashboardStatsCache;
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<AdminProductListResponse> getAllProducts(
             int page,
             int size,
@@ -77,6 +90,7 @@ public class AdminProductServiceImpl implements AdminProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProductResponse getProductById(Long productId) {
         return productService.getProductById(productId);
     }
@@ -88,7 +102,14 @@ public class AdminProductServiceImpl implements AdminProductService {
                 .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
         
         log.info("Admin deleting product: {} (ID: {})", product.getProductName(), productId);
+        List<Integer> categoryIds = product.getProductCategories().stream()
+                .map(pc -> pc.getCategory().getId())
+                .toList();
         productRepo.delete(product);
+        productCardJsonCache.evict(productId);
+        categoryStatsCache.onProductDeleted(productId, categoryIds, product.getEndAt());
+        dashboardStatsCache.onProductDeleted(product.getStartPrice(), product.getEndAt(), product.getBidCount(),
+                product.getCreatedAt());
     }
 
     @Override
@@ -107,34 +128,32 @@ public class AdminProductServiceImpl implements AdminProductService {
                 product.getProductName(), productId, reason);
         
         // Set end time to now to end the auction
+        OffsetDateTime endAtBefore = product.getEndAt();
         product.setEndAt(now);
         productRepo.save(product);
+        productCardJsonCache.evict(productId);
+        dashboardStatsCache.onAuctionEndedEarly(endAtBefore);
     }
 
     @Override
     public AdminProductStats getProductStats() {
-        OffsetDateTime now = OffsetDateTime.now();
-        OffsetDateTime endingSoon = now.plusHours(24);
-
-        long totalProducts = productRepo.count();
-        long activeProducts = productRepo.countActiveAuctions(now);
-        long endedProducts = productRepo.countEndedAuctions(now);
-        long productsWithBids = productRepo.countProductsWithBids();
-        long productsWithoutBids = productRepo.countProductsWithoutBids();
-        long endingSoonProducts = productRepo.countEndingSoonAuctions(now, endingSoon);
+        DashboardStatsCache.Snapshot stats = dashboardStatsCache.getSnapshot();
 
         return AdminProductStats.builder()
-                .totalProducts(totalProducts)
-                .activeProducts(activeProducts)
-                .endedProducts(endedProducts)
+                .totalProducts(stats.totalProducts())
+                .activeProducts(stats.activeAuctions())
+                .endedProducts(stats.endedAuctions())
                 .cancelledProducts(0L) // No cancel status in current schema
-                .productsWithBids(productsWithBids)
-                .productsWithoutBids(productsWithoutBids)
-                .productsEndingSoon(endingSoonProducts)
+                .productsWithBids(stats.productsWithBids())
+                .productsWithoutBids(stats.productsWithoutBids())
+                .productsEndingSoon(stats.endingSoonAuctions())
+                .refreshedAt(stats.refreshedAt())
+                .updatedAt(stats.updatedAt())
                 .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<AdminProductListResponse> getProductsBySeller(Long sellerId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<Product> productPage = productRepo.findBySellerIdOrderByCreatedAtDesc(sellerId, pageable);
@@ -154,39 +173,43 @@ public class AdminProductServiceImpl implements AdminProductService {
     }
 
     /**
-     * Map products to admin list response with user info
+     * Map products to admin list response with user info.
+     * Ca trang chi can 1 query category va 1 lan goi user service (seller + top bidder, co email).
      */
     private List<AdminProductListResponse> mapToAdminProductList(List<Product> products, OffsetDateTime now) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+
         // Collect all user IDs (sellers and top bidders)
-        Set<Long> userIds = products.stream()
-                .flatMap(p -> {
-                    if (p.getTopBidderId() != null) {
-                        return java.util.stream.Stream.of(p.getSellerId(), p.getTopBidderId());
-                    }
-                    return java.util.stream.Stream.of(p.getSellerId());
-                })
-                .collect(Collectors.toSet());
-
-        // Fetch user info in batch
-        Map<Long, UserInfo> userInfoMap = fetchUserInfoBatch(userIds);
+        Set<Long> userIds = new HashSet<>();
+        for (Product product : products) {
+            userIds.add(product.getSellerId());
+            if (product.getTopBidderId() != null) {
+                userIds.add(product.getTopBidderId());
+            }
+        }
+        Map<Long, UserInfo> userInfoMap = userServiceClient.getUserInfoBatch(userIds);
+
+        // category dau tien cua moi product, ten lay tu CategoryTreeCache
+        Map<Long, String> categoryNames = new HashMap<>();
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        for (Object[] row : productCategoryRepo.findCategoryIdsByProductIdIn(productIds)) {
+            categoryNames.putIfAbsent((Long) row[0], categoryTreeCache.getName((Integer) row[1]));
+        }
 
         return products.stream()
-                .map(product -> mapProductToAdminResponse(product, userInfoMap, now))
+                .map(product -> mapProductToAdminResponse(product, userInfoMap, categoryNames, now))
                 .collect(Collectors.toList());
     }
 
-    private AdminProductListResponse mapProductToAdminResponse(Product product, Map<Long, UserInfo> userInfoMap, OffsetDateTime now) {
-        UserInfo seller = userInfoMap.get(product.getSellerId());
+    private AdminProductListResponse mapProductToAdminResponse(Product product, Map<Long, UserInfo> userInfoMap,
+                                                               Map<Long, String> categoryNames, OffsetDateTime now) {
+        UserInfo seller = userInfoMap.getOrDefault(product.getSellerId(), createUnknownUser(product.getSellerId()));
         UserInfo topBidder = product.getTopBidderId() != null 
-                ? userInfoMap.get(product.getTopBidderId()) 
+                ? userInfoMap.getOrDefault(product.getTopBidderId(), createUnknownUser(product.getTopBidderId()))
                 : null;
 
-        // Get first category name
-        String categoryName = null;
-        if (product.getProductCategories() != null && !product.getProductCategories().isEmpty()) {
-            categoryName = product.getProductCategories().get(0).getCategory().getName();
-        }
-
         // Determine status
         String status = product.getEndAt().isAfter(now) ? "ACTIVE" : "ENDED";
 
@@ -199,48 +222,17 @@ public class AdminProductServiceImpl implements AdminProductService {
                 .buyNowPrice(product.getBuyNowPrice())
                 .bidCount(product.getBidCount())
                 .sellerId(product.getSellerId())
-                .sellerName(seller != null ? seller.getFullname() : null)
-                .sellerEmail(seller != null ? seller.getEmail() : null)
+                .sellerName(seller.getFullname())
+                .sellerEmail(seller.getEmail())
                 .topBidderId(product.getTopBidderId())
                 .topBidderName(topBidder != null ? topBidder.getFullname() : null)
-                .categoryName(categoryName)
+                .categoryName(categoryNames.get(product.getId()))
                 .createdAt(product.getCreatedAt())
                 .endAt(product.getEndAt())
                 .status(status)
                 .build();
     }
 
-    /**
-     * Fetch user info in batch from user service
-     */
-    private Map<Long, UserInfo> fetchUserInfoBatch(Set<Long> userIds) {
-        try {
-            // Call user service to get user info
-            Map<Long, UserInfo> result = new java.util.HashMap<>();
-            for (Long id : userIds) {
-                try {
-                    UserInfo userInfo = userServiceClient.getUserInfoById(id);
-                    if (userInfo != null) {
-                        result.put(id, userInfo);
-                    } else {
-                        result.put(id, createUnknownUser(id));
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to fetch user info for ID: {}", id);
-                    result.put(id, createUnknownUser(id));
-                }
-            }
-            return result;
-        } catch (Exception e) {
-            log.error("Failed to fetch user info batch", e);
-            Map<Long, UserInfo> fallbackResult = new java.util.HashMap<>();
-            for (Long id : userIds) {
-                fallbackResult.put(id, createUnknownUser(id));
-            }
-            return fallbackResult;
-        }
-    }
-
     private UserInfo createUnknownUser(Long id) {
         return UserInfo.builder()
                 .id(id)
@@ -0,0 +1,258 @@
+package com.service.main.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.main.archive.ArchivedAuction;
+import com.service.main.archive.AuctionArchive;
+import com.service.main.constants.ErrorCodes;
+import com.service.main.dto.UserInfoResponse;
+import com.service.main.exception.ApplicationException;
+import com.service.main.export.ExportFormat;
+import com.service.main.export.ExportWriter;
+import com.service.main.service.AuctionExportService;
+import com.service.main.service.UserServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Export bid history / ket qua auction dang stream:
+ * - doc bang cursor phia server (fetch-size dong / lan, can transaction de Postgres giu cursor);
+ * - gom enrich-batch-size dong roi resolve bidder bang 1 lan goi batch toi user service;
+ * - ghi xong moi batch la flush, nen memory chi phu thuoc batch size va name-cache-size, khong phu thuoc so dong.
+ */
+@Slf4j
+@Service
+public class AuctionExportServiceImpl implements AuctionExportService {
+
+    private static final List<String> BID_COLUMNS =
+            List.of("product_id", "bid_id", "bidder_id", "bidder_name", "price", "created_at");
+    private static final List<String> RESULT_COLUMNS =
+            List.of("product_id", "product_name", "start_price", "final_price", "buy_now_price", "bid_count",
+                    "winner_id", "winner_name", "created_at", "end_at");
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final UserServiceClient userServiceClient;
+    private final AuctionArchive auctionArchive;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.enrich-batch-size:500}")
+    private int enrichBatchSize;
+
+    @Value("${export.name-cache-size:10000}")
+    private int nameCacheSize;
+
+    public AuctionExportServiceImpl(DataSource dataSource,
+                                    PlatformTransactionManager transactionManager,
+                                    UserServiceClient userServiceClient,
+                                    AuctionArchive auctionArchive,
+                                    ObjectMapper objectMapper,
+                                    @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        // readOnly: chay tren replica pool (xem DataSourceRoutingConfig)
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.userServiceClient = userServiceClient;
+        this.auctionArchive = auctionArchive;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void checkCanExportBidHistory(Long productId, Long currentUserId, boolean admin) {
+        Long sellerId = auctionArchive.find(productId)
+                .map(archived -> archived.product().sellerId())
+                .orElseGet(() -> cursorJdbcTemplate.queryForList(
+                                "SELECT seller_id FROM product WHERE id = ?", Long.class, productId)
+                        .stream().findFirst()
+                        .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found")));
+
+        if (!admin && !sellerId.equals(currentUserId)) {
+            throw new ApplicationException(ErrorCodes.UNAUTHORIZED, "Only the product seller can export its bid history");
+        }
+    }
+
+    @Override
+    public void writeBidHistory(Long productId, boolean maskBidders, ExportFormat format, OutputStream out) throws IOException {
+        ExportWriter writer = ExportWriter.open(format, BID_COLUMNS, out, objectMapper);
+        EnrichingBatch<BidRow> batch = new EnrichingBatch<>(writer, BidRow::bidderId, (bid, bidderName) ->
+                writer.writeRow(productId, bid.id(), bid.bidderId(),
+                        maskBidders ? BidHistoryServiceImpl.maskFullname(bidderName) : bidderName,
+                        bid.price(), bid.createdAt()));
+
+        Optional<ArchivedAuction> archived = auctionArchive.find(productId);
+        if (archived.isPresent()) {
+            // bids trong archive da sap xep theo created_at tang dan
+            for (ArchivedAuction.BidRow bid : archived.get().bids()) {
+                batch.add(new BidRow(bid.id(), bid.bidderId(), bid.price(), bid.createdAt()));
+            }
+        } else {
+            stream("""
+                            SELECT id, bidder_id, price, created_at FROM bid_history
+                            WHERE product_id = ?
+                              AND created_at >= (SELECT p.created_at FROM product p WHERE p.id = ?)
+                            ORDER BY created_at, id
+                            """,
+                    rs -> batch.add(new BidRow(rs.getLong("id"), rs.getLong("bidder_id"),
+                            rs.getBigDecimal("price"), rs.getObject("created_at", OffsetDateTime.class))),
+                    productId, productId);
+        }
+        batch.flush();
+    }
+
+    @Override
+    public void writeAuctionResults(Long sellerId, ExportFormat format, OutputStream out) throws IOException {
+        ExportWriter writer = ExportWriter.open(format, RESULT_COLUMNS, out, objectMapper);
+        EnrichingBatch<ResultRow> batch = new EnrichingBatch<>(writer, ResultRow::winnerId, (result, winnerName) ->
+                writer.writeRow(result.id(), result.productName(), result.startPrice(),
+                        result.winnerId() != null ? result.finalPrice() : null, result.buyNowPrice(),
+                        result.bidCount(), result.winnerId(), winnerName, result.createdAt(), result.endAt()));
+
+        String sql = """
+                SELECT id, product_name, start_price, current_price, buy_now_price, bid_count, top_bidder_id,
+                       created_at, end_at
+                FROM product
+                WHERE end_at <= now() %s
+                ORDER BY end_at DESC, id
+                """.formatted(sellerId != null ? "AND seller_id = ?" : "");
+        RowCallbackHandler handler = rs -> batch.add(new ResultRow(
+                rs.getLong("id"),
+                rs.getString("product_name"),
+                rs.getBigDecimal("start_price"),
+                rs.getBigDecimal("current_price"),
+                rs.getBigDecimal("buy_now_price"),
+                rs.getInt("bid_count"),
+                rs.getObject("top_bidder_id", Long.class),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("end_at", OffsetDateTime.class)));
+
+        if (sellerId != null) {
+            stream(sql, handler, sellerId);
+        } else {
+            stream(sql, handler);
+        }
+
+        // auction da archive (cu hon auction con trong bang hot), doc tung auction tu archive
+        String archivedSql = """
+                SELECT product_id FROM archived_product %s ORDER BY end_at DESC, product_id
+                """.formatted(sellerId != null ? "WHERE seller_id = ?" : "");
+        RowCallbackHandler archivedHandler = rs -> auctionArchive.find(rs.getLong("product_id"))
+                .map(ArchivedAuction::product)
+                .ifPresent(p -> batch.add(new ResultRow(p.id(), p.productName(), p.startPrice(), p.currentPrice(),
+                        p.buyNowPrice(), p.bidCount(), p.topBidderId(), p.createdAt(), p.endAt())));
+        if (sellerId != null) {
+            stream(archivedSql, archivedHandler, sellerId);
+        } else {
+            stream(archivedSql, archivedHandler);
+        }
+        batch.flush();
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, Object... args) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorJdbcTemplate.query(sql, handler, args));
+        } catch (UncheckedIOException e) {
+            // client ngat ket noi giua chung: dung query, transaction rollback va tra cursor
+            throw e.getCause();
+        }
+    }
+
+    private record BidRow(Long id, Long bidderId, BigDecimal price, OffsetDateTime createdAt) {
+    }
+
+    private record ResultRow(Long id, String productName, BigDecimal startPrice, BigDecimal finalPrice,
+                             BigDecimal buyNowPrice, Integer bidCount, Long winnerId,
+                             OffsetDateTime createdAt, OffsetDateTime endAt) {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T row, String userName) throws IOException;
+    }
+
+    /**
+     * Giu toi da enrichBatchSize dong, resolve ten user con thieu bang 1 lan goi batch roi ghi ra.
+     * Ten da resolve duoc giu trong LRU nho (bidder cua 1 auction lap lai rat nhieu).
+     */
+    private class EnrichingBatch<T> {
+        private final ExportWriter writer;
+        private final Function<T, Long> userIdOf;
+        private final RowWriter<T> rowWriter;
+        private final List<T> rows = new ArrayList<>();
+        private final Map<Long, String> names = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > nameCacheSize;
+            }
+        };
+
+        EnrichingBatch(ExportWriter writer, Function<T, Long> userIdOf, RowWriter<T> rowWriter) {
+            this.writer = writer;
+            this.userIdOf = userIdOf;
+            this.rowWriter = rowWriter;
+        }
+
+        void add(T row) {
+            rows.add(row);
+            if (rows.size() >= enrichBatchSize) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            Map<Long, String> batchNames = new HashMap<>();
+            Set<Long> missing = new HashSet<>();
+            for (T row : rows) {
+                Long userId = userIdOf.apply(row);
+                if (userId == null || batchNames.containsKey(userId) || missing.contains(userId)) {
+                    continue;
+                }
+                if (names.containsKey(userId)) {
+                    batchNames.put(userId, names.get(userId));
+                } else {
+                    missing.add(userId);
+                }
+            }
+            if (!missing.isEmpty()) {
+                Map<Long, UserInfoResponse> users = userServiceClient.getUserBasicInfoBatch(missing);
+                for (Long userId : missing) {
+                    UserInfoResponse user = users.get(userId);
+                    String name = user != null ? user.getFullname() : null;
+                    batchNames.put(userId, name);
+                    names.put(userId, name);
+                }
+            }
+
+            for (T row : rows) {
+                Long userId = userIdOf.apply(row);
+                rowWriter.write(row, userId != null ? batchNames.get(userId) : null);
+            }
+            rows.clear();
+            writer.flush();
+        }
+    }
+}
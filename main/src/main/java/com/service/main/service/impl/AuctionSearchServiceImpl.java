@@ -0,0 +1,110 @@
+package com.service.main.service.impl;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.service.main.constants.ErrorCodes;
+import com.service.main.dto.FacetedSearchResponse;
+import com.service.main.exception.ApplicationException;
+import com.service.main.search.ActiveAuctionIndex;
+import com.service.main.service.AuctionSearchService;
+import com.service.main.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class AuctionSearchServiceImpl implements AuctionSearchService {
+
+    private static final String[] ENDING_WITHIN_LABELS = {"1h", "24h", "7d"};
+    private static final String[] BID_COUNT_LABELS = {"0", "1-5", "6-20", "21+"};
+
+    private final ActiveAuctionIndex activeAuctionIndex;
+    private final ProductService productService;
+
+    @Override
+    public FacetedSearchResponse search(
+            Integer categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer endingWithinHours,
+            Boolean hasBuyNow,
+            Integer minBidCount,
+            Integer maxBidCount,
+            String sortBy,
+            String sortDir,
+            int page,
+            int size
+    ) {
+        if (page < 0 || size <= 0 || size > 100) {
+            throw new ApplicationException(ErrorCodes.INVALID_INPUT, "page must be >= 0 and size must be between 1 and 100");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new ApplicationException(ErrorCodes.INVALID_INPUT, "minPrice must be less than or equal to maxPrice");
+        }
+
+        ActiveAuctionIndex.Criteria criteria = new ActiveAuctionIndex.Criteria(
+                categoryId,
+                minPrice,
+                maxPrice,
+                endingWithinHours,
+                hasBuyNow,
+                minBidCount,
+                maxBidCount,
+                parseSortField(sortBy),
+                !"desc".equalsIgnoreCase(sortDir),
+                page,
+                size
+        );
+
+        ActiveAuctionIndex.Result result = activeAuctionIndex.search(criteria);
+
+        List<RawValue> content = productService.getProductCardsByIds(result.productIds()).stream()
+                .map(card -> new RawValue(new String(card, StandardCharsets.UTF_8)))
+                .toList();
+
+        return FacetedSearchResponse.builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(result.totalElements())
+                .totalPages((result.totalElements() + size - 1) / size)
+                .facets(FacetedSearchResponse.Facets.builder()
+                        .categories(result.categoryCounts())
+                        .withBuyNow(result.withBuyNow())
+                        .withoutBuyNow(result.withoutBuyNow())
+                        .endingWithin(toLabeledCounts(ENDING_WITHIN_LABELS, result.endingWithinCounts()))
+                        .bidCount(toLabeledCounts(BID_COUNT_LABELS, result.bidCountBucketCounts()))
+                        .minPrice(result.minPrice() != null ? BigDecimal.valueOf(result.minPrice()) : null)
+                        .maxPrice(result.maxPrice() != null ? BigDecimal.valueOf(result.maxPrice()) : null)
+                        .build())
+                .indexedAt(result.indexedAt())
+                .build();
+    }
+
+    private ActiveAuctionIndex.SortField parseSortField(String sortBy) {
+        if (sortBy == null) {
+            return ActiveAuctionIndex.SortField.END_AT;
+        }
+        return switch (sortBy) {
+            case "endAt" -> ActiveAuctionIndex.SortField.END_AT;
+            case "price", "currentPrice" -> ActiveAuctionIndex.SortField.PRICE;
+            case "bidCount" -> ActiveAuctionIndex.SortField.BID_COUNT;
+            case "createdAt" -> ActiveAuctionIndex.SortField.CREATED_AT;
+            default -> throw new ApplicationException(ErrorCodes.INVALID_INPUT,
+                    "sortBy must be one of endAt, price, bidCount, createdAt");
+        };
+    }
+
+    private static Map<String, Integer> toLabeledCounts(String[] labels, int[] counts) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            result.put(labels[i], counts[i]);
+        }
+        return result;
+    }
+}
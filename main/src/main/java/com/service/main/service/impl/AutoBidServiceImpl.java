@@ -1,5 +1,9 @@
 package com.service.main.service.impl;
 
+import com.service.main.cache.BidderNameCache;
+import com.service.main.cache.DashboardStatsCache;
+import com.service.main.cache.PriceSeriesCache;
+import com.service.main.cache.ProductCardJsonCache;
 import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.AutoBidResponse;
 import com.service.main.dto.CreateAutoBidRequest;
@@ -12,7 +16,9 @@ import com.service.main.entity.BidRequest;
 import com.service.main.entity.Product;
 import com.service.main.entity.SystemSetting;
 import com.service.main.exception.ApplicationException;
+import com.service.main.metrics.AuctionMetrics;
 import com.service.main.repository.*;
+import com.service.main.search.ActiveAuctionIndex;
 import com.service.main.service.AutoBidService;
 import com.service.main.service.BidRequestService;
 import com.service.main.service.UserServiceClient;
@@ -49,6 +55,18 @@ public class AutoBidServiceImpl implements AutoBidService {
 
     private final SystemSettingRepository systemSettingRepository;
 
+    private final ProductCardJsonCache productCardJsonCache;
+
+    private final ActiveAuctionIndex activeAuctionIndex;
+
+    private final PriceSeriesCache priceSeriesCache;
+
+    private final BidderNameCache bidderNameCache;
+
+    private final DashboardStatsCache dashboardStatsCache;
+
+    private final AuctionMetrics auctionMetrics;
+
     @Value("${assessment.minimum}")
     private Double MINIMUM_ASSESSMENT;
 
@@ -64,6 +82,10 @@ public class AutoBidServiceImpl implements AutoBidService {
         
         UserInfoResponse userResFromAPI = userServiceClient.getUserBasicInfo(currentUserId);
         UserInfo user  = formatUserInfo(userResFromAPI);
+        if (user != null) {
+            // ten da mask se duoc luu cung bid (bid_history.bidder_masked_name)
+            bidderNameCache.put(currentUserId, user.getFullname());
+        }
         if (user.getAssessment() == null) {
             // Tim trong bid_request, neu ma co record thi check xem no duoc dong y chua, neu chua dong y thi throw
             // Neu ko co record thi tao 1 record request len cho seller xem, xong roi throw.
@@ -191,11 +213,15 @@ public class AutoBidServiceImpl implements AutoBidService {
 
         // 3. Buy now trigger
         if (buyNowPrice != null && maxPrice.compareTo(buyNowPrice) >= 0) {
+            int bidCountBefore = product.getBidCount();
+            OffsetDateTime endAtBefore = product.getEndAt();
             product.setTopBidderId(currentUserId);
             product.setCurrentPrice(buyNowPrice);
             product.setBidCount(product.getBidCount() + 1);
             product.setEndAt(now);
             this.productRepository.save(product);
+            dashboardStatsCache.onBidsPlaced(bidCountBefore, 1, buyNowPrice, now);
+            dashboardStatsCache.onAuctionEndedEarly(endAtBefore);
 
             this.createBidHistory(product.getId(), currentUserId, buyNowPrice, now);
 
@@ -203,6 +229,8 @@ public class AutoBidServiceImpl implements AutoBidService {
             
             // Handle auto extend if enabled
             handleAutoExtend(product);
+            productCardJsonCache.evict(product.getId());
+            activeAuctionIndex.onProductChanged(product);
             
             return mapToResponse(autoBid);
         }
@@ -213,13 +241,18 @@ public class AutoBidServiceImpl implements AutoBidService {
         BidUpdateResult result = handleBidCases(product, maxPrice, minBidStep, currentUserId, now);
 
         // 6. Cập nhật product
+        int bidCountBefore = product.getBidCount();
         product.setCurrentPrice(result.newCurrentPrice);
         product.setTopBidderId(result.newTopBidderId);
         product.setBidCount(product.getBidCount() + result.bidCountIncrement);
         productRepository.save(product);
+        dashboardStatsCache.onBidsPlaced(bidCountBefore, result.bidCountIncrement, result.newCurrentPrice,
+                product.getEndAt());
 
         // Handle auto extend if enabled
         this.handleAutoExtend(product);
+        productCardJsonCache.evict(product.getId());
+        activeAuctionIndex.onProductChanged(product);
 
         return mapToResponse(autoBid);
     }
@@ -230,8 +263,11 @@ public class AutoBidServiceImpl implements AutoBidService {
                 .bidderId(bidderId)
                 .price(price)
                 .createdAt(createdAt)
+                .bidderMaskedName(bidderNameCache.getMaskedName(bidderId))
                 .build();
         this.bidHistoryRepository.save(history);
+        priceSeriesCache.evict(productId);
+        auctionMetrics.recordBid(bidderId);
     }
 
     private AutoBid createOrUpdateAutoBid(Long productId, Long bidderId, BigDecimal maxPrice, OffsetDateTime now) {
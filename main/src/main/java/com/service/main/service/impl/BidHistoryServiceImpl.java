@@ -1,41 +1,192 @@
 package com.service.main.service.impl;
 
+import com.service.main.archive.ArchivedAuction;
+import com.service.main.archive.AuctionArchive;
+import com.service.main.cache.BidderNameCache;
+import com.service.main.cache.PriceSeriesCache;
+import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.BidHistoryResponse;
+import com.service.main.dto.PriceSeriesResponse;
 import com.service.main.dto.UserInfo;
-import com.service.main.dto.UserInfoResponse;
 import com.service.main.entity.BidHistory;
+import com.service.main.exception.ApplicationException;
 import com.service.main.repository.BidHistoryRepository;
 import com.service.main.service.BidHistoryService;
-import com.service.main.service.UserServiceClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import static com.service.main.service.impl.ProductServiceImpl.formatUserInfo;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BidHistoryServiceImpl implements BidHistoryService {
 
     private final BidHistoryRepository bidHistoryRepository;
-    private final UserServiceClient userServiceClient;
+    private final AuctionArchive auctionArchive;
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceSeriesCache priceSeriesCache;
+    private final BidderNameCache bidderNameCache;
+
+    private static final int MAX_SERIES_BUCKETS = 1000;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BidHistoryResponse> getBidHistoriesByProductId(Long productId, Pageable pageable) {
-        Page<BidHistory> bidHistoryPage = bidHistoryRepository.findByProductId(productId, pageable);
-        return bidHistoryPage.map(this::mapToResponse);
+        Optional<ArchivedAuction> archived = auctionArchive.find(productId);
+        Page<BidHistory> bidHistoryPage = archived.isPresent()
+                ? toPage(archived.get().toBidHistories(), pageable)
+                : bidHistoryRepository.findByProductId(productId, pageable);
+
+        // ten da mask luu san trong bid_history; chi bid cu chua backfill moi can lay (1 lan batch / trang)
+        Set<Long> unmaskedBidders = bidHistoryPage.getContent().stream()
+                .filter(bidHistory -> bidHistory.getBidderMaskedName() == null)
+                .map(BidHistory::getBidderId)
+                .collect(Collectors.toSet());
+        Map<Long, String> fallbackNames = unmaskedBidders.isEmpty()
+                ? Map.of()
+                : bidderNameCache.getMaskedNames(unmaskedBidders);
+
+        return bidHistoryPage.map(bidHistory -> mapToResponse(bidHistory,
+                bidHistory.getBidderMaskedName() != null
+                        ? bidHistory.getBidderMaskedName()
+                        : fallbackNames.get(bidHistory.getBidderId())));
     }
 
-    private BidHistoryResponse mapToResponse(BidHistory bidHistory) {
-        UserInfoResponse bidderInfoRes = userServiceClient.getUserBasicInfo(bidHistory.getBidderId());
-        UserInfo bidder = formatUserInfo(bidderInfoRes);
-        
-        // Mask fullname for privacy
-        if (bidder != null && bidder.getFullname() != null) {
-            String maskedFullname = maskFullname(bidder.getFullname());
-            bidder.setFullname(maskedFullname);
+    @Override
+    @Transactional(readOnly = true)
+    public String getBidHistoriesETag(Long productId, Pageable pageable) {
+        // bid history cua auction da archive khong doi nua
+        String version = auctionArchive.contains(productId)
+                ? "archived"
+                : bidHistoryRepository.findETagByProductId(productId);
+        return productId + "-" + version + "-" + pageable.getPageNumber() + "-" + pageable.getPageSize();
+    }
+
+    // Khong readOnly: tinh tren primary, replica tre co the dua series cu vao cache den het TTL
+    @Override
+    @Transactional
+    public PriceSeriesResponse getPriceSeries(Long productId, int buckets) {
+        if (buckets < 1 || buckets > MAX_SERIES_BUCKETS) {
+            throw new ApplicationException(ErrorCodes.INVALID_INPUT,
+                    "buckets must be between 1 and " + MAX_SERIES_BUCKETS);
         }
+        return priceSeriesCache.getOrCompute(productId, buckets, () -> computePriceSeries(productId, buckets));
+    }
+
+    private PriceSeriesResponse computePriceSeries(Long productId, int buckets) {
+        Optional<ArchivedAuction> archived = auctionArchive.find(productId);
+        if (archived.isPresent()) {
+            ArchivedAuction.ProductRow product = archived.get().product();
+            SeriesBounds bounds = SeriesBounds.of(product.createdAt(), product.endAt(), buckets);
+            Map<Integer, PriceSeriesResponse.Point> points = new TreeMap<>();
+            // bids trong archive sap xep theo created_at tang dan
+            for (ArchivedAuction.BidRow bid : archived.get().bids()) {
+                int bucket = bounds.bucketOf(bid.createdAt());
+                PriceSeriesResponse.Point point = points.get(bucket);
+                if (point == null) {
+                    points.put(bucket, new PriceSeriesResponse.Point(bounds.startOf(bucket),
+                            bid.price(), bid.price(), bid.price(), bid.price(), 1));
+                } else {
+                    point.setMin(point.getMin().min(bid.price()));
+                    point.setMax(point.getMax().max(bid.price()));
+                    point.setClose(bid.price());
+                    point.setCount(point.getCount() + 1);
+                }
+            }
+            return buildSeries(productId, bounds, new ArrayList<>(points.values()));
+        }
+
+        SeriesBounds bounds = jdbcTemplate.query(
+                        "SELECT created_at, least(end_at, now()) AS end_at FROM product WHERE id = ?",
+                        (rs, rowNum) -> SeriesBounds.of(rs.getObject("created_at", OffsetDateTime.class),
+                                rs.getObject("end_at", OffsetDateTime.class), buckets),
+                        productId)
+                .stream().findFirst()
+                .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
+
+        // 1 lan quet index (product_id, created_at), gom nhom ngay trong Postgres
+        List<PriceSeriesResponse.Point> points = jdbcTemplate.query("""
+                        SELECT least(greatest(floor((extract(epoch FROM created_at) * 1000 - ?) / ?)::int, 0), ?) AS bucket,
+                               count(*) AS bids,
+                               min(price) AS min_price,
+                               max(price) AS max_price,
+                               (array_agg(price ORDER BY created_at, id))[1] AS open_price,
+                               (array_agg(price ORDER BY created_at DESC, id DESC))[1] AS close_price
+                        FROM bid_history
+                        WHERE product_id = ? AND created_at >= ?
+                        GROUP BY 1
+                        ORDER BY 1
+                        """,
+                (rs, rowNum) -> new PriceSeriesResponse.Point(
+                        bounds.startOf(rs.getInt("bucket")),
+                        rs.getBigDecimal("open_price"),
+                        rs.getBigDecimal("min_price"),
+                        rs.getBigDecimal("max_price"),
+                        rs.getBigDecimal("close_price"),
+                        rs.getInt("bids")),
+                bounds.fromMillis(), bounds.bucketMillis(), buckets - 1, productId, bounds.from());
+        return buildSeries(productId, bounds, points);
+    }
+
+    private static PriceSeriesResponse buildSeries(Long productId, SeriesBounds bounds, List<PriceSeriesResponse.Point> points) {
+        return PriceSeriesResponse.builder()
+                .productId(productId)
+                .from(bounds.from())
+                .to(bounds.to())
+                .buckets(bounds.buckets())
+                .bucketMillis(bounds.bucketMillis())
+                .totalBids(points.stream().mapToLong(PriceSeriesResponse.Point::getCount).sum())
+                .points(points)
+                .generatedAt(OffsetDateTime.now())
+                .build();
+    }
+
+    // [from, to] chia deu thanh buckets khoang, bid ngoai khoang (neu co) duoc dua vao bucket dau/cuoi
+    private record SeriesBounds(OffsetDateTime from, OffsetDateTime to, int buckets, long bucketMillis) {
+        static SeriesBounds of(OffsetDateTime from, OffsetDateTime to, int buckets) {
+            long span = Math.max(1, to.toInstant().toEpochMilli() - from.toInstant().toEpochMilli());
+            return new SeriesBounds(from, to, buckets, Math.max(1, (span + buckets - 1) / buckets));
+        }
+
+        long fromMillis() {
+            return from.toInstant().toEpochMilli();
+        }
+
+        int bucketOf(OffsetDateTime time) {
+            long bucket = (time.toInstant().toEpochMilli() - fromMillis()) / bucketMillis;
+            return (int) Math.min(Math.max(bucket, 0), buckets - 1);
+        }
+
+        OffsetDateTime startOf(int bucket) {
+            return OffsetDateTime.ofInstant(from.toInstant().plusMillis(bucket * bucketMillis), ZoneOffset.UTC);
+        }
+    }
+
+    private static Page<BidHistory> toPage(List<BidHistory> all, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    private BidHistoryResponse mapToResponse(BidHistory bidHistory, String maskedName) {
+        // chi id va ten da mask, khong goi user service cho tung dong
+        UserInfo bidder = UserInfo.builder()
+                .id(bidHistory.getBidderId())
+                .fullname(maskedName == null || maskedName.isEmpty() ? null : maskedName)
+                .build();
 
         BidHistoryResponse response = new BidHistoryResponse();
         response.setId(bidHistory.getId());
@@ -46,7 +197,7 @@ public class BidHistoryServiceImpl implements BidHistoryService {
         return response;
     }
 
-    private String maskFullname(String fullname) {
+    public static String maskFullname(String fullname) {
         if (fullname == null || fullname.trim().isEmpty()) {
             return fullname;
         }
@@ -83,7 +234,7 @@ public class BidHistoryServiceImpl implements BidHistoryService {
         return masked.toString();
     }
     
-    private String maskLastName(String lastName) {
+    private static String maskLastName(String lastName) {
         if (lastName == null || lastName.length() <= 1) {
             return lastName;
         }
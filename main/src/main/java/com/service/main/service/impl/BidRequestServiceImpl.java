@@ -1,5 +1,6 @@
 package com.service.main.service.impl;
 
+import com.service.main.archive.ProductLookup;
 import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.BidRequestResponse;
 import com.service.main.dto.UserInfo;
@@ -8,7 +9,6 @@ import com.service.main.entity.BidRequest;
 import com.service.main.entity.Product;
 import com.service.main.exception.ApplicationException;
 import com.service.main.repository.BidRequestRepository;
-import com.service.main.repository.ProductRepository;
 import com.service.main.service.BidRequestService;
 import com.service.main.service.UserServiceClient;
 import lombok.RequiredArgsConstructor;
@@ -28,7 +28,7 @@ public class BidRequestServiceImpl implements BidRequestService {
 
     private final BidRequestRepository bidRequestRepository;
     private final UserServiceClient userServiceClient;
-    private final ProductRepository productRepository;
+    private final ProductLookup productLookup;
 
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -58,7 +58,7 @@ public class BidRequestServiceImpl implements BidRequestService {
             throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Bidder not found");
         }
 
-        Product product = productRepository.findById(productId)
+        Product product = productLookup.find(productId)
                 .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
 
         if (!product.getSellerId().equals(sellerId)) {
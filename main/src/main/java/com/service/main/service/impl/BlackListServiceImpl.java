@@ -1,5 +1,6 @@
 package com.service.main.service.impl;
 
+import com.service.main.archive.ProductLookup;
 import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.BlackListResponse;
 import com.service.main.dto.UserInfo;
@@ -31,6 +32,7 @@ public class BlackListServiceImpl implements BlackListService {
     private final BlackListRepository blackListRepository;
     private final UserServiceClient userServiceClient;
     private final ProductRepository productRepository;
+    private final ProductLookup productLookup;
     private final AutoBidRepository autoBidRepository;
 
     @Override
@@ -47,7 +49,8 @@ public class BlackListServiceImpl implements BlackListService {
             throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "User not found");
         }
 
-        Product product = productRepository.findById(productId)
+        // auction da archive tra ve tu archive, luon roi vao nhanh "auction has ended" ben duoi nen khong bi save
+        Product product = productLookup.find(productId)
                 .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
 
         // Check if auction has ended
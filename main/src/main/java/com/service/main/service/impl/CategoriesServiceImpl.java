@@ -1,5 +1,7 @@
 package com.service.main.service.impl;
 
+import com.service.main.cache.CategoryStatsCache;
+import com.service.main.cache.CategoryTreeCache;
 import com.service.main.dto.createCategoriesRequest;
 import com.service.main.dto.updateCategoriesRequest;
 import com.service.main.entity.Categories;
@@ -22,6 +24,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoriesServiceImpl implements CategoriesService {
     private final CategoriesRepository categoriesRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryStatsCache categoryStatsCache;
 
     @Override
     public categoriesResponse createCategory(createCategoriesRequest request) {
@@ -47,6 +51,7 @@ public class CategoriesServiceImpl implements CategoriesService {
                 .build();
 
         Categories saved = categoriesRepository.save(category);
+        categoryTreeCache.rebuild();
         return new categoriesResponse(saved);
     }
 
@@ -61,6 +66,7 @@ public class CategoriesServiceImpl implements CategoriesService {
                 request.getName(),
                 request.getParent_id()
         );
+        categoryTreeCache.rebuild();
 
         return new categoriesResponse(updated);
     }
@@ -84,6 +90,9 @@ public class CategoriesServiceImpl implements CategoriesService {
             if (!categoriesRepository.existsById(parentId)) {
                 throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Parent category not found");
             }
+            if (categoryTreeCache.isDescendant(parentId, id)) {
+                throw new ApplicationException(ErrorCodes.INVALID_INPUT, "Parent category cannot be one of its descendants");
+            }
             category.setParent_id(parentId);
         }
 
@@ -150,6 +159,7 @@ public class CategoriesServiceImpl implements CategoriesService {
         }
 
         categoriesRepository.delete(category);
+        categoryTreeCache.rebuild();
     }
 
     @Override
@@ -160,13 +170,17 @@ public class CategoriesServiceImpl implements CategoriesService {
                 .toList();
     }
 
+    @Override
+    public String getCategoriesETag() {
+        return categoriesRepository.findETag();
+    }
+
     @Override
     public Long countProductsByCategory(Integer categoryId) {
         if (!categoriesRepository.existsById(categoryId)) {
             throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Category not found");
         }
-        Long count = categoriesRepository.countProductsByCategoryId(categoryId);
-        return count != null ? count : 0;
+        return categoryStatsCache.getProductCount(categoryId);
     }
 }
 
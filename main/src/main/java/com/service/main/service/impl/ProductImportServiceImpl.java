@@ -0,0 +1,164 @@
+package com.service.main.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.main.cache.CategoryStatsCache;
+import com.service.main.cache.CategoryTreeCache;
+import com.service.main.cache.DashboardStatsCache;
+import com.service.main.dto.ProductImportResult;
+import com.service.main.dto.createProductRequest;
+import com.service.main.exception.ApplicationException;
+import com.service.main.importer.CsvProductRowReader;
+import com.service.main.importer.NdjsonProductRowReader;
+import com.service.main.importer.ProductBatchWriter;
+import com.service.main.importer.ProductImportRow;
+import com.service.main.importer.ProductRowReader;
+import com.service.main.metrics.AuctionMetrics;
+import com.service.main.service.ProductImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Doc stream tung dong (khong load ca file vao memory), validate giong createProduct,
+ * gom dong hop le thanh chunk va ghi bang ProductBatchWriter. Moi chunk la 1 transaction,
+ * chunk loi khong lam mat cac chunk da ghi truoc do.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ProductBatchWriter productBatchWriter;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryStatsCache categoryStatsCache;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final AuctionMetrics auctionMetrics;
+
+    @Value("${product.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${product.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    public ProductImportResult importProducts(InputStream input, String contentType, Long sellerId) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        ProductRowReader rowReader = contentType != null && contentType.startsWith("text/csv")
+                ? new CsvProductRowReader(reader)
+                : new NdjsonProductRowReader(reader, objectMapper);
+
+        ImportState state = new ImportState();
+        List<ProductImportRow> chunk = new ArrayList<>(chunkSize);
+        ProductImportRow row;
+        while ((row = rowReader.next()) != null) {
+            state.totalRows++;
+            if (row.error() != null) {
+                state.fail(row.rowNumber(), row.error());
+                continue;
+            }
+
+            createProductRequest request = row.request();
+            request.setSellerId(sellerId);
+            String error = validate(request);
+            if (error != null) {
+                state.fail(row.rowNumber(), error);
+                continue;
+            }
+
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, state);
+            }
+        }
+        flush(chunk, state);
+
+        log.info("Seller {} imported {}/{} products", sellerId, state.importedRows, state.totalRows);
+        return ProductImportResult.builder()
+                .totalRows(state.totalRows)
+                .importedRows(state.importedRows)
+                .failedRows(state.failedRows)
+                .errors(state.errors)
+                .errorsTruncated(state.failedRows > state.errors.size())
+                .durationMs(System.currentTimeMillis() - startedAt)
+                .build();
+    }
+
+    private String validate(createProductRequest request) {
+        Set<ConstraintViolation<createProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            ProductServiceImpl.validatePrices(request);
+        } catch (ApplicationException e) {
+            return e.getMessage();
+        }
+        // dung cay category trong memory thay cho findAllById moi dong
+        for (Integer categoryId : request.getCategoryIds()) {
+            if (!categoryTreeCache.contains(categoryId)) {
+                return "Category " + categoryId + " does not exist";
+            }
+        }
+        return null;
+    }
+
+    private void flush(List<ProductImportRow> chunk, ImportState state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<createProductRequest> requests = chunk.stream().map(ProductImportRow::request).toList();
+        try {
+            List<Long> ids = productBatchWriter.write(requests, OffsetDateTime.now());
+            state.importedRows += requests.size();
+            auctionMetrics.recordProductsCreated(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                createProductRequest request = requests.get(i);
+                categoryStatsCache.onProductCreated(ids.get(i), new LinkedHashSet<>(request.getCategoryIds()),
+                        request.getEndAt());
+                dashboardStatsCache.onProductCreated(request.getStartPrice(), request.getEndAt());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to write import chunk of {} rows", chunk.size(), e);
+            for (ProductImportRow row : chunk) {
+                state.fail(row.rowNumber(), "Database error while writing chunk");
+            }
+        }
+        chunk.clear();
+    }
+
+    private final class ImportState {
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+        private final List<ProductImportResult.RowError> errors = new ArrayList<>();
+
+        private void fail(long rowNumber, String message) {
+            failedRows++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportResult.RowError(rowNumber, message));
+            }
+        }
+    }
+}
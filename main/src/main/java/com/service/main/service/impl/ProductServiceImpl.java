@@ -1,5 +1,12 @@
 package com.service.main.service.impl;
 
+import com.service.main.archive.ArchivedAuction;
+import com.service.main.archive.AuctionArchive;
+import com.service.main.archive.ProductLookup;
+import com.service.main.cache.CategoryStatsCache;
+import com.service.main.cache.CategoryTreeCache;
+import com.service.main.cache.DashboardStatsCache;
+import com.service.main.cache.ProductCardJsonCache;
 import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.ProductResponse;
 import com.service.main.dto.UserInfo;
@@ -11,20 +18,29 @@ import com.service.main.entity.ProductCategory;
 import com.service.main.entity.ProductDescription;
 import com.service.main.entity.ProductPicture;
 import com.service.main.exception.ApplicationException;
+import com.service.main.metrics.AuctionMetrics;
 import com.service.main.repository.CategoriesRepository;
 import com.service.main.repository.ProductCategoryRepository;
 import com.service.main.repository.ProductRepository;
 import com.service.main.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.service.main.service.UserServiceClient;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -36,14 +52,19 @@ public class ProductServiceImpl implements ProductService {
     private final CategoriesRepository categoriesRepository;
     private final ProductCategoryRepository productCategoryRepository;
     private final UserServiceClient userServiceClient;
+    private final ProductCardJsonCache productCardJsonCache;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryStatsCache categoryStatsCache;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final AuctionMetrics auctionMetrics;
+    private final AuctionArchive auctionArchive;
+    private final ProductLookup productLookup;
 
-    @Override
-    public Page<ProductResponse> getProductsByCategory(Integer categoryId, Pageable pageable) {
-        Page<Product> productPage = productRepository.findByCategoryId(categoryId, pageable);
-        return productPage.map(this::mapToProductResponse);
-    }
+    @Value("${product.etag.user-info-ttl-seconds:60}")
+    private long etagUserInfoTtlSeconds;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getActiveProductsBySellerId(Long sellerId, Pageable pageable) {
         OffsetDateTime now = OffsetDateTime.now();
         Page<Product> productPage = this.productRepository.findActiveWithFilters(now, null, sellerId, pageable);
@@ -51,19 +72,37 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getEndedProductsBySellerId(Long sellerId, Pageable pageable) {
         OffsetDateTime now = OffsetDateTime.now();
-        Page<Product> productPage = this.productRepository.findEndedWithFilters(now, null, sellerId, pageable);
-        return productPage.map(this::mapToProductResponse);
+        // thu tu co dinh trong query (created_at DESC), khong ap sort cua client len native query
+        Page<Long> idPage = this.productRepository.findEndedIdsBySellerIdIncludingArchived(now, sellerId,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+
+        Map<Long, Product> hot = new HashMap<>();
+        for (Product product : productRepository.findAllById(idPage.getContent())) {
+            hot.put(product.getId(), product);
+        }
+        List<ProductResponse> content = new ArrayList<>(idPage.getNumberOfElements());
+        for (Long id : idPage.getContent()) {
+            Optional<Product> product = hot.containsKey(id)
+                    ? Optional.of(hot.get(id))
+                    : auctionArchive.find(id).map(ArchivedAuction::toProduct);
+            product.map(this::mapToProductResponse).ifPresent(content::add);
+        }
+        return new PageImpl<>(content, pageable, idPage.getTotalElements());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsBySellerId(Long sellerId, Pageable pageable) {
         Page<Product> productPage = this.productRepository.findBySellerIdOrderByCreatedAtDesc(sellerId, pageable);
         return productPage.map(this::mapToProductResponse);
     }
 
+    // 1 transaction cho product, description, pictures va product_category: Hibernate flush 1 lan, gom insert thanh batch
     @Override
+    @Transactional
     public void createProduct(createProductRequest request) {
         validatePrices(request);
 
@@ -117,6 +156,9 @@ public class ProductServiceImpl implements ProductService {
             productCategoryRepository.saveAll(productCategories);
             savedProduct.setProductCategories(productCategories);
         }
+        categoryStatsCache.onProductCreated(savedProduct.getId(), distinctCategoryIds, savedProduct.getEndAt());
+        dashboardStatsCache.onProductCreated(savedProduct.getStartPrice(), savedProduct.getEndAt());
+        auctionMetrics.recordProductsCreated(1);
     }
 
     private Product buildProduct(createProductRequest request, OffsetDateTime now) {
@@ -143,15 +185,78 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProductResponse getProductById(Long productId) {
-        Product product = productRepository.findById(productId)
+        // auction trong archive da ket thuc va khong con thay doi, doc tu archive khong can vao DB
+        Product product = productLookup.find(productId)
                 .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
 
         return this.mapToProductResponse(product);
     }
 
     @Override
-    public List<ProductResponse> getTop5EndingSoon() {
+    @Transactional(readOnly = true)
+    public String getProductETag(Long productId) {
+        String etag = auctionArchive.contains(productId)
+                ? "archived-" + productId
+                : productRepository.findETagById(productId);
+        if (etag == null) {
+            return null;
+        }
+        // seller / top bidder (ten, avatar, danh gia) lay tu user service, khong nam trong hash:
+        // ETag doi sau moi user-info-ttl-seconds de 304 khong giu thong tin user cu mai mai
+        long window = System.currentTimeMillis() / (Math.max(1, etagUserInfoTtlSeconds) * 1000);
+        return etag + "-" + window;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<byte[]> getTop5EndingSoonCards() {
+        return findTop5EndingSoon().stream()
+                .map(this::toProductCardJson)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<byte[]> getTop5MostBiddedCards() {
+        return findTop5MostBidded().stream()
+                .map(this::toProductCardJson)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<byte[]> getTop5HighestCurrentPriceCards() {
+        return findTop5HighestCurrentPrice().stream()
+                .map(this::toProductCardJson)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<byte[]> getProductCardsByCategory(Integer categoryId, boolean includeSubcategories, Pageable pageable) {
+        Page<Product> productPage = includeSubcategories
+                ? productRepository.findByCategoryIdIn(categoryTreeCache.getSubtreeIds(categoryId), pageable)
+                : productRepository.findByCategoryId(categoryId, pageable);
+        return productPage.map(this::toProductCardJson);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<byte[]> getProductCardsByIds(List<Long> productIds) {
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
+
+        // giu nguyen thu tu cua productIds
+        return productIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(this::toProductCardJson)
+                .collect(Collectors.toList());
+    }
+
+    private List<Product> findTop5EndingSoon() {
         OffsetDateTime now = OffsetDateTime.now();
 
         List<Product> products = this.productRepository.findTopEndingSoon(now);
@@ -161,14 +266,10 @@ public class ProductServiceImpl implements ProductService {
         }
 
         // only take the first 5 product
-        return products.stream()
-                .limit(5)
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+        return products.stream().limit(5).toList();
     }
 
-    @Override
-    public List<ProductResponse> getTop5MostBidded() {
+    private List<Product> findTop5MostBidded() {
         OffsetDateTime now = OffsetDateTime.now();
         List<Product> products = this.productRepository.findTop5MostBidded(now);
 
@@ -176,14 +277,10 @@ public class ProductServiceImpl implements ProductService {
             throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "No product found");
         }
 
-        return products.stream()
-                .limit(5)
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+        return products.stream().limit(5).toList();
     }
 
-    @Override
-    public List<ProductResponse> getTop5HighestCurrentPrice() {
+    private List<Product> findTop5HighestCurrentPrice() {
         OffsetDateTime now = OffsetDateTime.now();
         List<Product> products = productRepository.findTop5HighestCurrentPrice(now);
 
@@ -191,10 +288,11 @@ public class ProductServiceImpl implements ProductService {
             throw new ApplicationException("PRODUCT_NOT_FOUND", "No product found with current price");
         }
 
-        return products.stream()
-                .limit(5)
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+        return products.stream().limit(5).toList();
+    }
+
+    private byte[] toProductCardJson(Product product) {
+        return productCardJsonCache.getOrEncode(product, this::mapToProductResponse);
     }
 
     private ProductResponse mapToProductResponse(Product product) {
@@ -284,7 +382,7 @@ public class ProductServiceImpl implements ProductService {
         return formattedUser;
     }
 
-    private void validatePrices(createProductRequest request) {
+    public static void validatePrices(createProductRequest request) {
         if (request.getBuyNowPrice() != null &&
                 request.getBuyNowPrice().compareTo(request.getStartPrice()) < 0) {
             throw new ApplicationException(ErrorCodes.INVALID_INPUT, "buyNowPrice must be greater than startPrice");
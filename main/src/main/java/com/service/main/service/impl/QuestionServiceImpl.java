@@ -1,5 +1,6 @@
 package com.service.main.service.impl;
 
+import com.service.main.archive.ProductLookup;
 import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.*;
 import com.service.main.entity.Answer;
@@ -7,7 +8,6 @@ import com.service.main.entity.Product;
 import com.service.main.entity.Question;
 import com.service.main.exception.ApplicationException;
 import com.service.main.repository.AnswerRepository;
-import com.service.main.repository.ProductRepository;
 import com.service.main.repository.QuestionRepository;
 import com.service.main.service.QuestionService;
 import com.service.main.service.UserServiceClient;
@@ -15,10 +15,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import static com.service.main.service.impl.ProductServiceImpl.formatUserInfo;
 
@@ -27,15 +32,16 @@ import static com.service.main.service.impl.ProductServiceImpl.formatUserInfo;
 public class QuestionServiceImpl implements QuestionService {
 
     private final QuestionRepository questionRepository;
-    private final ProductRepository productRepository;
+    private final ProductLookup productLookup;
     private final UserServiceClient userServiceClient;
     private final AnswerRepository answerRepository;
 
 
     @Override
     public QuestionResponse createQuestion(CreateQuestionRequest request, Long currentUserId) {
-        this.productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
+        if (!this.productLookup.exists(request.getProductId())) {
+            throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found");
+        }
 
         OffsetDateTime now = OffsetDateTime.now();
 
@@ -49,41 +55,55 @@ public class QuestionServiceImpl implements QuestionService {
 
         Question saved = questionRepository.save(question);
 
-        return this.mapToQuestionResponse(saved);
+        UserInfoResponse userRes = userServiceClient.getUserBasicInfo(currentUserId);
+        return this.mapToQuestionResponse(saved, List.of(),
+                userRes != null ? Map.of(currentUserId, userRes) : Map.of());
     }
 
+    /**
+     * 1 query cho trang question (phan trang trong SQL), 1 query cho answers cua trang
+     * va 1 lan goi batch user service cho tat ca tac gia, khong phu thuoc so question cua product.
+     */
     @Override
+    @Transactional(readOnly = true)
     public Page<QuestionResponse> getQuestionsByProductId(Long productId, Pageable pageable) {
-        if (!productRepository.existsById(productId)) {
+        if (!productLookup.exists(productId)) {
             throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found");
         }
 
-        Page<Question> questions = questionRepository.findByProductIdWithAnswers(productId, pageable);
+        Page<Question> questions = questionRepository.findPageByProductId(productId, pageable);
+        if (questions.isEmpty()) {
+            return questions.map(q -> mapToQuestionResponse(q, List.of(), Map.of()));
+        }
+
+        List<Long> questionIds = questions.getContent().stream().map(Question::getId).toList();
+        Map<Long, List<Answer>> answersByQuestion = new HashMap<>();
+        Set<Long> userIds = new HashSet<>();
+        for (Answer answer : answerRepository.findByQuestionIdIn(questionIds)) {
+            // question.getId() tren proxy lazy khong can load question
+            answersByQuestion.computeIfAbsent(answer.getQuestion().getId(), k -> new ArrayList<>()).add(answer);
+            userIds.add(answer.getUserId());
+        }
+        for (Question q : questions) {
+            userIds.add(q.getUserId());
+        }
+        Map<Long, UserInfoResponse> users = userServiceClient.getUserBasicInfoBatch(userIds);
 
-        return questions.map(this::mapToQuestionResponse);
+        return questions.map(q -> mapToQuestionResponse(q, answersByQuestion.getOrDefault(q.getId(), List.of()), users));
     }
 
-    private QuestionResponse mapToQuestionResponse(Question q) {
-        Long userId = q.getUserId();
-        UserInfoResponse res = this.userServiceClient.getUserBasicInfo(userId);
-        UserInfo user =  formatUserInfo(res);
-
-        // Map answers (đã được load sẵn nhờ JOIN FETCH)
-        List<AnswerResponse> answerDTOs = q.getAnswers().stream()
-                .map(answer -> {
-                    Long answerUserId = answer.getUserId();
-                    UserInfoResponse answerUserRes = userServiceClient.getUserBasicInfo(answerUserId);
-                    UserInfo answerUser = formatUserInfo(answerUserRes);
-
-                    return new AnswerResponse(
-                            answer.getId(),
-                            answerUser,
-                            q.getId(),
-                            answer.getContent(),
-                            answer.getCreatedAt(),
-                            answer.getUpdatedAt()
-                    );
-                })
+    private QuestionResponse mapToQuestionResponse(Question q, List<Answer> answers, Map<Long, UserInfoResponse> users) {
+        UserInfo user = formatUserInfo(users.get(q.getUserId()));
+
+        List<AnswerResponse> answerDTOs = answers.stream()
+                .map(answer -> new AnswerResponse(
+                        answer.getId(),
+                        formatUserInfo(users.get(answer.getUserId())),
+                        q.getId(),
+                        answer.getContent(),
+                        answer.getCreatedAt(),
+                        answer.getUpdatedAt()
+                ))
                 .toList();
 
         return new QuestionResponse(
@@ -1,6 +1,7 @@
 package com.service.main.service.impl;
 
 import com.service.main.dto.ApiResponse;
+import com.service.main.dto.UserInfo;
 import com.service.main.dto.UserInfoResponse;
 import com.service.main.service.UserServiceClient;
 import lombok.RequiredArgsConstructor;
@@ -19,11 +20,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserServiceClientImpl implements UserServiceClient {
     
+    // khop voi gioi han cua /api/user/internal/info/batch va /contacts/batch
+    private static final int BATCH_SIZE = 1000;
+
     private final RestTemplate restTemplate;
     
     @Value("${user.service.url}")
@@ -62,6 +72,42 @@ public class UserServiceClientImpl implements UserServiceClient {
         }
     }
     
+    @Override
+    public Map<Long, UserInfoResponse> getUserBasicInfoBatch(Collection<Long> userIds) {
+        Map<Long, UserInfoResponse> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        String url = userServiceUrl + "/api/user/internal/info/batch";
+        HttpHeaders headers = createHeadersWithAuth();
+
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            try {
+                ResponseEntity<ApiResponse<List<UserInfoResponse>>> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(chunk, headers),
+                        new ParameterizedTypeReference<>() {}
+                );
+
+                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null
+                        && response.getBody().getData() != null) {
+                    for (UserInfoResponse user : response.getBody().getData()) {
+                        result.put(user.getId(), user);
+                    }
+                } else {
+                    log.warn("Failed to get user basic info batch of {} ids, status: {}", chunk.size(), response.getStatusCode());
+                }
+            } catch (RestClientException e) {
+                log.error("Error calling user service for {} user ids", chunk.size(), e);
+            }
+        }
+        return result;
+    }
+
     private HttpHeaders createHeadersWithAuth() {
         HttpHeaders headers = new HttpHeaders();
         
@@ -93,17 +139,39 @@ public class UserServiceClientImpl implements UserServiceClient {
     }
 
     @Override
-    public com.service.main.dto.UserInfo getUserInfoById(Long userId) {
-        UserInfoResponse response = getUserBasicInfo(userId);
-        if (response == null) {
-            return null;
+    public Map<Long, UserInfo> getUserInfoBatch(Collection<Long> userIds) {
+        Map<Long, UserInfo> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
         }
-        return com.service.main.dto.UserInfo.builder()
-                .id(response.getId())
-                .fullname(response.getFullname())
-                .avatar(response.getAvatar())
-                .email(null) // UserInfoResponse doesn't have email, need to add if needed
-                .build();
+
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        String url = userServiceUrl + "/api/user/internal/contacts/batch";
+        HttpHeaders headers = createHeadersWithAuth();
+
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            try {
+                // UserContactResponse co them verified, UserInfo bo qua
+                ResponseEntity<ApiResponse<List<UserInfo>>> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(chunk, headers),
+                        new ParameterizedTypeReference<>() {}
+                );
+
+                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null
+                        && response.getBody().getData() != null) {
+                    for (UserInfo user : response.getBody().getData()) {
+                        result.put(user.getId(), user);
+                    }
+                } else {
+                    log.warn("Failed to get user info batch of {} ids, status: {}", chunk.size(), response.getStatusCode());
+                }
+            } catch (RestClientException e) {
+                log.error("Error calling user service contacts for {} user ids", chunk.size(), e);
+            }
+        }
+        return result;
     }
 }
-
@@ -1,23 +1,28 @@
 package com.service.main.service.impl;
 
+import com.service.main.archive.ProductLookup;
+import com.service.main.cache.WishlistBitmapIndex;
 import com.service.main.constants.ErrorCodes;
 import com.service.main.dto.UserInfo;
 import com.service.main.dto.UserInfoResponse;
 import com.service.main.dto.WishlistResponse;
 import com.service.main.entity.Wishlist;
 import com.service.main.exception.ApplicationException;
-import com.service.main.repository.ProductRepository;
 import com.service.main.repository.WishlistRepository;
 import com.service.main.service.UserServiceClient;
 import com.service.main.service.WishlistService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.service.main.service.impl.ProductServiceImpl.formatUserInfo;
@@ -26,9 +31,12 @@ import static com.service.main.service.impl.ProductServiceImpl.formatUserInfo;
 @RequiredArgsConstructor
 public class WishlistServiceImpl implements WishlistService {
 
+    private static final int MAX_BULK_IDS = 1000;
+
     private final WishlistRepository wishlistRepository;
-    private final ProductRepository productRepository;
+    private final ProductLookup productLookup;
     private final UserServiceClient userServiceClient;
+    private final WishlistBitmapIndex wishlistBitmapIndex;
 
     @Override
     @Transactional
@@ -38,10 +46,14 @@ public class WishlistServiceImpl implements WishlistService {
             throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "User not found");
         }
 
-        this.productRepository.findById(productId)
-                .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
+        if (!this.productLookup.exists(productId)) {
+            throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found");
+        }
 
-        boolean alreadyExists = this.wishlistRepository.existsByUserIdAndProductId(userId, productId);
+        // bitmap chi la cache cua instance nay (instance khac co the vua xoa), nen "co" phai xac nhan lai
+        // voi DB; "khong co" thi insert luon, trung lap dong thoi do unique index (user_id, product_id) chan
+        boolean alreadyExists = this.wishlistBitmapIndex.contains(userId, productId)
+                && this.wishlistRepository.existsByUserIdAndProductId(userId, productId);
         if (alreadyExists) {
             throw new ApplicationException(ErrorCodes.DUPLICATE_KEY, "Product is already in your wishlist");
         }
@@ -53,7 +65,13 @@ public class WishlistServiceImpl implements WishlistService {
                 .createdAt(now)
                 .build();
 
-        Wishlist savedWishlist = this.wishlistRepository.save(wishlist);
+        Wishlist savedWishlist;
+        try {
+            savedWishlist = this.wishlistRepository.saveAndFlush(wishlist);
+        } catch (DataIntegrityViolationException e) {
+            throw new ApplicationException(ErrorCodes.DUPLICATE_KEY, "Product is already in your wishlist");
+        }
+        this.wishlistBitmapIndex.onAdded(userId, productId);
         return this.mapToResponse(savedWishlist);
     }
 
@@ -83,8 +101,9 @@ public class WishlistServiceImpl implements WishlistService {
 
     @Override
     public Page<WishlistResponse> getWishlistsByProductId(Long productId, Pageable pageable) {
-        this.productRepository.findById(productId)
-                .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
+        if (!this.productLookup.exists(productId)) {
+            throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found");
+        }
 
         Page<Wishlist> wishlistPage = this.wishlistRepository.findByProductId(productId, pageable);
         return wishlistPage.map(this::mapToResponse);
@@ -98,13 +117,28 @@ public class WishlistServiceImpl implements WishlistService {
             throw new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "User not found");
         }
 
-        this.productRepository.findById(productId)
-                .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, "Product not found"));
-
+        // khong kiem tra product: auction da archive (hoac da xoa) van phai xoa duoc khoi wishlist
         Wishlist wishlist = this.wishlistRepository.findByUserIdAndProductId(userId, productId)
                 .orElseThrow(() -> new ApplicationException(ErrorCodes.RESOURCE_NOT_FOUND, 
                         "Wishlist item not found"));
         this.wishlistRepository.delete(wishlist);
+        this.wishlistBitmapIndex.onRemoved(userId, productId);
+    }
+
+    @Override
+    public Set<Long> filterWishlisted(Long userId, Collection<Long> productIds) {
+        if (productIds.size() > MAX_BULK_IDS) {
+            throw new ApplicationException(ErrorCodes.INVALID_INPUT, "At most " + MAX_BULK_IDS + " product ids are allowed");
+        }
+        return this.wishlistBitmapIndex.filterWishlisted(userId, productIds);
+    }
+
+    @Override
+    public Map<Long, Integer> countWatchers(Collection<Long> productIds) {
+        if (productIds.size() > MAX_BULK_IDS) {
+            throw new ApplicationException(ErrorCodes.INVALID_INPUT, "At most " + MAX_BULK_IDS + " product ids are allowed");
+        }
+        return this.wishlistBitmapIndex.countWatchers(productIds);
     }
 
     private WishlistResponse mapToResponse(Wishlist wishlist) {
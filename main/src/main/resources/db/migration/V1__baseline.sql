@@ -0,0 +1,180 @@
+-- Schema goc cua db2 (giong db2_script.sql). IF NOT EXISTS de DB da tao bang db2_script.sql
+-- (docker init) chay qua duoc ma khong doi gi.
+
+CREATE TABLE IF NOT EXISTS product (
+    id BIGSERIAL PRIMARY KEY,
+    product_name VARCHAR(255) NOT NULL,
+    thumbnail_url TEXT NOT NULL,
+    start_price DECIMAL(15, 5) NOT NULL,
+    current_price DECIMAL(15, 5),
+    top_bidder_id BIGINT,
+    seller_id BIGINT NOT NULL,
+    buy_now_price DECIMAL(15, 5),
+    minimum_bid_step DECIMAL(15, 5) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    end_at TIMESTAMPTZ NOT NULL,
+    auto_extend_enabled BOOLEAN NOT NULL,
+    bid_count INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS wishlist (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS blacklist (
+    id BIGSERIAL PRIMARY KEY,
+    bidder_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    created_by BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS auto_bids (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    bidder_id BIGINT NOT NULL,
+    max_price DECIMAL(15,5) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ,
+    UNIQUE (product_id, bidder_id)
+);
+
+CREATE TABLE IF NOT EXISTS bid_requests (
+    id BIGSERIAL PRIMARY KEY,
+    bidder_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    seller_id BIGINT NOT NULL,
+    verified BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_bid_requests_product_bidder UNIQUE (product_id, bidder_id)
+);
+
+CREATE TABLE IF NOT EXISTS bid_history (
+    id BIGSERIAL PRIMARY KEY,
+    bidder_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    price DECIMAL(15, 5) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    parent_id INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS product_descriptions (
+    id SERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    content TEXT NOT NULL,
+    created_by BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS product_category (
+    id BIGSERIAL PRIMARY KEY,
+    category_id INTEGER NOT NULL,
+    product_id BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS product_pictures (
+    id SERIAL PRIMARY KEY,
+    image_url TEXT NOT NULL,
+    product_id BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS category_stats (
+    category_id INTEGER PRIMARY KEY,
+    product_count BIGINT NOT NULL,
+    active_auction_count BIGINT NOT NULL,
+    swept_until TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS system_settings (
+    id SERIAL PRIMARY KEY,
+    key VARCHAR(100) UNIQUE,
+    value JSONB NOT NULL,
+    description TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_by BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_reviews (
+    id BIGSERIAL PRIMARY KEY,
+    bidder_id BIGINT,
+    seller_id BIGINT,
+    status SMALLINT DEFAULT 1,
+    comment TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS order_reviews (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT,
+    user_id BIGINT,
+    status SMALLINT DEFAULT 1,
+    comment TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS chat_messages (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT,
+    sender_id BIGINT,
+    message TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS answer (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    question_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ
+);
+
+CREATE TABLE IF NOT EXISTS questions (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT,
+    buyer_id BIGINT,
+    seller_id BIGINT,
+    amount DECIMAL(15,5) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    is_cancelled BOOLEAN DEFAULT FALSE,
+    has_shipping_address BOOLEAN DEFAULT FALSE,
+    cancelled_reason TEXT
+);
+
+CREATE TABLE IF NOT EXISTS order_shippings (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT,
+    shipping_address TEXT NOT NULL,
+    shipped_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    delivery_status SMALLINT DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS order_payments (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT,
+    payment_method SMALLINT DEFAULT 0,
+    bidder_payment_status SMALLINT DEFAULT 0,
+    seller_payment_status SMALLINT DEFAULT 0,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,19 @@
+-- Entity dung @SequenceGenerator(allocationSize = 50): moi nextval cap 1 khoang 50 id cho Hibernate
+-- (pooled optimizer), nen INCREMENT BY phai bang allocationSize. setval dua sequence qua id lon nhat,
+-- va khong bao gio lui sequence. DEFAULT nextval(...) cua cot giu nguyen, insert bang SQL thuong
+-- (vd. ProductBatchWriter) van khong trung id.
+
+ALTER SEQUENCE product_id_seq INCREMENT BY 50;
+SELECT setval('product_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM product), 0), (SELECT last_value FROM product_id_seq), 1));
+ALTER SEQUENCE product_pictures_id_seq INCREMENT BY 50;
+SELECT setval('product_pictures_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM product_pictures), 0), (SELECT last_value FROM product_pictures_id_seq), 1));
+ALTER SEQUENCE product_descriptions_id_seq INCREMENT BY 50;
+SELECT setval('product_descriptions_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM product_descriptions), 0), (SELECT last_value FROM product_descriptions_id_seq), 1));
+ALTER SEQUENCE product_category_id_seq INCREMENT BY 50;
+SELECT setval('product_category_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM product_category), 0), (SELECT last_value FROM product_category_id_seq), 1));
+ALTER SEQUENCE bid_history_id_seq INCREMENT BY 50;
+SELECT setval('bid_history_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM bid_history), 0), (SELECT last_value FROM bid_history_id_seq), 1));
+ALTER SEQUENCE auto_bids_id_seq INCREMENT BY 50;
+SELECT setval('auto_bids_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM auto_bids), 0), (SELECT last_value FROM auto_bids_id_seq), 1));
+ALTER SEQUENCE wishlist_id_seq INCREMENT BY 50;
+SELECT setval('wishlist_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM wishlist), 0), (SELECT last_value FROM wishlist_id_seq), 1));
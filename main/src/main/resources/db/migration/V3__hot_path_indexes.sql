@@ -0,0 +1,44 @@
+-- Index cho cac query trong repository. Ten index duoc HotPathIndexPlanTest kiem tra qua EXPLAIN.
+-- Luu y: partial index khong dung duoc now() (predicate phai immutable), nen "auction dang active"
+-- (end_at > now) di qua index tren end_at; partial index chi dung cho dieu kien co dinh.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- product
+-- findTopEndingSoon, count active/ended/ending soon, ActiveAuctionIndex (index-only scan nho INCLUDE)
+CREATE INDEX IF NOT EXISTS idx_product_end_at
+    ON product (end_at) INCLUDE (current_price, start_price, buy_now_price, bid_count, created_at);
+-- getProductsBySellerId, filter theo seller (active/ended)
+CREATE INDEX IF NOT EXISTS idx_product_seller_created_at ON product (seller_id, created_at DESC);
+-- findAllWithFilters / findTop10ByOrderByCreatedAtDesc
+CREATE INDEX IF NOT EXISTS idx_product_created_at ON product (created_at DESC);
+-- findTop5MostBidded
+CREATE INDEX IF NOT EXISTS idx_product_bid_count ON product (bid_count DESC, end_at);
+-- findTop5HighestCurrentPrice (query da co current_price IS NOT NULL nen dung duoc partial index)
+CREATE INDEX IF NOT EXISTS idx_product_current_price
+    ON product (current_price DESC, end_at) WHERE current_price IS NOT NULL;
+-- LOWER(product_name) LIKE '%...%'
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON product USING gin (lower(product_name) gin_trgm_ops);
+
+-- bid_history: lich su bid theo product (moi nhat truoc) va ETag count/max(id)
+CREATE INDEX IF NOT EXISTS idx_bid_history_product_created_at ON bid_history (product_id, created_at DESC);
+
+-- wishlist
+CREATE INDEX IF NOT EXISTS idx_wishlist_user_product ON wishlist (user_id, product_id);
+CREATE INDEX IF NOT EXISTS idx_wishlist_user_created_at ON wishlist (user_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_wishlist_product ON wishlist (product_id);
+
+-- product_category: listing theo category (va subtree) + load category cua product
+CREATE INDEX IF NOT EXISTS idx_product_category_category_product ON product_category (category_id, product_id);
+CREATE INDEX IF NOT EXISTS idx_product_category_product ON product_category (product_id);
+
+-- collection lazy cua Product
+CREATE INDEX IF NOT EXISTS idx_product_descriptions_product ON product_descriptions (product_id);
+CREATE INDEX IF NOT EXISTS idx_product_pictures_product ON product_pictures (product_id);
+
+-- questions / answer
+CREATE INDEX IF NOT EXISTS idx_questions_product_created_at ON questions (product_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_answer_question_created_at ON answer (question_id, created_at);
+
+-- blacklist: existsByBidderIdAndProductId, findByProductId
+CREATE INDEX IF NOT EXISTS idx_blacklist_product_bidder ON blacklist (product_id, bidder_id);
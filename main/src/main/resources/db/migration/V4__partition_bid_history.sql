@@ -0,0 +1,31 @@
+-- bid_history thanh bang partition theo thang cua created_at (UTC).
+-- Migration chi tao bang cha + partition DEFAULT va chep du lieu cu vao DEFAULT;
+-- BidHistoryPartitionManager se tach du lieu trong DEFAULT ra partition thang tuong ung
+-- va tao truoc partition cho cac thang sap toi.
+
+ALTER TABLE bid_history RENAME TO bid_history_legacy;
+ALTER INDEX idx_bid_history_product_created_at RENAME TO idx_bid_history_legacy_product_created_at;
+-- sequence dang thuoc cot id cua bang cu, phai tach ra truoc khi DROP bang cu
+ALTER SEQUENCE bid_history_id_seq OWNED BY NONE;
+
+-- khoa chinh cua bang partition phai chua cot partition
+CREATE TABLE bid_history (
+    id BIGINT NOT NULL DEFAULT nextval('bid_history_id_seq'),
+    bidder_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    price DECIMAL(15, 5) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE bid_history_id_seq OWNED BY bid_history.id;
+
+-- index tren bang cha duoc tao tu dong cho moi partition
+CREATE INDEX idx_bid_history_product_created_at ON bid_history (product_id, created_at DESC);
+
+CREATE TABLE bid_history_default PARTITION OF bid_history DEFAULT;
+
+INSERT INTO bid_history (id, bidder_id, product_id, price, created_at)
+SELECT id, bidder_id, product_id, price, created_at FROM bid_history_legacy;
+
+DROP TABLE bid_history_legacy;
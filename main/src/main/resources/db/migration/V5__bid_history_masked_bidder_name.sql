@@ -0,0 +1,7 @@
+-- Ten bidder da mask (vd. "**** *** A*h") luu cung bid luc dat, de trang bid history khong phai goi
+-- user service va mask lai tung dong. Them cot tren bang cha thi tat ca partition deu co.
+ALTER TABLE bid_history ADD COLUMN IF NOT EXISTS bidder_masked_name VARCHAR(255);
+
+-- Bid cu chua co ten: BidderMaskedNameBackfill dien dan theo bidder. Index partial nen rong ~0 sau khi xong.
+CREATE INDEX IF NOT EXISTS idx_bid_history_unmasked_bidder
+    ON bid_history (bidder_id) WHERE bidder_masked_name IS NULL;
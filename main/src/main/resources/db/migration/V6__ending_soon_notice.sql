@@ -0,0 +1,8 @@
+-- Product da duoc worker gui nhac "sap ket thuc" cho watcher (xem EndingSoonDigestJob trong worker).
+-- Worker claim product bang INSERT ... ON CONFLICT DO NOTHING nen moi product chi duoc nhac 1 lan.
+CREATE TABLE IF NOT EXISTS ending_soon_notice (
+    product_id  BIGINT PRIMARY KEY,
+    notified_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ending_soon_notice_notified_at ON ending_soon_notice (notified_at);
@@ -0,0 +1,8 @@
+-- Sequence cua product_descriptions va product_pictures da INCREMENT BY 50 (V2), moi insert lay
+-- DEFAULT nextval(...) (SQL thuong, script ngoai) dot ca 1 block 50 id. Cot id INTEGER se het id
+-- nhanh gap 50 lan, nen doi sang BIGINT giong cac bang con lai. Sequence mac dinh la AS integer
+-- (SERIAL), cung phai nang len bigint, neu khong se bao loi khi vuot 2^31.
+ALTER TABLE product_descriptions ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE product_descriptions_id_seq AS BIGINT;
+ALTER TABLE product_pictures ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE product_pictures_id_seq AS BIGINT;
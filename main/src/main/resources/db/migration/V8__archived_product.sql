@@ -0,0 +1,11 @@
+-- Thong tin toi thieu cua auction da chuyen sang AuctionArchive, de liet ke auction da ket thuc cua
+-- seller (va export ket qua) ma khong phai doc lai tung segment. AuctionArchiver ghi bang nay trong
+-- cung transaction xoa product khoi bang hot.
+CREATE TABLE IF NOT EXISTS archived_product (
+    product_id BIGINT PRIMARY KEY,
+    seller_id  BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL,
+    end_at     TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_archived_product_seller_created ON archived_product (seller_id, created_at DESC);
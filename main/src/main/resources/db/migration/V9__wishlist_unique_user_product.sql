@@ -0,0 +1,11 @@
+-- Moi user chi wishlist 1 product 1 lan. Truoc day chi check bang bitmap trong tung instance,
+-- 2 request dong thoi (hoac 2 instance) co the cung insert; giu dong cu nhat roi them unique index.
+DELETE FROM wishlist w
+USING wishlist older
+WHERE older.user_id = w.user_id
+  AND older.product_id = w.product_id
+  AND older.id < w.id;
+
+-- Thay index thuong cua V3 bang unique index cung cot (van dung cho findByUserIdAndProductId)
+DROP INDEX IF EXISTS idx_wishlist_user_product;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_wishlist_user_product ON wishlist (user_id, product_id);
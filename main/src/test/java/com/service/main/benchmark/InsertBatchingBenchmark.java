@@ -0,0 +1,148 @@
+package com.service.main.benchmark;
+
+import com.service.main.MainApplication;
+import com.service.main.dto.createProductRequest;
+import com.service.main.entity.BidHistory;
+import com.service.main.entity.Categories;
+import com.service.main.repository.BidHistoryRepository;
+import com.service.main.repository.CategoriesRepository;
+import com.service.main.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Do so statement JDBC moi thao tac ghi khi batch insert tat (batch_size=1) va bat (batch_size=50).
+ * Can Postgres that (datasource lay tu application.yaml, co the override bang -Dspring.datasource.url=...),
+ * schema da chay phan "pooled sequence ids" trong db2_script.sql va co it nhat 1 category.
+ * Chay truc tiep main() (classpath test) sau khi mvn test-compile. So statement / op in ra o TearDown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    private static final int BID_BURST_SIZE = 20;
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private BidHistoryRepository bidHistoryRepository;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Integer categoryId;
+    private long operations;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        // day cac job dinh ky ra xa de khong tinh statement cua chung vao ket qua
+                        "category-stats.sweep-interval-ms=3600000",
+                        "category-stats.persist-interval-ms=3600000",
+                        "auction-index.refresh-interval-ms=3600000",
+                        "dashboard-stats.refresh-interval-ms=3600000")
+                .run();
+        productService = context.getBean(ProductService.class);
+        bidHistoryRepository = context.getBean(BidHistoryRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        List<Categories> categories = context.getBean(CategoriesRepository.class).findAll();
+        if (categories.isEmpty()) {
+            throw new IllegalStateException("Benchmark needs at least one category");
+        }
+        categoryId = categories.get(0).getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        operations = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printStatistics() {
+        if (operations > 0) {
+            System.out.printf("%nbatch_size=%d: %.1f prepared statements / op (%d ops)%n",
+                    jdbcBatchSize, (double) statistics.getPrepareStatementCount() / operations, operations);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void createProductWithTenPictures() {
+        productService.createProduct(buildRequest());
+        operations++;
+    }
+
+    @Benchmark
+    public void bidHistoryBurst() {
+        Long productId = 1L;
+        OffsetDateTime now = OffsetDateTime.now();
+        List<BidHistory> burst = new ArrayList<>(BID_BURST_SIZE);
+        for (int i = 0; i < BID_BURST_SIZE; i++) {
+            burst.add(BidHistory.builder()
+                    .productId(productId)
+                    .bidderId(1000L + i)
+                    .price(BigDecimal.valueOf(100 + i))
+                    .createdAt(now)
+                    .build());
+        }
+        transactionTemplate.executeWithoutResult(status -> bidHistoryRepository.saveAll(burst));
+        operations++;
+    }
+
+    private createProductRequest buildRequest() {
+        createProductRequest request = new createProductRequest();
+        request.setProductName("Benchmark product");
+        request.setThumbnailUrl("https://cdn.example.com/p/thumb.jpg");
+        request.setStartPrice(new BigDecimal("100.00000"));
+        request.setMinimumBidStep(new BigDecimal("5.00000"));
+        request.setEndAt(OffsetDateTime.now().plusDays(3));
+        request.setAutoExtendEnabled(true);
+        request.setDescriptionContent("Benchmark description");
+        request.setSellerId(1L);
+        request.setCategoryIds(List.of(categoryId));
+        List<String> pictureUrls = new ArrayList<>();
+        for (int p = 1; p <= 10; p++) {
+            pictureUrls.add("https://cdn.example.com/p/" + p + ".jpg");
+        }
+        request.setPictureUrls(pictureUrls);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InsertBatchingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.service.main.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.main.cache.ProductCardJsonCache;
+import com.service.main.dto.ApiResponse;
+import com.service.main.dto.PageResponse;
+import com.service.main.dto.ProductResponse;
+import com.service.main.dto.UserInfo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sanh serialize PageResponse<ProductResponse> bang Jackson voi viec ghep JSON card da cache san.
+ * Chay truc tiep main() (classpath test) sau khi mvn test-compile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductCardSerializationBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ProductCardJsonCache cardCache;
+    private PageResponse<ProductResponse> pageResponse;
+    private PageImpl<byte[]> cachedPage;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cardCache = new ProductCardJsonCache(objectMapper);
+
+        List<ProductResponse> products = new ArrayList<>();
+        List<byte[]> cards = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            ProductResponse product = buildProduct(i);
+            products.add(product);
+            cards.add(objectMapper.writeValueAsBytes(product));
+        }
+
+        pageResponse = PageResponse.<ProductResponse>builder()
+                .content(products)
+                .page(0)
+                .size(pageSize)
+                .totalElements(1000)
+                .totalPages(1000 / pageSize)
+                .first(true)
+                .last(false)
+                .build();
+        cachedPage = new PageImpl<>(cards, PageRequest.of(0, pageSize), 1000);
+    }
+
+    @Benchmark
+    public byte[] jacksonPageResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(new ApiResponse<>("Products retrieved successfully", pageResponse));
+    }
+
+    @Benchmark
+    public byte[] splicedCachedCards() {
+        return cardCache.writePage("Products retrieved successfully", cachedPage);
+    }
+
+    private static ProductResponse buildProduct(long id) {
+        OffsetDateTime now = OffsetDateTime.now();
+        UserInfo seller = UserInfo.builder()
+                .id(100 + id)
+                .fullname("Nguyen Van Seller " + id)
+                .avatar("https://cdn.example.com/avatar/" + id + ".png")
+                .assessment(9.2)
+                .build();
+
+        List<ProductResponse.CategoryInfo> categories = List.of(
+                new ProductResponse.CategoryInfo(1, "Electronics", null),
+                new ProductResponse.CategoryInfo(12, "Phones", 1)
+        );
+        List<ProductResponse.DescriptionInfo> descriptions = List.of(
+                new ProductResponse.DescriptionInfo(1L, "Brand new, sealed box. ".repeat(20), now, 100 + id),
+                new ProductResponse.DescriptionInfo(2L, "Added warranty card.", now, 100 + id)
+        );
+        List<ProductResponse.PictureInfo> pictures = new ArrayList<>();
+        for (int p = 1; p <= 5; p++) {
+            pictures.add(new ProductResponse.PictureInfo((long) p, "https://cdn.example.com/p/" + id + "/" + p + ".jpg", now));
+        }
+
+        return new ProductResponse(
+                id,
+                "Product " + id,
+                "https://cdn.example.com/p/" + id + "/thumb.jpg",
+                new BigDecimal("100.00000"),
+                new BigDecimal("150.50000"),
+                new BigDecimal("500.00000"),
+                new BigDecimal("5.00000"),
+                seller,
+                null,
+                true,
+                12,
+                now,
+                now.plusDays(3),
+                categories,
+                descriptions,
+                pictures
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ProductCardSerializationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
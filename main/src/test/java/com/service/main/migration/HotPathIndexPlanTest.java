@@ -0,0 +1,170 @@
+package com.service.main.migration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Chay migration len 1 Postgres that roi EXPLAIN cac query cua repository (SQL tuong duong voi JPQL)
+ * de chac chan index trong V3__hot_path_indexes.sql dung duoc, va query bid_history chi quet partition can thiet.
+ * Bo qua neu khong co -Dmigration.test.url=jdbc:postgresql://... (them -Dmigration.test.username/password).
+ * enable_seqscan = off de planner khong chon seq scan chi vi bang test it du lieu.
+ */
+class HotPathIndexPlanTest {
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        String url = System.getProperty("migration.test.url");
+        assumeTrue(url != null, "migration.test.url is not set");
+
+        DriverManagerDataSource dataSource = dataSource();
+        new SchemaMigrator(dataSource, "classpath*:db/migration").migrate();
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void close() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void productQueries() throws Exception {
+        // findTopEndingSoon
+        assertUsesIndex("SELECT * FROM product p WHERE p.end_at > now() ORDER BY p.end_at LIMIT 5",
+                "idx_product_end_at");
+        // findActiveAuctionColumns (index-only scan)
+        assertUsesIndex("""
+                SELECT p.id, p.current_price, p.start_price, p.buy_now_price, p.bid_count, p.end_at, p.created_at
+                FROM product p WHERE p.end_at > now()
+                """, "idx_product_end_at");
+        // findTop5MostBidded, findTop5HighestCurrentPrice
+        assertUsesIndex("SELECT * FROM product p WHERE p.end_at > now() ORDER BY p.bid_count DESC LIMIT 5",
+                "idx_product_bid_count");
+        assertUsesIndex("""
+                SELECT * FROM product p WHERE p.end_at > now() AND p.current_price IS NOT NULL
+                ORDER BY p.current_price DESC LIMIT 5
+                """, "idx_product_current_price");
+        // findBySellerIdOrderByCreatedAtDesc, findTop10ByOrderByCreatedAtDesc
+        assertUsesIndex("SELECT * FROM product p WHERE p.seller_id = 1 ORDER BY p.created_at DESC LIMIT 10",
+                "idx_product_seller_created_at");
+        assertUsesIndex("SELECT * FROM product p ORDER BY p.created_at DESC LIMIT 10", "idx_product_created_at");
+        // findEndedIdsBySellerIdIncludingArchived: nhanh archived_product
+        assertUsesIndex("SELECT a.product_id FROM archived_product a WHERE a.seller_id = 1 ORDER BY a.created_at DESC LIMIT 10",
+                "idx_archived_product_seller_created");
+        // findAllWithFilters (search)
+        assertUsesIndex("SELECT * FROM product p WHERE lower(p.product_name) LIKE lower('%iphone%')",
+                "idx_product_name_trgm");
+    }
+
+    @Test
+    void productChildQueries() throws Exception {
+        // findByCategoryIdIn
+        assertUsesIndex("""
+                SELECT * FROM product p WHERE EXISTS (
+                    SELECT 1 FROM product_category pc WHERE pc.product_id = p.id AND pc.category_id IN (1, 2, 3))
+                """, "idx_product_category_category_product", "idx_product_category_product");
+        assertUsesIndex("SELECT * FROM product_category pc WHERE pc.product_id = 1", "idx_product_category_product");
+        assertUsesIndex("SELECT * FROM product_descriptions d WHERE d.product_id = 1",
+                "idx_product_descriptions_product");
+        assertUsesIndex("SELECT * FROM product_pictures pp WHERE pp.product_id = 1", "idx_product_pictures_product");
+    }
+
+    @Test
+    void bidHistoryQueries() throws Exception {
+        // bid_history la bang partition: index cua tung partition co ten tu sinh <partition>_product_id_created_at_idx
+        assertUsesIndex("SELECT * FROM bid_history bh WHERE bh.product_id = 1 ORDER BY bh.created_at DESC LIMIT 20",
+                "product_id_created_at_idx");
+        assertUsesIndex("SELECT count(*), max(id) FROM bid_history WHERE product_id = 1",
+                "product_id_created_at_idx");
+    }
+
+    @Test
+    void bidHistoryQueriesPruneOldPartitions() throws Exception {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        YearMonth old = current.minusMonths(6);
+        try (Statement statement = connection.createStatement()) {
+            // row cu roi vao DEFAULT, partition manager se tach ra partition cua thang do
+            statement.execute("INSERT INTO bid_history (bidder_id, product_id, price, created_at) VALUES (1, 1, 10, '"
+                    + old.atDay(15).atStartOfDay().toInstant(ZoneOffset.UTC) + "')");
+        }
+        DriverManagerDataSource dataSource = dataSource();
+        new BidHistoryPartitionManager(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource))).maintain();
+
+        String oldPartition = BidHistoryPartitionManager.partitionName(old);
+        String currentPartition = BidHistoryPartitionManager.partitionName(current);
+        String plan = explain("SELECT * FROM bid_history bh WHERE bh.product_id = 1 AND bh.created_at >= '"
+                + current.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC) + "' ORDER BY bh.created_at DESC");
+        assertTrue(plan.contains(currentPartition), plan);
+        assertFalse(plan.contains(oldPartition), plan);
+    }
+
+    @Test
+    void wishlistQueries() throws Exception {
+        assertUsesIndex("SELECT * FROM wishlist w WHERE w.user_id = 1 AND w.product_id = 2",
+                "uq_wishlist_user_product");
+        assertUsesIndex("SELECT * FROM wishlist w WHERE w.user_id = 1 ORDER BY w.created_at DESC",
+                "idx_wishlist_user_created_at");
+        assertUsesIndex("SELECT * FROM wishlist w WHERE w.product_id = 1", "idx_wishlist_product");
+    }
+
+    @Test
+    void questionQueries() throws Exception {
+        assertUsesIndex("SELECT * FROM questions q WHERE q.product_id = 1 ORDER BY q.created_at DESC LIMIT 10",
+                "idx_questions_product_created_at");
+        assertUsesIndex("SELECT * FROM answer a WHERE a.question_id = 1 ORDER BY a.created_at",
+                "idx_answer_question_created_at");
+    }
+
+    @Test
+    void blacklistQueries() throws Exception {
+        assertUsesIndex("SELECT 1 FROM blacklist b WHERE b.bidder_id = 1 AND b.product_id = 2",
+                "idx_blacklist_product_bidder");
+    }
+
+    private static DriverManagerDataSource dataSource() {
+        return new DriverManagerDataSource(System.getProperty("migration.test.url"),
+                System.getProperty("migration.test.username", "user"),
+                System.getProperty("migration.test.password", "123"));
+    }
+
+    private static String explain(String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static void assertUsesIndex(String sql, String... indexNames) throws Exception {
+        String plan = explain(sql);
+        boolean used = Arrays.stream(indexNames).anyMatch(plan::contains);
+        assertTrue(used, "Expected one of " + Arrays.toString(indexNames) + " in plan of:\n" + sql + "\n" + plan);
+    }
+}
@@ -22,6 +22,7 @@ public class ErrorCodes {
     public static final String OTP_MAX_RETRY_EXCEEDED = "OTP_MAX_RETRY_EXCEEDED";
     public static final String INVALID_ROLE = "INVALID_ROLE";
     public static final String CANNOT_DELETE_ADMIN = "CANNOT_DELETE_ADMIN";
+    public static final String TOO_MANY_REQUESTS = "TOO_MANY_REQUESTS";
     
     // Seller Request Error Codes
     public static final String SELLER_REQUEST_NOT_FOUND = "SELLER_REQUEST_NOT_FOUND";
@@ -14,5 +14,6 @@ public class ErrorMessages {
     public static final String OTP_ALREADY_USED = "OTP code has already been used";
     public static final String OTP_EXPIRED = "OTP code has expired";
     public static final String OTP_INVALID = "Invalid OTP code";
+    public static final String OTP_MAX_RETRY_EXCEEDED = "Too many invalid OTP attempts, please try again later";
 }
 
@@ -2,6 +2,7 @@ package com.service.user.controller;
 
 import com.service.user.dto.AdminDashboardUserStats;
 import com.service.user.dto.ApiResponse;
+import com.service.user.dto.PasswordHashingStats;
 import com.service.user.dto.RecentUserDTO;
 import com.service.user.service.AdminDashboardService;
 import lombok.RequiredArgsConstructor;
@@ -42,4 +43,13 @@ public class AdminDashboardController {
         List<RecentUserDTO> recentUsers = adminDashboardService.getRecentUsers(limit);
         return ResponseEntity.ok(new ApiResponse<>("Get recent users successfully", recentUsers));
     }
+
+    /**
+     * Get password hashing pool metrics (cost, queue depth, hash duration)
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<?> getPasswordHashingStats() {
+        PasswordHashingStats stats = adminDashboardService.getPasswordHashingStats();
+        return ResponseEntity.ok(new ApiResponse<>("Get password hashing stats successfully", stats));
+    }
 }
@@ -6,16 +6,19 @@ import com.service.user.dto.UpdateAvatarRequest;
 import com.service.user.dto.UpdateEmailRequest;
 import com.service.user.dto.UpdateFullnameRequest;
 import com.service.user.dto.UpdatePasswordRequest;
+import com.service.user.dto.UserContactResponse;
 import com.service.user.dto.UserInfoResponse;
-import com.service.user.dto.UserListResponse;
 import com.service.user.dto.UserProfileResponse;
 import com.service.user.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -36,12 +39,35 @@ public class UserController {
                 .body(new ApiResponse<>("Get user basic info successfully", res));
     }
 
+    @PostMapping("/info/batch")
+    public ResponseEntity<?> getUserBasicInfoBatch(
+            @RequestBody List<Long> userIds
+    ) {
+        List<UserInfoResponse> res = userService.getUserBasicInfoBatch(userIds);
+        return ResponseEntity
+                .status(200)
+                .body(new ApiResponse<>("Get user basic info successfully", res));
+    }
+
+    // co email nen chi cho service noi bo (worker goi voi role SYSTEM) va admin
+    @PostMapping("/contacts/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SYSTEM')")
+    public ResponseEntity<?> getUserContactsBatch(
+            @RequestBody List<Long> userIds
+    ) {
+        List<UserContactResponse> res = userService.getUserContactsBatch(userIds);
+        return ResponseEntity
+                .status(200)
+                .body(new ApiResponse<>("Get user contacts successfully", res));
+    }
+
+    // body giong ApiResponse<List<UserListResponse>> nhung duoc ghi dan tren thread async cua MVC
     @GetMapping("/all")
-    public ResponseEntity<?> getAllUsers() {
-        List<UserListResponse> users = userService.getAllUsers();
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
         return ResponseEntity
                 .status(200)
-                .body(new ApiResponse<>("Get all users successfully", users));
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> userService.writeAllUsers("Get all users successfully", out));
     }
 
     @GetMapping("/profile")
@@ -0,0 +1,26 @@
+package com.service.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PasswordHashingStats {
+    private Integer cost;
+    private Integer threads;
+    private Integer activeThreads;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long completed;
+    private Long rejected;
+    private Long timedOut;
+    private Long rehashed;
+    private Double avgHashMs;
+    private Double maxHashMs;
+    private Double avgWaitMs;
+    private Double maxWaitMs;
+}
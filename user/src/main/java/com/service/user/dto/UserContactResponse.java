@@ -0,0 +1,19 @@
+package com.service.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thong tin lien lac cua user cho service noi bo (gui mail, trang admin). Khong tra ve cho user thuong.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContactResponse {
+    private Long id;
+    private String email;
+    private String fullname;
+    private String avatar;
+    private Boolean verified;
+}
@@ -34,6 +34,14 @@ public class OtpCode {
     @Column(name = "expires_at", nullable = false)
     private LocalDateTime expiresAt;
 
+    // so lan nhap sai trong cua so hien tai, ve 0 khi bi khoa
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
     @Column(name = "used", nullable = false)
     @Builder.Default
     private Boolean used = false;
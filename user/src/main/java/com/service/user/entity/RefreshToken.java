@@ -22,8 +22,9 @@ public class RefreshToken {
     @Column(nullable = false)
     private Long user_id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 cua JWT, khong luu chuoi token (xem RefreshTokenStore)
+    @Column(name = "token_hash", nullable = false, unique = true, columnDefinition = "bytea")
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private LocalDateTime expiresAt;
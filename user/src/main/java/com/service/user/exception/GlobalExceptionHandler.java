@@ -1,6 +1,8 @@
 package com.service.user.exception;
 
+import com.service.user.constants.ErrorCodes;
 import com.service.user.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -35,6 +37,14 @@ public class GlobalExceptionHandler {
         Map<String, Object> errorData = new HashMap<>();
         errorData.put("errorCode", ex.getErrorCode());
 
+        // pool hash password day (xem PasswordHasher): client nen thu lai sau
+        if (ErrorCodes.TOO_MANY_REQUESTS.equals(ex.getErrorCode())) {
+            return ResponseEntity
+                    .status(429)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiResponse<>(ex.getMessage(), errorData));
+        }
+
         return ResponseEntity
                 .status(400)
                 .body(new ApiResponse<>(ex.getMessage(), errorData));
@@ -0,0 +1,31 @@
+package com.service.user.migration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+
+/**
+ * Migration chay truoc khi tao EntityManagerFactory, nen repository luon thay schema moi nhat.
+ */
+@Configuration
+@ConditionalOnProperty(name = "migration.enabled", matchIfMissing = true)
+@Import(MigrationConfig.EntityManagerFactoryDependsOnMigration.class)
+public class MigrationConfig {
+
+    @Bean
+    public SchemaMigrator schemaMigrator(DataSource dataSource,
+                                         @Value("${migration.location:classpath*:db/migration}") String location) {
+        return new SchemaMigrator(dataSource, location);
+    }
+
+    static class EntityManagerFactoryDependsOnMigration extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependsOnMigration() {
+            super(SchemaMigrator.class);
+        }
+    }
+}
@@ -2,10 +2,13 @@ package com.service.user.repository;
 
 import com.service.user.entity.OtpCode;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -21,4 +24,24 @@ public interface OtpCodeRepository extends JpaRepository<OtpCode, Long> {
     Optional<OtpCode> findLatestActiveOtp(
             @Param("userId") Long userId,
             @Param("email") String email);
+
+    /**
+     * Giu 1 luot thu truoc khi so sanh OTP. Tra ve 0 neu OTP dang bi khoa hoac da het luot,
+     * UPDATE co dieu kien nen request song song cung khong vuot qua maxAttempts.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE OtpCode o
+                SET o.attempts = o.attempts + 1
+                WHERE o.id = :id
+                  AND o.attempts < :maxAttempts
+                  AND (o.lockedUntil IS NULL OR o.lockedUntil <= :now)
+            """)
+    int reserveAttempt(@Param("id") Long id, @Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OtpCode o SET o.attempts = 0, o.lockedUntil = :lockedUntil WHERE o.id = :id")
+    int lock(@Param("id") Long id, @Param("lockedUntil") LocalDateTime lockedUntil);
 }
@@ -5,8 +5,6 @@ import com.service.user.entity.SellerRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,9 +31,4 @@ public interface SellerRequestRepository extends JpaRepository<SellerRequest, Lo
     
     // Count by status
     long countByStatus(SellerRequestStatus status);
-    
-    // Search by user email or business name
-    @Query("SELECT sr FROM SellerRequest sr WHERE sr.userId IN " +
-            "(SELECT u.id FROM User u WHERE LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<SellerRequest> searchByUserEmail(@Param("keyword") String keyword, Pageable pageable);
 }
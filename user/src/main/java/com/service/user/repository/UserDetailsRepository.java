@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,10 +13,8 @@ public interface UserDetailsRepository extends JpaRepository<UserDetails, Long>
     @Query("SELECT ud FROM UserDetails ud WHERE ud.user_id = :userId")
     Optional<UserDetails> findByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT ud.user_id FROM UserDetails ud WHERE " +
-            "LOWER(ud.fullname) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(ud.address) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Long> searchUserIdsByKeyword(@Param("keyword") String keyword);
+    @Query("SELECT ud FROM UserDetails ud WHERE ud.user_id IN :userIds")
+    List<UserDetails> findByUserIdIn(@Param("userIds") Collection<Long> userIds);
 
     // Dashboard queries
     @Query("SELECT COUNT(ud) FROM UserDetails ud WHERE ud.verified = true")
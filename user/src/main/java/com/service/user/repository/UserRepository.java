@@ -5,30 +5,54 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.service.user.dto.RecentUserDTO;
+import com.service.user.dto.UserContactResponse;
+import com.service.user.dto.UserListResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // User + UserDetails trong 1 query (LEFT JOIN vi user co the chua co details)
+    String USER_LIST_SELECT = "SELECT new com.service.user.dto.UserListResponse(u.id, u.email, u.role, " +
+            "ud.fullname, ud.avatar, ud.address, ud.verified, ud.like_count, ud.dislike_count, ud.created_at) " +
+            "FROM User u LEFT JOIN UserDetails ud ON ud.user_id = u.id ";
+
     Optional<User> findByEmail(String email);
 
-    @Query("SELECT u FROM User u WHERE " +
-            "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(u.role) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<User> searchUsers(@Param("keyword") String keyword, Pageable pageable);
+    @Query(value = USER_LIST_SELECT + "ORDER BY u.id DESC",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserListResponse> findUserListPage(Pageable pageable);
+
+    @Query(value = USER_LIST_SELECT + "WHERE u.role = :role ORDER BY u.id DESC",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.role = :role")
+    Page<UserListResponse> findUserListPageByRole(@Param("role") String role, Pageable pageable);
 
-    @Query("SELECT u FROM User u WHERE u.role = :role")
-    Page<User> findByRole(@Param("role") String role, Pageable pageable);
+    @Query(USER_LIST_SELECT + "WHERE u.id = :userId")
+    Optional<UserListResponse> findUserListById(@Param("userId") Long userId);
+
+    // Stream phai duoc doc het va dong trong 1 transaction; fetch size de Postgres tra ve theo cursor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(USER_LIST_SELECT + "ORDER BY u.id")
+    Stream<UserListResponse> streamUserList();
+
+    @Query("SELECT new com.service.user.dto.UserContactResponse(u.id, u.email, ud.fullname, ud.avatar, ud.verified) " +
+            "FROM User u LEFT JOIN UserDetails ud ON ud.user_id = u.id WHERE u.id IN :userIds")
+    List<UserContactResponse> findContactsByIdIn(@Param("userIds") Collection<Long> userIds);
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(@Param("role") String role);
 
-    @Query("SELECT u FROM User u WHERE u.id IN :ids OR " +
-            "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(u.role) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<User> searchUsersWithIds(@Param("ids") List<Long> ids, @Param("keyword") String keyword, Pageable pageable);
-
     // Dashboard queries
-    List<User> findTop10ByOrderByIdDesc();
+    @Query("SELECT new com.service.user.dto.RecentUserDTO(u.id, u.email, ud.fullname, ud.avatar, u.role, " +
+            "ud.verified, ud.created_at) " +
+            "FROM User u LEFT JOIN UserDetails ud ON ud.user_id = u.id ORDER BY u.id DESC")
+    List<RecentUserDTO> findRecentUsers(Pageable pageable);
 }
@@ -0,0 +1,131 @@
+package com.service.user.repository;
+
+import com.service.user.dto.UserListResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tim kiem user cho admin tren email, fullname, address (va role khi keyword dung bang ten role).
+ * Moi cot dung index trigram trong V2__hot_path_indexes.sql: LIKE '%keyword%' cho match chinh xac,
+ * toan tu <% (word similarity, nguong pg_trgm.word_similarity_threshold, mac dinh 0.6) cho keyword go sai.
+ * Ket qua xep theo diem: match chinh xac duoc cong 1, sau do la word_similarity cao nhat trong cac cot.
+ * Trang ket qua va tong so dong (count(*) OVER ()) lay trong 1 query, khong phu thuoc so user match.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserSearchRepository {
+
+    private static final String RANKED_USERS = """
+            WITH matches AS (
+                SELECT u.id AS user_id,
+                       CASE WHEN lower(u.email) LIKE :pattern THEN 1 ELSE 0 END
+                           + word_similarity(:keyword, lower(u.email)) AS score
+                FROM users u
+                WHERE lower(u.email) LIKE :pattern OR :keyword <% lower(u.email)
+                UNION ALL
+                SELECT ud.user_id,
+                       CASE WHEN lower(ud.fullname) LIKE :pattern THEN 1 ELSE 0 END
+                           + word_similarity(:keyword, lower(ud.fullname))
+                FROM user_details ud
+                WHERE lower(ud.fullname) LIKE :pattern OR :keyword <% lower(ud.fullname)
+                UNION ALL
+                SELECT ud.user_id,
+                       CASE WHEN lower(ud.address) LIKE :pattern THEN 1 ELSE 0 END
+                           + word_similarity(:keyword, lower(ud.address))
+                FROM user_details ud
+                WHERE lower(ud.address) LIKE :pattern OR :keyword <% lower(ud.address)
+                UNION ALL
+                SELECT u.id, 1 FROM users u WHERE u.role = upper(:keyword)
+            ), ranked AS (
+                SELECT user_id, max(score) AS score FROM matches GROUP BY user_id
+            )
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Page<UserListResponse> searchUsers(String keyword, Pageable pageable) {
+        MapSqlParameterSource params = params(keyword, pageable);
+        long[] total = {-1};
+        List<UserListResponse> content = jdbcTemplate.query(RANKED_USERS + """
+                SELECT u.id, u.email, u.role, ud.fullname, ud.avatar, ud.address, ud.verified,
+                       ud.like_count, ud.dislike_count, ud.created_at, count(*) OVER () AS total
+                FROM ranked r
+                JOIN users u ON u.id = r.user_id
+                LEFT JOIN user_details ud ON ud.user_id = u.id
+                ORDER BY r.score DESC, u.id DESC
+                LIMIT :limit OFFSET :offset
+                """, params, (rs, rowNum) -> {
+            total[0] = rs.getLong("total");
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            return UserListResponse.builder()
+                    .id(rs.getLong("id"))
+                    .email(rs.getString("email"))
+                    .role(rs.getString("role"))
+                    .fullname(rs.getString("fullname"))
+                    .avatar(rs.getString("avatar"))
+                    .address(rs.getString("address"))
+                    .verified(rs.getObject("verified", Boolean.class))
+                    .likeCount(rs.getObject("like_count", Integer.class))
+                    .dislikeCount(rs.getObject("dislike_count", Integer.class))
+                    .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                    .build();
+        });
+        return new PageImpl<>(content, pageable, total(total[0], pageable, params, "SELECT count(*) FROM ranked"));
+    }
+
+    /**
+     * Id cua seller request co user match keyword, user match tot hon truoc, roi request moi hon truoc.
+     */
+    public Page<Long> searchSellerRequestIds(String keyword, Pageable pageable) {
+        MapSqlParameterSource params = params(keyword, pageable);
+        long[] total = {-1};
+        List<Long> ids = new ArrayList<>(pageable.getPageSize());
+        jdbcTemplate.query(RANKED_USERS + """
+                SELECT sr.id, count(*) OVER () AS total
+                FROM ranked r
+                JOIN seller_requests sr ON sr.user_id = r.user_id
+                ORDER BY r.score DESC, sr.created_at DESC, sr.id DESC
+                LIMIT :limit OFFSET :offset
+                """, params, rs -> {
+            total[0] = rs.getLong("total");
+            ids.add(rs.getLong("id"));
+        });
+        return new PageImpl<>(ids, pageable, total(total[0], pageable, params,
+                "SELECT count(*) FROM ranked r JOIN seller_requests sr ON sr.user_id = r.user_id"));
+    }
+
+    private static MapSqlParameterSource params(String keyword, Pageable pageable) {
+        String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+        return new MapSqlParameterSource()
+                .addValue("keyword", normalized)
+                .addValue("pattern", "%" + escapeLike(normalized) + "%")
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+    }
+
+    private long total(long fromWindow, Pageable pageable, MapSqlParameterSource params, String countSql) {
+        if (fromWindow >= 0) {
+            return fromWindow;
+        }
+        if (pageable.getOffset() == 0) {
+            return 0;
+        }
+        // trang rong (offset vuot qua ket qua) thi khong co dong nao mang total, dem rieng
+        Long count = jdbcTemplate.queryForObject(RANKED_USERS + countSql, params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,64 @@
+package com.service.user.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Hash OTP bang HMAC-SHA256 voi key cua server thay vi BCrypt: OTP chi co 10^6 gia tri nen BCrypt khong
+ * chong duoc brute force neu lo bang, con khong co key thi khong tinh duoc HMAC. Chong doan truc tuyen
+ * bang gioi han so lan thu (otp.max-attempts) trong AuthServiceImpl.
+ * Hash gan voi userId, email va purpose nen khong dung lai duoc cho user/muc dich khac.
+ * otp_hash cu dang BCrypt ($2...) van verify bang PasswordHasher cho toi khi het han.
+ */
+@Component
+@RequiredArgsConstructor
+public class OtpHasher {
+
+    private static final String PREFIX = "hmac-sha256$";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final PasswordHasher passwordHasher;
+
+    @Value("${otp.hmac-secret}")
+    private String secret;
+
+    public String hash(Long userId, String email, String purpose, String code) {
+        return PREFIX + Base64.getEncoder().encodeToString(mac(userId, email, purpose, code));
+    }
+
+    public boolean matches(Long userId, String email, String purpose, String code, String stored) {
+        if (code == null || stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            return passwordHasher.matches(code, stored);
+        }
+        byte[] expected;
+        try {
+            expected = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // so sanh constant-time
+        return MessageDigest.isEqual(expected, mac(userId, email, purpose, code));
+    }
+
+    private byte[] mac(Long userId, String email, String purpose, String code) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            String message = userId + "\n" + email + "\n" + purpose + "\n" + code;
+            return mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
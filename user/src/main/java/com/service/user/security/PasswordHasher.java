@@ -0,0 +1,215 @@
+package com.service.user.security;
+
+import com.service.user.constants.ErrorCodes;
+import com.service.user.dto.PasswordHashingStats;
+import com.service.user.exception.ApplicationException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hash/verify password BCrypt tren 1 pool rieng (mac dinh = so core) thay vi tren thread cua Tomcat,
+ * de login/register don dap khong chiem het CPU cua cac endpoint khac.
+ * - Hang doi co gioi han: day thi tu choi ngay voi TOO_MANY_REQUESTS (429), khong xep hang vo han.
+ * - Cost duoc calibrate luc startup theo target-ms (hoac co dinh bang password-hashing.cost).
+ * - needsRehash: hash dang luu co cost thap hon cost hien tai, login thanh cong se hash lai. Chi nang
+ *   cost, khong ha: cac instance calibrate ra cost khac nhau se khong hash di hash lai cung 1 password.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final int CALIBRATION_COST = 10;
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    @Value("${password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${password-hashing.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    // 0 = calibrate theo target-ms
+    @Value("${password-hashing.cost:0}")
+    private int configuredCost;
+
+    @Value("${password-hashing.target-ms:100}")
+    private long targetMs;
+
+    @Value("${password-hashing.min-cost:10}")
+    private int minCost;
+
+    @Value("${password-hashing.max-cost:14}")
+    private int maxCost;
+
+    private ThreadPoolExecutor executor;
+    private volatile BCryptPasswordEncoder encoder;
+    private volatile int cost;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        cost = configuredCost > 0 ? configuredCost : calibrate();
+        encoder = new BCryptPasswordEncoder(cost);
+        log.info("Password hashing: BCrypt cost {}, {} threads, queue capacity {}", cost, poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public String hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return submit(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash dang luu dung cost thap hon cost hien tai. Hash co cost cao hon duoc giu nguyen: instance khac
+     * (may nhanh hon) co the da calibrate ra cost cao hon, ha xuong se lam 2 instance hash lai qua lai.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        Integer storedCost = costOf(encodedPassword);
+        return storedCost != null && storedCost < cost;
+    }
+
+    public void recordRehash() {
+        rehashed.increment();
+    }
+
+    public PasswordHashingStats getStats() {
+        long count = completed.sum();
+        return PasswordHashingStats.builder()
+                .cost(cost)
+                .threads(executor.getMaximumPoolSize())
+                .activeThreads(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .completed(count)
+                .rejected(rejected.sum())
+                .timedOut(timedOut.sum())
+                .rehashed(rehashed.sum())
+                .avgHashMs(count > 0 ? hashNanos.sum() / 1e6 / count : 0)
+                .maxHashMs(maxHashNanos.get() / 1e6)
+                .avgWaitMs(count > 0 ? waitNanos.sum() / 1e6 / count : 0)
+                .maxWaitMs(maxWaitNanos.get() / 1e6)
+                .build();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    record(startedAt - submittedAt, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ApplicationException(ErrorCodes.TOO_MANY_REQUESTS, "Server is busy, please try again later");
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ApplicationException(ErrorCodes.TOO_MANY_REQUESTS, "Server is busy, please try again later");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void record(long waited, long took) {
+        completed.increment();
+        waitNanos.add(waited);
+        hashNanos.add(took);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        maxHashNanos.accumulateAndGet(took, Math::max);
+    }
+
+    /**
+     * Do thoi gian hash voi cost 10 (lay median), moi cost +1 thi thoi gian x2,
+     * chon cost gan target-ms nhat trong [min-cost, max-cost].
+     */
+    private int calibrate() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_COST);
+        probe.encode("warm-up");
+        long[] samples = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration-" + i);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double medianMs = Math.max(samples[CALIBRATION_ROUNDS / 2] / 1e6, 0.01);
+        int calibrated = CALIBRATION_COST + (int) Math.round(Math.log(targetMs / medianMs) / Math.log(2));
+        int chosen = Math.max(minCost, Math.min(maxCost, calibrated));
+        log.info("BCrypt cost {} took {} ms, target {} ms -> cost {}", CALIBRATION_COST,
+                String.format("%.1f", medianMs), targetMs, chosen);
+        return chosen;
+    }
+
+    static Integer costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return null;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+}
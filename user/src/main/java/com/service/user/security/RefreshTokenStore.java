@@ -0,0 +1,155 @@
+package com.service.user.security;
+
+import com.service.user.entity.RefreshToken;
+import com.service.user.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Luu refresh token duoi dang SHA-256 (32 byte, unique index nho) thay vi ca chuoi JWT.
+ * - Cache (tuy chon) digest -> (id, user, expiresAt) cua token con han, bo qua SELECT khi refresh.
+ *   Cache chi dung de doc: revoke luon DELETE trong DB va chi thanh cong khi xoa duoc 1 dong,
+ *   nen token da rotate/logout o instance khac van khong dung lai duoc.
+ * - Job sweep xoa token het han theo tung batch, bang khong lon mai theo so lan login.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepo;
+
+    @Value("${refresh-token.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${refresh-token.cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${refresh-token.sweep.batch-size:1000}")
+    private int sweepBatchSize;
+
+    @Value("${refresh-token.sweep.max-batches-per-run:50}")
+    private int sweepMaxBatches;
+
+    // ByteBuffer bao mang digest: equals/hashCode theo noi dung
+    private final Map<ByteBuffer, CachedToken> cache = new ConcurrentHashMap<>();
+
+    private record CachedToken(Long id, Long userId, LocalDateTime expiresAt) {
+    }
+
+    public RefreshToken issue(Long userId, String token, LocalDateTime expiresAt) {
+        RefreshToken saved = refreshTokenRepo.save(RefreshToken.builder()
+                .user_id(userId)
+                .tokenHash(digest(token))
+                .expiresAt(expiresAt)
+                .build());
+        afterCommit(() -> put(saved));
+        return saved;
+    }
+
+    public Optional<RefreshToken> find(String token) {
+        byte[] digest = digest(token);
+        if (cacheEnabled) {
+            CachedToken cached = cache.get(ByteBuffer.wrap(digest));
+            if (cached != null) {
+                return Optional.of(RefreshToken.builder()
+                        .id(cached.id())
+                        .user_id(cached.userId())
+                        .tokenHash(digest)
+                        .expiresAt(cached.expiresAt())
+                        .build());
+            }
+        }
+        Optional<RefreshToken> found = refreshTokenRepo.findByTokenHash(digest);
+        found.ifPresent(this::put);
+        return found;
+    }
+
+    /**
+     * Xoa token. Tra ve false neu token khong con trong DB (da rotate hoac logout truoc do).
+     */
+    public boolean revoke(String token) {
+        if (token == null) {
+            return false;
+        }
+        byte[] digest = digest(token);
+        cache.remove(ByteBuffer.wrap(digest));
+        return refreshTokenRepo.deleteByTokenHash(digest) > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token.sweep.interval-ms:600000}",
+            initialDelayString = "${refresh-token.sweep.interval-ms:600000}")
+    public void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        cache.values().removeIf(cached -> cached.expiresAt().isBefore(now));
+
+        int total = 0;
+        for (int i = 0; i < sweepMaxBatches; i++) {
+            int deleted = refreshTokenRepo.deleteExpiredBatch(now, sweepBatchSize);
+            total += deleted;
+            if (deleted < sweepBatchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Deleted {} expired refresh tokens", total);
+        }
+    }
+
+    private void put(RefreshToken token) {
+        if (!cacheEnabled || token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return;
+        }
+        if (cache.size() >= maxEntries) {
+            makeRoom();
+        }
+        cache.put(ByteBuffer.wrap(token.getTokenHash()),
+                new CachedToken(token.getId(), token.getUser_id(), token.getExpiresAt()));
+    }
+
+    // bo ~1/10 entry bat ky, token bi bo van tim duoc trong DB
+    private void makeRoom() {
+        int toRemove = Math.max(1, maxEntries / 10);
+        Iterator<ByteBuffer> iterator = cache.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.service.user.service;
 
 import com.service.user.dto.AdminDashboardUserStats;
+import com.service.user.dto.PasswordHashingStats;
 import com.service.user.dto.RecentUserDTO;
 
 import java.util.List;
@@ -16,4 +17,9 @@ public interface AdminDashboardService {
      * Get recent registered users
      */
     List<RecentUserDTO> getRecentUsers(int limit);
+
+    /**
+     * Cost BCrypt hien tai, do day hang doi va thoi gian hash password
+     */
+    PasswordHashingStats getPasswordHashingStats();
 }
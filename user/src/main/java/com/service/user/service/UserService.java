@@ -5,16 +5,26 @@ import com.service.user.dto.UpdateAvatarRequest;
 import com.service.user.dto.UpdateEmailRequest;
 import com.service.user.dto.UpdateFullnameRequest;
 import com.service.user.dto.UpdatePasswordRequest;
+import com.service.user.dto.UserContactResponse;
 import com.service.user.dto.UserInfoResponse;
-import com.service.user.dto.UserListResponse;
 import com.service.user.dto.UserProfileResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
     UserInfoResponse getUserBasicInfo(Long userId);
+
+    List<UserInfoResponse> getUserBasicInfoBatch(List<Long> userIds);
+
+    List<UserContactResponse> getUserContactsBatch(List<Long> userIds);
     
-    List<UserListResponse> getAllUsers();
+    /**
+     * Ghi tat ca user dang {"message": ..., "data": [...]} (cung dang voi ApiResponse) vao out,
+     * doc tu DB theo cursor nen khong giu ca danh sach trong memory.
+     */
+    void writeAllUsers(String message, OutputStream out) throws IOException;
     
     void updateAvatar(Long userId, UpdateAvatarRequest request);
     
@@ -2,20 +2,21 @@ package com.service.user.service.impl;
 
 import com.service.user.constants.SellerRequestStatus;
 import com.service.user.dto.AdminDashboardUserStats;
+import com.service.user.dto.PasswordHashingStats;
 import com.service.user.dto.RecentUserDTO;
-import com.service.user.entity.User;
 import com.service.user.repository.SellerRequestRepository;
 import com.service.user.repository.UserDetailsRepository;
 import com.service.user.repository.UserRepository;
+import com.service.user.security.PasswordHasher;
 import com.service.user.service.AdminDashboardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +26,7 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
     private final UserRepository userRepo;
     private final UserDetailsRepository userDetailsRepo;
     private final SellerRequestRepository sellerRequestRepo;
+    private final PasswordHasher passwordHasher;
 
     @Override
     public AdminDashboardUserStats getUserStatistics() {
@@ -71,25 +73,15 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
 
     @Override
     public List<RecentUserDTO> getRecentUsers(int limit) {
-        List<User> recentUsers = userRepo.findTop10ByOrderByIdDesc();
-        
-        return recentUsers.stream()
-                .limit(limit)
-                .map(user -> {
-                    RecentUserDTO.RecentUserDTOBuilder builder = RecentUserDTO.builder()
-                            .id(user.getId())
-                            .email(user.getEmail())
-                            .role(user.getRole());
-
-                    userDetailsRepo.findByUserId(user.getId()).ifPresent(details -> {
-                        builder.fullname(details.getFullname())
-                                .avatar(details.getAvatar())
-                                .verified(details.getVerified())
-                                .createdAt(details.getCreated_at());
-                    });
+        // toi da 10 user nhu truoc, User + UserDetails lay trong 1 query
+        if (limit <= 0) {
+            return List.of();
+        }
+        return userRepo.findRecentUsers(PageRequest.of(0, Math.min(limit, 10)));
+    }
 
-                    return builder.build();
-                })
-                .collect(Collectors.toList());
+    @Override
+    public PasswordHashingStats getPasswordHashingStats() {
+        return passwordHasher.getStats();
     }
 }
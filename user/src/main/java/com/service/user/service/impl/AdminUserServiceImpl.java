@@ -11,20 +11,15 @@ import com.service.user.entity.UserDetails;
 import com.service.user.exception.ApplicationException;
 import com.service.user.repository.UserDetailsRepository;
 import com.service.user.repository.UserRepository;
+import com.service.user.repository.UserSearchRepository;
 import com.service.user.service.AdminUserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -32,51 +27,44 @@ public class AdminUserServiceImpl implements AdminUserService {
 
     private final UserRepository userRepo;
     private final UserDetailsRepository userDetailsRepo;
+    private final UserSearchRepository userSearchRepo;
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<UserListResponse> getAllUsers(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        Page<User> userPage = userRepo.findAll(pageable);
+        Page<UserListResponse> userPage = userRepo.findUserListPage(PageRequest.of(page, size));
         
         return buildPageResponse(userPage);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<UserListResponse> getUsersByRole(String role, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        Page<User> userPage = userRepo.findByRole(role, pageable);
+        Page<UserListResponse> userPage = userRepo.findUserListPageByRole(role, PageRequest.of(page, size));
         
         return buildPageResponse(userPage);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<UserListResponse> searchUsers(String keyword, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        
-        // Search in user details (fullname, address) first
-        List<Long> userIdsFromDetails = userDetailsRepo.searchUserIdsByKeyword(keyword);
-        
-        Page<User> userPage;
-        if (!userIdsFromDetails.isEmpty()) {
-            // Search with user IDs from details + email/role search
-            userPage = userRepo.searchUsersWithIds(userIdsFromDetails, keyword, pageable);
-        } else {
-            // Only search by email/role
-            userPage = userRepo.searchUsers(keyword, pageable);
+        if (keyword == null || keyword.isBlank()) {
+            return getAllUsers(page, size);
         }
+        // email, fullname, address xep theo do giong, 1 query cho ca trang va tong so
+        Page<UserListResponse> userPage = userSearchRepo.searchUsers(keyword, PageRequest.of(page, size));
         
         return buildPageResponse(userPage);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserListResponse getUserById(Long userId) {
-        User user = userRepo.findById(userId)
+        return userRepo.findUserListById(userId)
                 .orElseThrow(() -> new ApplicationException(
                         ErrorCodes.USER_NOT_FOUND,
                         "User not found with id: " + userId
                 ));
-        
-        return mapToUserListResponse(user);
     }
 
     @Override
@@ -102,7 +90,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         
         log.info("Updated role for user {} to {}", userId, newRole);
         
-        return mapToUserListResponse(savedUser);
+        return mapToUserListResponse(savedUser, userDetailsRepo.findByUserId(userId).orElse(null));
     }
 
     @Override
@@ -125,7 +113,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         
         log.info("Updated verification status for user {} to {}", userId, request.getVerified());
         
-        return mapToUserListResponse(user);
+        return mapToUserListResponse(user, userDetails);
     }
 
     @Override
@@ -158,7 +146,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         
         log.info("Updated details for user {}", userId);
         
-        return mapToUserListResponse(user);
+        return mapToUserListResponse(user, userDetails);
     }
 
     @Override
@@ -200,13 +188,9 @@ public class AdminUserServiceImpl implements AdminUserService {
     /**
      * Build page response from user page
      */
-    private PageResponse<UserListResponse> buildPageResponse(Page<User> userPage) {
-        List<UserListResponse> content = userPage.getContent().stream()
-                .map(this::mapToUserListResponse)
-                .collect(Collectors.toList());
-        
+    private PageResponse<UserListResponse> buildPageResponse(Page<UserListResponse> userPage) {
         return PageResponse.<UserListResponse>builder()
-                .content(content)
+                .content(userPage.getContent())
                 .totalElements(userPage.getTotalElements())
                 .totalPages(userPage.getTotalPages())
                 .size(userPage.getSize())
@@ -215,18 +199,15 @@ public class AdminUserServiceImpl implements AdminUserService {
     }
 
     /**
-     * Map User entity to UserListResponse DTO
+     * Map User entity (va details da load san, co the null) to UserListResponse DTO
      */
-    private UserListResponse mapToUserListResponse(User user) {
-        Optional<UserDetails> detailsOpt = userDetailsRepo.findByUserId(user.getId());
-        
+    private UserListResponse mapToUserListResponse(User user, UserDetails details) {
         UserListResponse.UserListResponseBuilder builder = UserListResponse.builder()
                 .id(user.getId())
                 .email(user.getEmail())
                 .role(user.getRole());
         
-        if (detailsOpt.isPresent()) {
-            UserDetails details = detailsOpt.get();
+        if (details != null) {
             builder.fullname(details.getFullname())
                     .avatar(details.getAvatar())
                     .address(details.getAddress())
@@ -6,17 +6,18 @@ import com.service.user.entity.RefreshToken;
 import com.service.user.entity.UserDetails;
 import com.service.user.exception.ApplicationException;
 import com.service.user.repository.OtpCodeRepository;
-import com.service.user.repository.RefreshTokenRepository;
 import com.service.user.repository.UserDetailsRepository;
 import com.service.user.repository.UserRepository;
 import com.service.user.security.JwtUtil;
+import com.service.user.security.OtpHasher;
+import com.service.user.security.PasswordHasher;
+import com.service.user.security.RefreshTokenStore;
 import com.service.user.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -36,9 +37,11 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    private static final String OTP_PURPOSE_VERIFY_EMAIL = "VERIFY_EMAIL";
+
     private final UserRepository userRepo;
 
-    private final RefreshTokenRepository refreshTokenRepo;
+    private final RefreshTokenStore refreshTokenStore;
 
     private final UserDetailsRepository userDetailsRepo;
 
@@ -47,7 +50,10 @@ public class AuthServiceImpl implements AuthService {
     private final KafkaProducerService kafkaProducerService;
 
     private final OtpCodeRepository otpCodeRepository;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+
+    private final PasswordHasher passwordHasher;
+
+    private final OtpHasher otpHasher;
 
 
     @Value("${recaptcha.secret}")
@@ -59,6 +65,12 @@ public class AuthServiceImpl implements AuthService {
     @Value("${otp.expiry-minutes}")
     private int otpExpiryMinutes;
 
+    @Value("${otp.max-attempts:5}")
+    private int otpMaxAttempts;
+
+    @Value("${otp.lockout-minutes:15}")
+    private int otpLockoutMinutes;
+
 
     @Override
     public void verifyRecaptchaToken(String recaptchaToken) {
@@ -101,18 +113,18 @@ public class AuthServiceImpl implements AuthService {
             throw new ApplicationException(ErrorCodes.USER_NOT_VERIFIED, ErrorMessages.USER_NOT_VERIFIED);
         }
         
-        if (!encoder.matches(req.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(req.getPassword(), user.getPassword())) {
             throw new ApplicationException(ErrorCodes.INVALID_PASSWORD, ErrorMessages.INVALID_PASSWORD);
         }
+        // hash cu dung cost khac cost hien tai: hash lai khi con co password dang ro
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHasher.hash(req.getPassword()));
+            this.userRepo.save(user);
+            passwordHasher.recordRehash();
+        }
         String accessToken = this.jwtUtil.generateAccessToken(user.getId().toString(), user.getRole());
         String refreshToken = this.jwtUtil.generateRefreshToken(user.getId().toString());
-        RefreshToken refreshTokenObject = RefreshToken.builder()
-                .user_id(user.getId())
-                .token(refreshToken)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .build();
-
-        this.refreshTokenRepo.save(refreshTokenObject);
+        this.refreshTokenStore.issue(user.getId(), refreshToken, LocalDateTime.now().plusDays(7));
         return new LoginResponse(accessToken, refreshToken);
     }
 
@@ -124,7 +136,7 @@ public class AuthServiceImpl implements AuthService {
         }
         User newUser = User.builder()
                 .email(req.getEmail())
-                .password(encoder.encode(req.getPassword()))
+                .password(passwordHasher.hash(req.getPassword()))
                 .role(req.getRole())
                 .build();
         User savedUser = this.userRepo.save(newUser);
@@ -142,14 +154,14 @@ public class AuthServiceImpl implements AuthService {
 
         String otpCode = generateOtp();
         
-        String otpHash = encoder.encode(otpCode);
+        String otpHash = otpHasher.hash(newUser.getId(), newUser.getEmail(), OTP_PURPOSE_VERIFY_EMAIL, otpCode);
         
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(otpExpiryMinutes);
         
         OtpCode otpEntity = OtpCode.builder()
                 .userId(newUser.getId())
                 .email(newUser.getEmail())
-                .purpose("VERIFY_EMAIL")
+                .purpose(OTP_PURPOSE_VERIFY_EMAIL)
                 .otpHash(otpHash)
                 .expiresAt(expiresAt)
                 .used(false)
@@ -185,7 +197,7 @@ public class AuthServiceImpl implements AuthService {
             throw new ApplicationException(ErrorCodes.INVALID_TOKEN, ErrorMessages.INVALID_TOKEN);
         }
 
-        Optional<RefreshToken> tokenObject = this.refreshTokenRepo.findByToken(refreshTokenInCookie);
+        Optional<RefreshToken> tokenObject = this.refreshTokenStore.find(refreshTokenInCookie);
 
         if (tokenObject.isEmpty()) {
             throw new ApplicationException(ErrorCodes.UNAUTHORIZED, ErrorMessages.UNAUTHORIZED);
@@ -194,20 +206,18 @@ public class AuthServiceImpl implements AuthService {
         RefreshToken oldToken = tokenObject.get();
 
         if (oldToken.getExpiresAt().isBefore(LocalDateTime.now())) {
-            refreshTokenRepo.deleteByToken(oldToken.getToken()); // cleanup
+            refreshTokenStore.revoke(refreshTokenInCookie); // cleanup
             throw new ApplicationException(ErrorCodes.TOKEN_EXPIRED, ErrorMessages.TOKEN_EXPIRED);
         }
 
         // Delete old token before creating a new one => token rotation to prevent replay attack
-        this.refreshTokenRepo.deleteByToken(refreshTokenInCookie);
+        // khong xoa duoc dong nao => token vua bi dung boi request khac
+        if (!this.refreshTokenStore.revoke(refreshTokenInCookie)) {
+            throw new ApplicationException(ErrorCodes.UNAUTHORIZED, ErrorMessages.UNAUTHORIZED);
+        }
 
         String newRefreshTokenString = this.jwtUtil.generateRefreshToken(oldToken.getUser_id().toString());
-        RefreshToken newRefreshTokenObject = RefreshToken.builder()
-                .user_id(oldToken.getUser_id())
-                .token(newRefreshTokenString)
-                .expiresAt(LocalDateTime.now().plusDays(7))
-                .build();
-        this.refreshTokenRepo.save(newRefreshTokenObject);
+        this.refreshTokenStore.issue(oldToken.getUser_id(), newRefreshTokenString, LocalDateTime.now().plusDays(7));
 
         Optional<User> userObject = this.userRepo.findById(oldToken.getUser_id());
 
@@ -224,7 +234,7 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public void logout(String refreshToken) {
-        this.refreshTokenRepo.deleteByToken(refreshToken);
+        this.refreshTokenStore.revoke(refreshToken);
     }
 
     @Override
@@ -246,11 +256,25 @@ public class AuthServiceImpl implements AuthService {
             throw new ApplicationException(ErrorCodes.OTP_EXPIRED, ErrorMessages.OTP_EXPIRED);
         }
 
-        if (!encoder.matches(otpCode, otpCodeRecord.getOtpHash())) {
+        // giu luot thu truoc khi so sanh, het luot thi khoa otp.lockout-minutes phut
+        LocalDateTime now = LocalDateTime.now();
+        if (this.otpCodeRepository.reserveAttempt(otpCodeRecord.getId(), otpMaxAttempts, now) == 0) {
+            // het luot ma chua bi khoa (2 request sai song song cung doc attempts cu): khoa luc nay
+            if (otpCodeRecord.getLockedUntil() == null || !otpCodeRecord.getLockedUntil().isAfter(now)) {
+                this.otpCodeRepository.lock(otpCodeRecord.getId(), now.plusMinutes(otpLockoutMinutes));
+            }
+            throw new ApplicationException(ErrorCodes.OTP_MAX_RETRY_EXCEEDED, ErrorMessages.OTP_MAX_RETRY_EXCEEDED);
+        }
+
+        if (!otpHasher.matches(userId, email, otpCodeRecord.getPurpose(), otpCode.trim(), otpCodeRecord.getOtpHash())) {
+            if (otpCodeRecord.getAttempts() + 1 >= otpMaxAttempts) {
+                this.otpCodeRepository.lock(otpCodeRecord.getId(), now.plusMinutes(otpLockoutMinutes));
+            }
             throw new ApplicationException(ErrorCodes.OTP_INVALID, ErrorMessages.OTP_INVALID);
         }
 
         otpCodeRecord.setUsed(true);
+        otpCodeRecord.setAttempts(otpCodeRecord.getAttempts() + 1);
         this.otpCodeRepository.save(otpCodeRecord);
 
         UserDetails userDetails = this.userDetailsRepo.findByUserId(userId)
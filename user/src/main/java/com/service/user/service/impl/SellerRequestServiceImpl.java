@@ -9,10 +9,12 @@ import com.service.user.exception.ApplicationException;
 import com.service.user.repository.SellerRequestRepository;
 import com.service.user.repository.UserDetailsRepository;
 import com.service.user.repository.UserRepository;
+import com.service.user.repository.UserSearchRepository;
 import com.service.user.service.SellerRequestService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -21,7 +23,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +37,7 @@ public class SellerRequestServiceImpl implements SellerRequestService {
     private final SellerRequestRepository sellerRequestRepo;
     private final UserRepository userRepo;
     private final UserDetailsRepository userDetailsRepo;
+    private final UserSearchRepository userSearchRepo;
 
     @Override
     @Transactional
@@ -118,10 +124,19 @@ public class SellerRequestServiceImpl implements SellerRequestService {
 
     @Override
     public PageResponse<SellerRequestResponse> searchSellerRequests(String keyword, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<SellerRequest> requestPage = sellerRequestRepo.searchByUserEmail(keyword, pageable);
+        if (keyword == null || keyword.isBlank()) {
+            return getAllSellerRequests(page, size);
+        }
+        // user match keyword (email, fullname, address, co go sai) xep theo do giong, sau do request moi truoc
+        Page<Long> idPage = userSearchRepo.searchSellerRequestIds(keyword, PageRequest.of(page, size));
+        Map<Long, SellerRequest> requests = sellerRequestRepo.findAllById(idPage.getContent()).stream()
+                .collect(Collectors.toMap(SellerRequest::getId, Function.identity()));
+        List<SellerRequest> ordered = idPage.getContent().stream()
+                .map(requests::get)
+                .filter(Objects::nonNull)
+                .toList();
         
-        return buildPageResponse(requestPage);
+        return buildPageResponse(new PageImpl<>(ordered, idPage.getPageable(), idPage.getTotalElements()));
     }
 
     @Override
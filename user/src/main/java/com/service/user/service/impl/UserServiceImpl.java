@@ -7,6 +7,7 @@ import com.service.user.dto.UpdateAvatarRequest;
 import com.service.user.dto.UpdateEmailRequest;
 import com.service.user.dto.UpdateFullnameRequest;
 import com.service.user.dto.UpdatePasswordRequest;
+import com.service.user.dto.UserContactResponse;
 import com.service.user.dto.UserInfoResponse;
 import com.service.user.dto.UserListResponse;
 import com.service.user.dto.UserProfileResponse;
@@ -15,14 +16,22 @@ import com.service.user.entity.UserDetails;
 import com.service.user.exception.ApplicationException;
 import com.service.user.repository.UserDetailsRepository;
 import com.service.user.repository.UserRepository;
+import com.service.user.security.PasswordHasher;
 import com.service.user.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,7 +39,10 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepo;
     private final UserDetailsRepository userDetailsRepo;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final ObjectMapper objectMapper;
+    private final PasswordHasher passwordHasher;
+
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @Override
     public UserInfoResponse getUserBasicInfo(Long userId) {
@@ -59,31 +71,62 @@ public class UserServiceImpl implements UserService {
         );
     }
 
+    // 1 query cho ca danh sach, user khong ton tai thi bo qua (khong nem loi nhu getUserBasicInfo)
+    @Override
+    public List<UserInfoResponse> getUserBasicInfoBatch(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            throw new ApplicationException(
+                    ErrorCodes.INVALID_INPUT,
+                    "At most " + MAX_BATCH_SIZE + " user ids per request"
+            );
+        }
+
+        return userDetailsRepo.findByUserIdIn(new HashSet<>(userIds)).stream()
+                .map(details -> new UserInfoResponse(
+                        details.getUser_id(),
+                        details.getFullname(),
+                        details.getAvatar(),
+                        details.getLike_count(),
+                        details.getDislike_count()
+                ))
+                .collect(Collectors.toList());
+    }
+
     @Override
-    public List<UserListResponse> getAllUsers() {
-        List<User> users = userRepo.findAll();
-        
-        return users.stream().map(user -> {
-            Optional<UserDetails> detailsOpt = userDetailsRepo.findByUserId(user.getId());
-            
-            UserListResponse.UserListResponseBuilder builder = UserListResponse.builder()
-                    .id(user.getId())
-                    .email(user.getEmail())
-                    .role(user.getRole());
-            
-            if (detailsOpt.isPresent()) {
-                UserDetails details = detailsOpt.get();
-                builder.fullname(details.getFullname())
-                        .avatar(details.getAvatar())
-                        .address(details.getAddress())
-                        .verified(details.getVerified())
-                        .likeCount(details.getLike_count())
-                        .dislikeCount(details.getDislike_count())
-                        .createdAt(details.getCreated_at());
+    public List<UserContactResponse> getUserContactsBatch(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            throw new ApplicationException(
+                    ErrorCodes.INVALID_INPUT,
+                    "At most " + MAX_BATCH_SIZE + " user ids per request"
+            );
+        }
+
+        return userRepo.findContactsByIdIn(new HashSet<>(userIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeAllUsers(String message, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<UserListResponse> users = userRepo.streamUserList()) {
+            // response stream do MVC dong, generator chi flush
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("message", message);
+            generator.writeArrayFieldStart("data");
+            Iterator<UserListResponse> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
             }
-            
-            return builder.build();
-        }).collect(Collectors.toList());
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
     }
 
     @Override
@@ -111,7 +154,7 @@ public class UserServiceImpl implements UserService {
                 );
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new ApplicationException(
                     ErrorCodes.INVALID_PASSWORD,
                     ErrorMessages.INVALID_PASSWORD
@@ -141,7 +184,7 @@ public class UserServiceImpl implements UserService {
                 );
 
         // Verify old password
-        if (!passwordEncoder.matches(request.getOldPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getOldPassword(), user.getPassword())) {
             throw new ApplicationException(
                     ErrorCodes.INVALID_PASSWORD,
                     ErrorMessages.INVALID_PASSWORD
@@ -149,7 +192,7 @@ public class UserServiceImpl implements UserService {
         }
 
         // Update to new password
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(passwordHasher.hash(request.getNewPassword()));
         userRepo.save(user);
     }
 
@@ -164,7 +207,7 @@ public class UserServiceImpl implements UserService {
                 );
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new ApplicationException(
                     ErrorCodes.INVALID_PASSWORD,
                     ErrorMessages.INVALID_PASSWORD
@@ -196,7 +239,7 @@ public class UserServiceImpl implements UserService {
                 );
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new ApplicationException(
                     ErrorCodes.INVALID_PASSWORD,
                     ErrorMessages.INVALID_PASSWORD
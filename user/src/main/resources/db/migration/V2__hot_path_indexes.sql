@@ -0,0 +1,23 @@
+-- Index cho cac query trong repository. Ten index duoc HotPathIndexPlanTest kiem tra qua EXPLAIN.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- refresh_token: lookup/xoa token theo user
+CREATE INDEX IF NOT EXISTS idx_refresh_token_user_id ON refresh_token (user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_expires_at ON refresh_token (expires_at);
+
+-- users: findByRole / countByRole, dashboard (created_at)
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at DESC);
+
+-- tim kiem admin: LOWER(...) LIKE '%...%'
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_details_fullname_trgm ON user_details USING gin (lower(fullname) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_details_address_trgm ON user_details USING gin (lower(address) gin_trgm_ops);
+
+-- countUsersCreatedAfter
+CREATE INDEX IF NOT EXISTS idx_user_details_created_at ON user_details (created_at);
+
+-- findLatestActiveOtp: otp chua dung cua user/email, moi nhat truoc
+CREATE INDEX IF NOT EXISTS idx_otp_codes_active_latest
+    ON otp_codes (user_id, email, created_at DESC) WHERE used = false;
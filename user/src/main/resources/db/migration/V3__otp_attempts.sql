@@ -0,0 +1,5 @@
+-- OTP luu bang HMAC (xem OtpHasher) thay vi BCrypt, them dem so lan nhap sai va khoa tam thoi.
+-- otp_hash cu (BCrypt) van verify duoc cho toi khi het han.
+
+ALTER TABLE otp_codes ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE otp_codes ADD COLUMN IF NOT EXISTS locked_until TIMESTAMPTZ;
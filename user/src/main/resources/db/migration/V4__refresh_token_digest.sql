@@ -0,0 +1,14 @@
+-- refresh_token chi luu SHA-256 (32 byte) cua JWT thay vi ca chuoi JWT (xem RefreshTokenStore).
+-- Token cu van dung duoc vi digest duoc tinh lai tu cookie luc refresh.
+
+-- token het han khong con dung duoc, bo truoc khi backfill
+DELETE FROM refresh_token WHERE expires_at < now();
+
+ALTER TABLE refresh_token ADD COLUMN IF NOT EXISTS token_hash BYTEA;
+UPDATE refresh_token SET token_hash = sha256(convert_to(token, 'UTF8')) WHERE token_hash IS NULL;
+ALTER TABLE refresh_token ALTER COLUMN token_hash SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_refresh_token_hash ON refresh_token (token_hash);
+
+-- unique index tren VARCHAR(512) bi xoa cung cot
+ALTER TABLE refresh_token DROP COLUMN IF EXISTS token;
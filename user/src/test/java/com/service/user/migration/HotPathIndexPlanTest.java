@@ -0,0 +1,105 @@
+package com.service.user.migration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Chay migration len 1 Postgres that roi EXPLAIN cac query cua repository (SQL tuong duong voi JPQL)
+ * de chac chan index trong V2__hot_path_indexes.sql dung duoc.
+ * Bo qua neu khong co -Dmigration.test.url=jdbc:postgresql://... (them -Dmigration.test.username/password).
+ * enable_seqscan = off de planner khong chon seq scan chi vi bang test it du lieu.
+ */
+class HotPathIndexPlanTest {
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        String url = System.getProperty("migration.test.url");
+        assumeTrue(url != null, "migration.test.url is not set");
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                System.getProperty("migration.test.username", "user"),
+                System.getProperty("migration.test.password", "123"));
+        new SchemaMigrator(dataSource, "classpath*:db/migration").migrate();
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void close() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void refreshTokenQueries() throws Exception {
+        assertUsesIndex("SELECT * FROM refresh_token rt WHERE rt.user_id = 1", "idx_refresh_token_user_id");
+        assertUsesIndex("SELECT id FROM refresh_token rt WHERE rt.expires_at < now()", "idx_refresh_token_expires_at");
+        // RefreshTokenStore: tim/xoa theo digest
+        assertUsesIndex("SELECT * FROM refresh_token rt WHERE rt.token_hash = sha256('x'::bytea)", "uq_refresh_token_hash");
+    }
+
+    @Test
+    void userQueries() throws Exception {
+        // findUserListPageByRole, countByRole
+        assertUsesIndex("SELECT * FROM users u WHERE u.role = 'SELLER' LIMIT 10", "idx_users_role");
+        assertUsesIndex("SELECT count(*) FROM users u WHERE u.role = 'SELLER'", "idx_users_role");
+        // UserSearchRepository: match chinh xac (LIKE) va go sai (word similarity <%)
+        assertUsesIndex("SELECT * FROM users u WHERE lower(u.email) LIKE lower('%nguyen%')", "idx_users_email_trgm");
+        assertUsesIndex("SELECT u.id FROM users u WHERE lower(u.email) LIKE '%ngyuen%' OR 'ngyuen' <% lower(u.email)",
+                "idx_users_email_trgm");
+    }
+
+    @Test
+    void userDetailsQueries() throws Exception {
+        // UserSearchRepository: moi cot 1 nhanh UNION ALL rieng
+        assertUsesIndex("""
+                SELECT ud.user_id FROM user_details ud
+                WHERE lower(ud.fullname) LIKE '%nguyen%' OR 'nguyen' <% lower(ud.fullname)
+                """, "idx_user_details_fullname_trgm");
+        assertUsesIndex("""
+                SELECT ud.user_id FROM user_details ud
+                WHERE lower(ud.address) LIKE '%ha noi%' OR 'ha noi' <% lower(ud.address)
+                """, "idx_user_details_address_trgm");
+        assertUsesIndex("SELECT * FROM user_details ud WHERE lower(ud.address) LIKE lower('%ha noi%')",
+                "idx_user_details_address_trgm");
+        assertUsesIndex("SELECT count(*) FROM user_details ud WHERE ud.created_at >= now() - interval '7 days'",
+                "idx_user_details_created_at");
+    }
+
+    @Test
+    void otpQueries() throws Exception {
+        // findLatestActiveOtp
+        assertUsesIndex("""
+                SELECT * FROM otp_codes o WHERE o.user_id = 1 AND o.email = 'a@b.c' AND o.used = false
+                ORDER BY o.created_at DESC LIMIT 1
+                """, "idx_otp_codes_active_latest", "uq_active_otp");
+    }
+
+    private static void assertUsesIndex(String sql, String... indexNames) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        boolean used = Arrays.stream(indexNames).anyMatch(name -> plan.indexOf(name) >= 0);
+        assertTrue(used, "Expected one of " + Arrays.toString(indexNames) + " in plan of:\n" + sql + "\n" + plan);
+    }
+}
@@ -0,0 +1,174 @@
+package com.service.user.service;
+
+import com.service.user.MidtermApplication;
+import com.service.user.dto.PageResponse;
+import com.service.user.dto.UserListResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Dem so statement JDBC cua cac endpoint liet ke/tim kiem user cho admin,
+ * de chac chan User + UserDetails duoc lay bang 1 query join cho moi trang, khong quay lai N+1.
+ * So statement phai giong nhau voi trang 5 dong va trang 25 dong. Dem o muc Connection (bao DataSource)
+ * de tinh ca query cua Hibernate lan JdbcTemplate.
+ * Bo qua neu khong co -Dmigration.test.url=jdbc:postgresql://... (them -Dmigration.test.username/password).
+ */
+class UserListingQueryCountTest {
+
+    private static final int SEEDED_USERS = 30;
+    private static final String EMAIL_PREFIX = "query-count-" + System.nanoTime() + "-";
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+    private static final AtomicLong statements = new AtomicLong();
+
+    private static ConfigurableApplicationContext context;
+    private static AdminUserService adminUserService;
+    private static AdminDashboardService adminDashboardService;
+    private static UserService userService;
+
+    @BeforeAll
+    static void start() {
+        String url = System.getProperty("migration.test.url");
+        assumeTrue(url != null, "migration.test.url is not set");
+
+        context = new SpringApplicationBuilder(MidtermApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "spring.datasource.username=" + System.getProperty("migration.test.username", "user"),
+                        "spring.datasource.password=" + System.getProperty("migration.test.password", "123"),
+                        "spring.kafka.admin.auto-create=false")
+                .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                    }
+                }))
+                .run();
+        adminUserService = context.getBean(AdminUserService.class);
+        adminDashboardService = context.getBean(AdminDashboardService.class);
+        userService = context.getBean(UserService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int i = 0; i < SEEDED_USERS; i++) {
+            Long userId = jdbcTemplate.queryForObject(
+                    "INSERT INTO users (email, password, role) VALUES (?, 'x', 'BIDDER') RETURNING id",
+                    Long.class, EMAIL_PREFIX + i + "@test.local");
+            // 1 user khong co details de kiem tra LEFT JOIN
+            if (i > 0) {
+                jdbcTemplate.update("""
+                        INSERT INTO user_details (user_id, fullname, verified, like_count, dislike_count, created_at)
+                        VALUES (?, ?, true, 0, 0, now())
+                        """, userId, "Query Count " + i);
+            }
+        }
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context == null) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM user_details WHERE user_id IN (SELECT id FROM users WHERE email LIKE ?)",
+                EMAIL_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", EMAIL_PREFIX + "%");
+        context.close();
+    }
+
+    @BeforeEach
+    void resetCounter() {
+        statements.set(0);
+    }
+
+    @Test
+    void adminPagesUseConstantStatements() {
+        // trang day du: 1 query join + 1 count
+        assertConstant(2, size -> adminUserService.getAllUsers(0, size));
+        assertConstant(2, size -> adminUserService.getUsersByRole("BIDDER", 0, size));
+        // tim kiem: trang va tong so lay trong cung 1 query
+        assertConstant(1, size -> adminUserService.searchUsers(EMAIL_PREFIX, 0, size));
+    }
+
+    @Test
+    void userWithoutDetailsIsStillListed() {
+        PageResponse<UserListResponse> page = adminUserService.searchUsers(EMAIL_PREFIX, 0, SEEDED_USERS);
+        assertEquals(SEEDED_USERS, page.getContent().size());
+        assertTrue(page.getContent().stream().anyMatch(user -> user.getFullname() == null));
+    }
+
+    @Test
+    void recentUsersUseOneStatement() {
+        adminDashboardService.getRecentUsers(10);
+        assertEquals(1, statements.get());
+    }
+
+    @Test
+    void streamingListingUsesOneStatement() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userService.writeAllUsers("ok", out);
+        assertEquals(1, statements.get());
+        assertTrue(out.toString().contains(EMAIL_PREFIX + (SEEDED_USERS - 1)));
+    }
+
+    private static void assertConstant(long expected, IntFunction<PageResponse<UserListResponse>> query) {
+        for (int size : new int[]{5, 25}) {
+            statements.set(0);
+            PageResponse<UserListResponse> page = query.apply(size);
+            assertEquals(size, page.getContent().size());
+            assertEquals(expected, statements.get(), "page size " + size);
+        }
+    }
+
+    private static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return count(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return count(super.getConnection(username, password));
+        }
+
+        private static Connection count(Connection target) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName())) {
+                            statements.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
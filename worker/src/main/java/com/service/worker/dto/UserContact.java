@@ -0,0 +1,15 @@
+package com.service.worker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContact {
+    private Long id;
+    private String email;
+    private String fullname;
+    private Boolean verified;
+}
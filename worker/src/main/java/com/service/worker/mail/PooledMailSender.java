@@ -0,0 +1,143 @@
+package com.service.worker.mail;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gui mail hang loat qua cung JavaMailSender voi OtpServiceImpl (cau hinh spring.mail).
+ * - Hang doi co gioi han: submit bi chan khi day, nen producer khong the day qua nhieu mail vao memory.
+ * - pool-size thread gui song song, moi thread lay toi batch-size mail va gui bang 1 lan
+ *   JavaMailSender.send(...) (dung chung 1 ket noi SMTP cho ca batch).
+ * - rate-per-second gioi han tong so mail cua ca pool, tranh bi SMTP server chan.
+ */
+@Component
+@RequiredArgsConstructor
+public class PooledMailSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledMailSender.class);
+
+    private final JavaMailSender mailSender;
+
+    @Value("${mail.pool.pool-size:16}")
+    private int poolSize;
+
+    @Value("${mail.pool.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${mail.pool.batch-size:100}")
+    private int batchSize;
+
+    @Value("${mail.pool.rate-per-second:2000}")
+    private double ratePerSecond;
+
+    private BlockingQueue<SimpleMailMessage> queue;
+    private ExecutorService workers;
+    private RateLimiter rateLimiter;
+    private volatile boolean running = true;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        rateLimiter = new RateLimiter(ratePerSecond);
+        workers = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "mail-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < poolSize; i++) {
+            workers.submit(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // cho gui not phan con trong hang doi, qua thoi gian thi bo
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+            logger.warn("Mail sender stopped with {} messages still queued", queue.size());
+        }
+    }
+
+    /**
+     * Dua mail vao hang doi, chan toi khi con cho trong.
+     */
+    public void submit(SimpleMailMessage message) throws InterruptedException {
+        queue.put(message);
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void drain() {
+        List<SimpleMailMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                SimpleMailMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                rateLimiter.acquire(batch.size());
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<SimpleMailMessage> batch) {
+        try {
+            mailSender.send(batch.toArray(new SimpleMailMessage[0]));
+            sent.addAndGet(batch.size());
+        } catch (MailSendException e) {
+            // cac mail khac trong batch van duoc gui
+            int failedCount = e.getFailedMessages().isEmpty() ? batch.size() : e.getFailedMessages().size();
+            failed.addAndGet(failedCount);
+            sent.addAndGet(batch.size() - failedCount);
+            logger.error("Failed to send {} of {} mails", failedCount, batch.size(), e);
+        } catch (MailException e) {
+            failed.addAndGet(batch.size());
+            logger.error("Failed to send batch of {} mails", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.service.worker.mail;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gioi han so permit / giay bang cach gian deu thoi diem duoc phep (khong cho burst).
+ * Thread goi acquire ngu ngoai lock, nen nhieu thread cho cung luc van xep hang dung thu tu.
+ */
+class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    void acquire(int permits) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(nextFreeNanos, now);
+            nextFreeNanos = start + permits * intervalNanos;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.service.worker.notification;
+
+import com.service.worker.dto.UserContact;
+import com.service.worker.mail.PooledMailSender;
+import com.service.worker.service.UserContactClient;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nhac user co auction trong wishlist sap ket thuc, 1 mail / user / lan chay (digest).
+ *
+ * Moi lan chay:
+ * 1. Claim toi da product-batch-size product co end_at trong window phut toi bang INSERT vao
+ *    ending_soon_notice (ON CONFLICT DO NOTHING): moi product chi duoc nhac 1 lan, ke ca khi nhieu
+ *    worker chay cung luc. Claim truoc khi gui nen worker chet giua chung thi bo qua, khong gui trung.
+ * 2. Doc watcher tu wishlist theo trang keyset tren user_id (page-size dong / trang), cac dong cua
+ *    cung 1 user luon nam trong cung 1 trang, nen memory chi phu thuoc page-size.
+ * 3. Lay email cua ca trang bang 1 lan goi batch user service, tao digest va dua vao PooledMailSender
+ *    (chan khi hang doi mail day, nen toc do doc DB tu cham lai theo toc do gui).
+ *
+ * Batch sau chi duoc claim khi batch truoc da vao hang doi het, nen khong claim nhanh hon toc do gui.
+ * Gui cham thi product trong batch co the ket thuc truoc khi toi luot: product da qua end_at bi bo khoi
+ * digest. Muc tieu ~100k dong wishlist / phut; moi lan chay log toc do dat duoc de so voi muc tieu
+ * (mail.pool.rate-per-second phai du cho so digest tuong ung).
+ */
+@Component
+@RequiredArgsConstructor
+public class EndingSoonDigestJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(EndingSoonDigestJob.class);
+    private static final DateTimeFormatter END_AT_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm xxx");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final UserContactClient userContactClient;
+    private final PooledMailSender mailSender;
+
+    @Value("${ending-soon-digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ending-soon-digest.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${ending-soon-digest.product-batch-size:500}")
+    private int productBatchSize;
+
+    @Value("${ending-soon-digest.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    // phai >= product-batch-size: 1 user co toi da 1 dong / product
+    @Value("${ending-soon-digest.page-size:5000}")
+    private int pageSize;
+
+    @Value("${ending-soon-digest.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${frontend.base-url}")
+    private String frontendBaseUrl;
+
+    private record ProductRow(Long id, String name, BigDecimal price, OffsetDateTime endAt) {
+    }
+
+    private record WatcherRow(Long userId, Long productId) {
+    }
+
+    @Scheduled(fixedDelayString = "${ending-soon-digest.interval-ms:60000}",
+            initialDelayString = "${ending-soon-digest.interval-ms:60000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long startedAt = System.nanoTime();
+            long sentBefore = mailSender.getSentCount();
+            long watcherRows = 0;
+            int digests = 0;
+            int products = 0;
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Map<Long, ProductRow> claimed = claimProducts();
+                if (claimed.isEmpty()) {
+                    break;
+                }
+                products += claimed.size();
+                long[] counts = notifyWatchers(claimed);
+                watcherRows += counts[0];
+                digests += (int) counts[1];
+                if (claimed.size() < productBatchSize) {
+                    break;
+                }
+            }
+            if (products > 0) {
+                double minutes = Math.max(System.nanoTime() - startedAt, 1) / 60_000_000_000.0;
+                logger.info("Ending soon digest: {} products, {} watcher rows, {} digests queued; "
+                                + "{} watcher rows/min, {} mails/s sent (limit {}/s)",
+                        products, watcherRows, digests,
+                        Math.round(watcherRows / minutes),
+                        Math.round((mailSender.getSentCount() - sentBefore) / (minutes * 60)),
+                        mailSender.getRatePerSecond());
+            }
+            jdbcTemplate.update("DELETE FROM ending_soon_notice WHERE notified_at < now() - make_interval(days => ?)",
+                    retentionDays);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Ending soon digest failed", e);
+        }
+    }
+
+    private Map<Long, ProductRow> claimProducts() {
+        List<Long> ids = jdbcTemplate.queryForList("""
+                INSERT INTO ending_soon_notice (product_id, notified_at)
+                SELECT p.id, now() FROM product p
+                WHERE p.end_at > now() AND p.end_at <= now() + make_interval(mins => ?)
+                  AND NOT EXISTS (SELECT 1 FROM ending_soon_notice n WHERE n.product_id = p.id)
+                ORDER BY p.end_at
+                LIMIT ?
+                ON CONFLICT (product_id) DO NOTHING
+                RETURNING product_id
+                """, Long.class, windowMinutes, productBatchSize);
+        Map<Long, ProductRow> products = new HashMap<>();
+        if (ids.isEmpty()) {
+            return products;
+        }
+        namedJdbcTemplate.query("""
+                SELECT id, product_name, COALESCE(current_price, start_price) AS price, end_at
+                FROM product WHERE id IN (:ids)
+                """, new MapSqlParameterSource("ids", ids), rs -> {
+            products.put(rs.getLong("id"), new ProductRow(rs.getLong("id"), rs.getString("product_name"),
+                    rs.getBigDecimal("price"), rs.getObject("end_at", OffsetDateTime.class)));
+        });
+        return products;
+    }
+
+    /**
+     * @return {so dong wishlist da doc, so digest da dua vao hang doi}
+     */
+    private long[] notifyWatchers(Map<Long, ProductRow> products) throws InterruptedException {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", products.keySet())
+                .addValue("limit", pageSize);
+        long afterUserId = Long.MIN_VALUE;
+        long rows = 0;
+        long digests = 0;
+        while (true) {
+            params.addValue("after", afterUserId);
+            List<WatcherRow> page = namedJdbcTemplate.query("""
+                    SELECT user_id, product_id FROM wishlist
+                    WHERE product_id IN (:ids) AND user_id > :after
+                    ORDER BY user_id
+                    LIMIT :limit
+                    """, params, (rs, rowNum) -> new WatcherRow(rs.getLong("user_id"), rs.getLong("product_id")));
+            if (page.isEmpty()) {
+                break;
+            }
+            rows += page.size();
+            boolean lastPage = page.size() < pageSize;
+
+            // trang day: bo cac dong cua user cuoi (co the con dong o trang sau), doc lai o trang sau
+            if (!lastPage) {
+                Long lastUserId = page.get(page.size() - 1).userId();
+                List<WatcherRow> complete = page.stream().filter(row -> !row.userId().equals(lastUserId)).toList();
+                if (!complete.isEmpty()) {
+                    rows -= page.size() - complete.size();
+                    page = complete;
+                }
+            }
+
+            Map<Long, List<ProductRow>> byUser = new LinkedHashMap<>();
+            for (WatcherRow row : page) {
+                ProductRow product = products.get(row.productId());
+                if (product != null) {
+                    byUser.computeIfAbsent(row.userId(), k -> new ArrayList<>()).add(product);
+                }
+            }
+            digests += sendDigests(byUser);
+
+            afterUserId = page.get(page.size() - 1).userId();
+            if (lastPage) {
+                break;
+            }
+        }
+        return new long[]{rows, digests};
+    }
+
+    private int sendDigests(Map<Long, List<ProductRow>> byUser) throws InterruptedException {
+        Map<Long, UserContact> contacts = userContactClient.getContacts(byUser.keySet());
+        int queued = 0;
+        for (Map.Entry<Long, List<ProductRow>> entry : byUser.entrySet()) {
+            UserContact contact = contacts.get(entry.getKey());
+            // chi gui toi email da xac thuc
+            if (contact == null || contact.getEmail() == null || !Boolean.TRUE.equals(contact.getVerified())) {
+                continue;
+            }
+            // submit co the chan lau khi hang doi day: auction da ket thuc trong luc cho thi khong nhac nua
+            OffsetDateTime now = OffsetDateTime.now();
+            List<ProductRow> open = entry.getValue().stream().filter(product -> product.endAt().isAfter(now)).toList();
+            if (open.isEmpty()) {
+                continue;
+            }
+            mailSender.submit(buildDigest(contact, open));
+            queued++;
+        }
+        return queued;
+    }
+
+    private SimpleMailMessage buildDigest(UserContact contact, List<ProductRow> products) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Hi %s,%n%n", contact.getFullname() != null ? contact.getFullname() : "there"));
+        text.append(products.size() == 1
+                ? "An auction in your wishlist is ending soon:\n\n"
+                : String.format("%d auctions in your wishlist are ending soon:%n%n", products.size()));
+        products.stream()
+                .sorted(Comparator.comparing(ProductRow::endAt))
+                .forEach(product -> text.append(String.format("- %s%n  Current price: %s%n  Ends at: %s%n  %s/product-page/%d%n%n",
+                        product.name(),
+                        product.price() != null ? product.price().stripTrailingZeros().toPlainString() : "-",
+                        product.endAt().format(END_AT_FORMAT),
+                        frontendBaseUrl, product.id())));
+        text.append("You are receiving this email because these products are in your wishlist.");
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(contact.getEmail());
+        message.setSubject(products.size() == 1
+                ? "An auction in your wishlist is ending soon"
+                : "Auctions in your wishlist are ending soon");
+        message.setText(text.toString());
+        return message;
+    }
+}
@@ -0,0 +1,15 @@
+package com.service.worker.service;
+
+import com.service.worker.dto.UserContact;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface UserContactClient {
+
+    /**
+     * Email / ten cua nhieu user qua /api/user/internal/contacts/batch (chia chunk 1000 id).
+     * User khong ton tai hoac chunk bi loi goi thi khong co trong map.
+     */
+    Map<Long, UserContact> getContacts(Collection<Long> userIds);
+}
@@ -0,0 +1,79 @@
+package com.service.worker.service.impl;
+
+import com.service.worker.dto.ApiResponse;
+import com.service.worker.dto.UserContact;
+import com.service.worker.service.UserContactClient;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class UserContactClientImpl implements UserContactClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserContactClientImpl.class);
+
+    // khop voi gioi han cua /api/user/internal/contacts/batch
+    private static final int BATCH_SIZE = 1000;
+
+    private final RestTemplate restTemplate;
+
+    @Value("${user.service.url}")
+    private String userServiceUrl;
+
+    @Override
+    public Map<Long, UserContact> getContacts(Collection<Long> userIds) {
+        Map<Long, UserContact> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        String url = userServiceUrl + "/api/user/internal/contacts/batch";
+
+        // worker khong co request cua user, goi voi danh tinh he thong
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-user-id", "0");
+        headers.set("X-user-role", "SYSTEM");
+
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            try {
+                ResponseEntity<ApiResponse<List<UserContact>>> response = restTemplate.exchange(
+                        url,
+                        HttpMethod.POST,
+                        new HttpEntity<>(chunk, headers),
+                        new ParameterizedTypeReference<>() {}
+                );
+
+                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null
+                        && response.getBody().getData() != null) {
+                    for (UserContact contact : response.getBody().getData()) {
+                        result.put(contact.getId(), contact);
+                    }
+                } else {
+                    logger.warn("Failed to get contacts of {} users, status: {}", chunk.size(), response.getStatusCode());
+                }
+            } catch (RestClientException e) {
+                logger.error("Error calling user service for contacts of {} users", chunk.size(), e);
+            }
+        }
+        return result;
+    }
+}